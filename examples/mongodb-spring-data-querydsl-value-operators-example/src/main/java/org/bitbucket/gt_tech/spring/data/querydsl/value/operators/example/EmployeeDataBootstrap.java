@@ -18,55 +18,164 @@ package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example;
 import static org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.utils.LambdaUtils.handlingConsumerWrapper;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
 
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.dao.EmployeeRepository;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.model.Employee;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.SearchResultCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 /**
  * Utility class which bootstraps the test employee-data for this example
  * application into underlying {@link EmployeeRepository}
  * 
+ * <p>
+ * Every resource matching one of the configured patterns is streamed with a
+ * {@link MappingIterator}, so a resource can hold a single employee (like the
+ * bundled <code>classpath:users/*.json</code>) or millions of them as JSON
+ * lines without ever being read in full. Employees are inserted with unordered
+ * bulk operations of <code>example.bootstrap.batch-size</code> documents.
+ * Resources can be loaded in parallel
+ * (<code>example.bootstrap.parallelism</code>) and in background
+ * (<code>example.bootstrap.background</code>), in which case the application
+ * starts serving requests while data is still being loaded.
+ * </p>
+ * 
  * @author gt_tech
  *
  */
 @Component
 public class EmployeeDataBootstrap implements ResourceLoaderAware {
 
-	private ResourceLoader resourceLoader;
+	private static final Logger LOG = LoggerFactory.getLogger(EmployeeDataBootstrap.class);
 
-	private final String pattern = "classpath:users/*.json";
+	private ResourceLoader resourceLoader;
 
-	private final ObjectMapper mapper = new ObjectMapper();
+	private final ObjectReader reader = new ObjectMapper().readerFor(Employee.class);
 
 	@Autowired
 	MongoTemplate mongoTemplate;
 
+	@Autowired
+	SearchResultCache searchResultCache;
+
+	@Value("${example.bootstrap.patterns:classpath:users/*.json}")
+	String[] patterns;
+
+	@Value("${example.bootstrap.batch-size:1000}")
+	int batchSize;
+
+	@Value("${example.bootstrap.parallelism:1}")
+	int parallelism;
+
+	@Value("${example.bootstrap.background:false}")
+	boolean background;
+
 	/**
 	 * Method loads the data from JSON files into {@link EmployeeRepository}
 	 * @throws Exception if any error occurs in bootstrapping user data.
 	 */
 	@PostConstruct
 	public void bootstrap() throws Exception {
-		Resource[] usersResources = loadResources(pattern);
-		if (usersResources != null) {
-			Arrays.stream(usersResources)
-					.forEach(handlingConsumerWrapper(
-							us -> mongoTemplate.save(mapper.readValue(us.getInputStream(), Employee.class)),
-							IOException.class, Optional.empty()));
+		final List<Resource> resources = new ArrayList<>();
+		for (String pattern : patterns) {
+			resources.addAll(Arrays.asList(loadResources(pattern.trim())));
 		}
+		if (resources.isEmpty()) {
+			return;
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(
+				Math.max(1, Math.min(parallelism, resources.size())), threadFactory());
+		final AtomicLong count = new AtomicLong();
+		final long start = System.nanoTime();
+		final CompletableFuture<?>[] loads = resources.stream()
+				.map(resource -> CompletableFuture.runAsync(() -> handlingConsumerWrapper(
+						(Resource r) -> count.addAndGet(load(r)), IOException.class, Optional.empty())
+						.accept(resource), executor))
+				.toArray(CompletableFuture[]::new);
+		executor.shutdown();
+
+		final CompletableFuture<Void> all = CompletableFuture.allOf(loads)
+				.whenComplete((v, t) -> {
+					if (t != null) {
+						LOG.error("Failed to bootstrap employees, loaded {} from {} resource(s) in {} ms",
+								count.get(), resources.size(), (System.nanoTime() - start) / 1_000_000, t);
+					} else {
+						LOG.info("Bootstrapped {} employees from {} resource(s) in {} ms", count.get(),
+								resources.size(), (System.nanoTime() - start) / 1_000_000);
+					}
+				});
+		if (!background) {
+			all.join();
+		}
+	}
+
+	/**
+	 * Streams employees from the supplied resource into MongoDB in batches
+	 * @param resource resource holding one or more JSON employee documents
+	 * @return number of employees loaded
+	 * @throws IOException if resource can't be read or parsed
+	 */
+	long load(Resource resource) throws IOException {
+		long loaded = 0;
+		final List<Employee> batch = new ArrayList<>(batchSize);
+		try (InputStream in = resource.getInputStream();
+				MappingIterator<Employee> employees = reader.readValues(in)) {
+			while (employees.hasNextValue()) {
+				batch.add(employees.nextValue());
+				if (batch.size() >= batchSize) {
+					loaded += insert(batch);
+				}
+			}
+			loaded += insert(batch);
+		}
+		LOG.debug("Loaded {} employees from {}", loaded, resource);
+		return loaded;
+	}
+
+	private int insert(List<Employee> batch) {
+		final int size = batch.size();
+		if (size > 0) {
+			mongoTemplate.bulkOps(BulkMode.UNORDERED, Employee.class)
+					.insert(batch)
+					.execute();
+			// bulk operations don't emit mapping events
+			searchResultCache.invalidate(Employee.class);
+			batch.clear();
+		}
+		return size;
+	}
+
+	private static CustomizableThreadFactory threadFactory() {
+		final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("employee-bootstrap-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
 	}
 
 	@Override
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.dao;
+
+import java.util.stream.Stream;
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.model.Employee;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.NdjsonSearchExport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.data.util.StreamUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.types.Predicate;
+
+import io.swagger.annotations.Api;
+import springfox.documentation.annotations.ApiIgnore;
+
+/**
+ * Streaming export of {@link Employee} search results as newline delimited
+ * JSON, for bulk exports that would otherwise page through
+ * <code>/employees/search</code> (running a count query for every page).
+ * 
+ * <p>
+ * The search predicate is executed once as a MongoDB cursor that is read in
+ * batches by the driver while employees are written to the response one at a
+ * time, see {@link NdjsonSearchExport}. Since the export outlives the default
+ * timeout of asynchronous requests, it's raised with
+ * <code>spring.mvc.async.request-timeout</code>.
+ * </p>
+ * 
+ * @author gt_tech
+ *
+ */
+@RestController
+@RequestMapping(value = "/employees")
+@Api(tags = "Employees API")
+public class EmployeeExportController {
+
+	private final MongoOperations mongoOperations;
+
+	private final NdjsonSearchExport export;
+
+	public EmployeeExportController(MongoOperations mongoOperations, ObjectMapper objectMapper,
+			@Value("${example.export.flush-interval:500}") int flushInterval) {
+		this.mongoOperations = mongoOperations;
+		this.export = new NdjsonSearchExport(objectMapper, flushInterval);
+	}
+
+	/**
+	 * Exports all employees satisfying the predicate, all employees if there's
+	 * none.
+	 * 
+	 * @param predicate
+	 *            {@link Predicate} to be used to perform search.
+	 * @return body streaming one {@link Employee} per line, bad request if
+	 *         predicate can't be expressed as MongoDB query.
+	 */
+	@GetMapping(path = { "/export" }, produces = { NdjsonSearchExport.MEDIA_TYPE })
+	public ResponseEntity<StreamingResponseBody> export(
+			@ApiIgnore @QuerydslPredicate(root = Employee.class) Predicate predicate) {
+		final Query query;
+		try {
+			query = MongoPredicateQueries.toQuery(predicate);
+		} catch (IllegalArgumentException e) {
+			// operation not supported by MongoDB
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(NdjsonSearchExport.MEDIA_TYPE))
+				.body(out -> export.write(stream(query), out));
+	}
+
+	private Stream<Employee> stream(Query query) {
+		return StreamUtils.createStreamFromIterator(mongoOperations.stream(query, Employee.class));
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.dao;
+
+import java.util.List;
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.model.Employee;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.KeysetPage;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.KeysetPagination;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.querydsl.core.types.Predicate;
+
+import io.swagger.annotations.Api;
+import springfox.documentation.annotations.ApiIgnore;
+
+/**
+ * Generic search of {@link Employee} paginated by keyset instead of offset.
+ * 
+ * <p>
+ * Pages are fetched by a {@link MongoOperations} query limited to the size of
+ * page rather than through
+ * {@link org.springframework.data.querydsl.QuerydslPredicateExecutor} of
+ * {@link EmployeeRepository}, which would execute a count query along with
+ * every page but the last.
+ * </p>
+ * 
+ * @author gt_tech
+ *
+ */
+@RestController
+@RequestMapping(value = "/employees")
+@Api(tags = "Employees API")
+public class EmployeeKeysetSearchController {
+
+	private static final KeysetPagination<Employee> KEYSET = new KeysetPagination<>(Employee.class, "_id");
+
+	private final MongoOperations mongoOperations;
+
+	public EmployeeKeysetSearchController(MongoOperations mongoOperations) {
+		this.mongoOperations = mongoOperations;
+	}
+
+	/**
+	 * Generic search paginated by keyset instead of offset: a page continues
+	 * after the sort values of last employee of previous page, so deep pages
+	 * cost the same as the first one on an index.
+	 * 
+	 * @param predicate
+	 *            {@link Predicate} to be used to perform search.
+	 * @param sort
+	 *            sort of results, followed by identifier
+	 * @param size
+	 *            maximum number of employees of page
+	 * @param cursor
+	 *            <code>nextCursor</code> of previous page, none for first page
+	 * @return {@link KeysetPage} of {@link Employee} satisfying the provided
+	 *         predicate.
+	 */
+	@RequestMapping(path = { "/search/keyset" }, produces = { MediaType.APPLICATION_JSON_VALUE }, method = {
+			RequestMethod.GET, RequestMethod.POST })
+	public ResponseEntity<KeysetPage<Employee>> searchByKeyset(
+			@ApiIgnore @QuerydslPredicate(root = Employee.class) Predicate predicate, Sort sort,
+			@RequestParam(defaultValue = "20") int size, @RequestParam(required = false) String cursor) {
+		try {
+			return ResponseEntity.ok(KEYSET.findAll(this::fetch, predicate, sort, size, cursor));
+		} catch (IllegalArgumentException e) {
+			// invalid cursor, size or sort, or predicate not supported by MongoDB
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+	}
+
+	private List<Employee> fetch(Predicate predicate, Sort sort, int limit) {
+		return mongoOperations.find(MongoPredicateQueries.toQuery(predicate)
+				.with(sort)
+				.limit(limit), Employee.class);
+	}
+}
@@ -20,6 +20,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProviderFactory;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.model.QEmployee;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.model.Employee;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.CoalescingSearchExecutor;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.SearchResultCache;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -37,6 +39,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
@@ -92,38 +95,57 @@ public interface EmployeeRepository
 	 * 
 	 * @param emailAddress
 	 *            String email address to search on
+	 * @param request
+	 *            current request, see
+	 *            {@link #search(Predicate, Pageable, WebRequest)}
 	 * @return {@link Iterable} of {@link Employee} having same email address as
 	 *         supplied to this method
 	 */
 	@RequestMapping(path = { "/emails/{emailAddress}" }, produces = { MediaType.APPLICATION_JSON_VALUE }, method = {
 			RequestMethod.GET, RequestMethod.POST })
-	default ResponseEntity<Iterable<Employee>> search(@PathVariable String emailAddress) {
+	default ResponseEntity<Iterable<Employee>> search(@PathVariable String emailAddress,
+			@ApiIgnore WebRequest request) {
 		if (StringUtils.isBlank(emailAddress)) {
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		} else {
-			return search(QEmployee.employee.emails.any().address.eq(emailAddress), PageRequest.of(0, 10));
+			return search(QEmployee.employee.emails.any().address.eq(emailAddress), PageRequest.of(0, 10), request);
 		}
 	}
 
 	/**
 	 * Generic Search interface implementation using QueryDSL integration.
+	 * Results are served from {@link SearchResultCache} when the same search
+	 * was run recently and no employee has changed since.
 	 * 
 	 * @param predicate
 	 *            {@link Predicate} to be used to perform search.
 	 * @param pageable
 	 *            {@link Pageable} instance
+	 * @param request
+	 *            current request, answered with <code>304 Not Modified</code>
+	 *            without executing the search if its <code>If-None-Match</code>
+	 *            header matches the ETag of search.
 	 * @return {@link Iterable} of {@link Employee} satisfied the provided
 	 *         predicate.
 	 */
 	@RequestMapping(path = { "/search" }, produces = { MediaType.APPLICATION_JSON_VALUE }, method = { RequestMethod.GET,
 			RequestMethod.POST })
 	default ResponseEntity<Iterable<Employee>> search(
-			@ApiIgnore @QuerydslPredicate(root = Employee.class) Predicate predicate, @PageableDefault Pageable pageable) {
+			@ApiIgnore @QuerydslPredicate(root = Employee.class) Predicate predicate, @PageableDefault Pageable pageable,
+			@ApiIgnore WebRequest request) {
 		if (predicate == null || (BooleanBuilder.class.isAssignableFrom(predicate.getClass())
 				&& !((BooleanBuilder) predicate).hasValue())) {
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		} else {
-			return ResponseEntity.ok(this.findAll(predicate, pageable));
+			final SearchResultCache cache = SearchResultCache.getDefault();
+			final String eTag = cache.getETag(Employee.class, predicate, pageable);
+			if (request != null && request.checkNotModified(eTag)) {
+				return null;
+			}
+			return ResponseEntity.ok()
+					.eTag(eTag)
+					.body(cache.findAll(CoalescingSearchExecutor.getDefault()
+							.wrap(this, Employee.class), Employee.class, predicate, pageable));
 		}
 	}
 
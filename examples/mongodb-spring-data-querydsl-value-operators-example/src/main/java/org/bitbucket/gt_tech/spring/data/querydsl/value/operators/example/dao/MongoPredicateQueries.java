@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.mongodb.MongodbSerializer;
+
+/**
+ * Converts search predicates into {@link Query queries} of
+ * {@link org.springframework.data.mongodb.core.MongoOperations}, for searches
+ * that need more control over execution than
+ * {@link org.springframework.data.querydsl.QuerydslPredicateExecutor} offers
+ * (for e.g. a cursor or a limit).
+ * 
+ * @author gt_tech
+ *
+ */
+final class MongoPredicateQueries {
+
+	private MongoPredicateQueries() {
+	}
+
+	/**
+	 * Same criteria as QuerydslPredicateExecutor would send, field names are
+	 * mapped by MongoOperations.
+	 * 
+	 * @param predicate
+	 *            search predicate, can be <code>null</code>.
+	 * @return query of predicate
+	 * @throws IllegalArgumentException
+	 *             if predicate uses an operation (or a reference) that can't
+	 *             be expressed as MongoDB query
+	 */
+	static Query toQuery(Predicate predicate) {
+		final Object criteria;
+		try {
+			criteria = predicate != null ? new PredicateSerializer().handle(predicate) : null;
+		} catch (UnsupportedOperationException e) {
+			throw new IllegalArgumentException("Unsupported search: " + predicate, e);
+		}
+		return criteria instanceof DBObject ? new BasicQuery((Document) toDocument(criteria)) : new Query();
+	}
+
+	private static Object toDocument(Object value) {
+		if (value instanceof BasicDBList) {
+			final List<Object> list = new ArrayList<>();
+			for (Object element : (BasicDBList) value) {
+				list.add(toDocument(element));
+			}
+			return list;
+		} else if (value instanceof DBObject) {
+			final DBObject object = (DBObject) value;
+			final Document document = new Document();
+			for (String key : object.keySet()) {
+				document.put(key, toDocument(object.get(key)));
+			}
+			return document;
+		}
+		return value;
+	}
+
+	/*
+	 * Employee has no references to other documents
+	 */
+	private static final class PredicateSerializer extends MongodbSerializer {
+
+		@Override
+		protected boolean isReference(Path<?> arg) {
+			return false;
+		}
+
+		@Override
+		protected DBRef asReference(Object constant) {
+			throw new UnsupportedOperationException("References aren't supported");
+		}
+
+		@Override
+		protected DBRef asReferenceKey(Class<?> entity, Object id) {
+			throw new UnsupportedOperationException("References aren't supported");
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.spring;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.SearchResultCodec;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+/**
+ * Encodes pages of search results stored on disk as JSON, so they can be
+ * read back by a newer deployment as long as the resource model stays
+ * compatible with its JSON representation.
+ * 
+ * @author gt_tech
+ *
+ */
+public class JacksonSearchResultCodec implements SearchResultCodec {
+
+	private final ObjectMapper mapper;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param mapper
+	 *            {@link ObjectMapper} used to (de)serialize the resource model
+	 */
+	public JacksonSearchResultCodec(ObjectMapper mapper) {
+		Validate.notNull(mapper, "ObjectMapper must not be null");
+		this.mapper = mapper;
+	}
+
+	@Override
+	public void encode(Page<?> page, OutputStream out) throws IOException {
+		try (JsonGenerator generator = mapper.getFactory()
+				.createGenerator(out)) {
+			generator.writeStartObject();
+			generator.writeNumberField("total", page.getTotalElements());
+			final Pageable pageable = page.getPageable();
+			if (pageable.isPaged()) {
+				generator.writeNumberField("page", pageable.getPageNumber());
+				generator.writeNumberField("size", pageable.getPageSize());
+				generator.writeArrayFieldStart("sort");
+				for (Sort.Order order : pageable.getSort()) {
+					generator.writeString(order.getProperty() + "," + order.getDirection());
+				}
+				generator.writeEndArray();
+			}
+			generator.writeFieldName("content");
+			mapper.writeValue(generator, page.getContent());
+			generator.writeEndObject();
+		}
+	}
+
+	@Override
+	public <T> Page<T> decode(Class<T> domainType, ByteBuffer buffer) throws IOException {
+		final JsonNode node = mapper.readTree(new ByteBufferBackedInputStream(buffer));
+		final List<T> content = mapper.convertValue(node.get("content"), mapper.getTypeFactory()
+				.constructCollectionType(List.class, domainType));
+		Pageable pageable = Pageable.unpaged();
+		if (node.has("page")) {
+			final List<Sort.Order> orders = new ArrayList<>();
+			for (JsonNode order : node.get("sort")) {
+				final String[] parts = order.asText()
+						.split(",");
+				orders.add(new Sort.Order(Sort.Direction.fromString(parts[1]), parts[0]));
+			}
+			pageable = PageRequest.of(node.get("page")
+					.asInt(),
+					node.get("size")
+							.asInt(),
+					Sort.by(orders));
+		}
+		return new PageImpl<>(content, pageable, node.get("total")
+				.asLong());
+	}
+}
@@ -16,8 +16,14 @@
 package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.spring;
 
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.model.Employee;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.CoalescingSearchExecutor;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.MappedSearchResultStore;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.QuerydslHttpRequestContextAwareServletFilter;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.QuerydslPredicateArgumentResolverBeanPostProcessor;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.SearchResultCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,6 +33,12 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.data.querydsl.binding.QuerydslBindingsFactory;
 import org.springframework.format.support.DefaultFormattingConversionService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.servlet.DispatcherType;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -47,7 +59,8 @@ public class QueryDslValueOperatorsConfig {
 		FilterRegistrationBean bean = new FilterRegistrationBean();
 		bean.setFilter(new QuerydslHttpRequestContextAwareServletFilter(
 				querydslHttpRequestContextAwareServletFilterMappings()));
-		bean.setAsyncSupported(false);
+		bean.setAsyncSupported(true);
+		bean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
 		bean.setEnabled(true);
 		bean.setName("querydslHttpRequestContextAwareServletFilter");
 		bean.setUrlPatterns(Arrays.asList(new String[] { "/employees/search*" }));
@@ -73,4 +86,85 @@ public class QueryDslValueOperatorsConfig {
 			QuerydslBindingsFactory factory, DefaultFormattingConversionService conversionServiceDelegate) {
 		return new QuerydslPredicateArgumentResolverBeanPostProcessor(factory, conversionServiceDelegate);
 	}
+
+	/**
+	 * Publishes value operator metrics to Micrometer registry of Spring boot
+	 * actuator.
+	 * @return ValueOperatorsMeterBinder instance
+	 */
+	@Bean
+	public ValueOperatorsMeterBinder valueOperatorsMeterBinder() {
+		return new ValueOperatorsMeterBinder();
+	}
+
+	/**
+	 * Caches results of employee searches, registered as default cache since
+	 * search methods of {@link org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.dao.EmployeeRepository}
+	 * can't be injected with it.
+	 * @param size maximum number of cached search results, 0 turns caching off
+	 * @param ttlSeconds seconds after which a cached search result expires
+	 * @return SearchResultCache instance
+	 */
+	@Bean
+	public SearchResultCache searchResultCache(@Value("${example.search-cache.size:1000}") long size,
+			@Value("${example.search-cache.ttl-seconds:60}") long ttlSeconds,
+			ObjectProvider<MappedSearchResultStore> diskTier) {
+		SearchResultCache cache = new SearchResultCache(size, Duration.ofSeconds(ttlSeconds),
+				diskTier.getIfAvailable());
+		SearchResultCache.setDefault(cache);
+		return cache;
+	}
+
+	/**
+	 * Coalesces identical employee searches executed concurrently (for e.g.
+	 * on a cold cache during a traffic spike) into a single MongoDB query,
+	 * registered as default for the same reason as search result cache.
+	 * @param maxWaitMillis maximum milliseconds a search waits for an identical
+	 *            one before querying itself, 0 turns coalescing off
+	 * @param failurePolicy whether waiting searches fail or retry when the one
+	 *            they wait for fails
+	 * @return CoalescingSearchExecutor instance
+	 */
+	@Bean
+	public CoalescingSearchExecutor coalescingSearchExecutor(
+			@Value("${example.search-coalescing.max-wait-millis:2000}") long maxWaitMillis,
+			@Value("${example.search-coalescing.failure-policy:PROPAGATE}")
+					CoalescingSearchExecutor.FailurePolicy failurePolicy) {
+		CoalescingSearchExecutor executor = new CoalescingSearchExecutor(Duration.ofMillis(maxWaitMillis),
+				failurePolicy);
+		CoalescingSearchExecutor.setDefault(executor);
+		return executor;
+	}
+
+	/**
+	 * Disk tier of search result cache, only enabled when a directory is
+	 * configured. Results stored there survive restarts of the application.
+	 * @param directory local directory of memory-mapped files
+	 * @param capacityMegabytes capacity of data file
+	 * @param slots number of index slots
+	 * @param objectMapper ObjectMapper serializing resource model
+	 * @return MappedSearchResultStore instance
+	 * @throws IOException if store can't be opened
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty("example.search-cache.disk.directory")
+	public MappedSearchResultStore mappedSearchResultStore(
+			@Value("${example.search-cache.disk.directory}") String directory,
+			@Value("${example.search-cache.disk.capacity-mb:256}") int capacityMegabytes,
+			@Value("${example.search-cache.disk.slots:65536}") int slots, ObjectMapper objectMapper)
+			throws IOException {
+		return new MappedSearchResultStore(Paths.get(directory), capacityMegabytes << 20, slots,
+				new JacksonSearchResultCodec(objectMapper));
+	}
+
+	/**
+	 * Invalidates cached search results on changes to documents.
+	 * @param searchResultCache cache to invalidate
+	 * @return SearchResultCacheMongoEventListener instance
+	 */
+	@Bean
+	public SearchResultCacheMongoEventListener searchResultCacheMongoEventListener(
+			SearchResultCache searchResultCache) {
+		return new SearchResultCacheMongoEventListener(searchResultCache);
+	}
 }
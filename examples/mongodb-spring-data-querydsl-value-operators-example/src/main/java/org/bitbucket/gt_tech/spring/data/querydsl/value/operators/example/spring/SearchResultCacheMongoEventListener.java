@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.spring;
+
+import org.apache.commons.lang3.Validate;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.SearchResultCache;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+/**
+ * Invalidates cached search results of a document type whenever a document
+ * of it is saved or deleted through {@link org.springframework.data.mongodb.core.MongoTemplate}
+ * or a repository.
+ * 
+ * <p>
+ * Bulk operations don't emit these events, code using them must invalidate
+ * {@link SearchResultCache} on its own.
+ * </p>
+ * 
+ * @author gt_tech
+ *
+ */
+public class SearchResultCacheMongoEventListener extends AbstractMongoEventListener<Object> {
+
+	private final SearchResultCache searchResultCache;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param searchResultCache
+	 *            cache to invalidate
+	 */
+	public SearchResultCacheMongoEventListener(SearchResultCache searchResultCache) {
+		Validate.notNull(searchResultCache, "SearchResultCache must not be null");
+		this.searchResultCache = searchResultCache;
+	}
+
+	@Override
+	public void onAfterSave(AfterSaveEvent<Object> event) {
+		searchResultCache.invalidate(event.getSource()
+				.getClass());
+	}
+
+	/*
+	 * Type is unknown for deletes by query on a collection name only, in which
+	 * case all results are invalidated.
+	 */
+	@Override
+	public void onAfterDelete(AfterDeleteEvent<Object> event) {
+		searchResultCache.invalidate(event.getType());
+	}
+}
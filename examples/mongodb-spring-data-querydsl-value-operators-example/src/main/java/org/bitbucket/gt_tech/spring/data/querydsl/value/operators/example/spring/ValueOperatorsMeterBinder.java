@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.spring;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProviderFactory;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.Operator;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ValueOperatorsMetrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes metrics of value operator processing to Micrometer by
+ * registering itself with
+ * {@link ExpressionProviderFactory#setMetrics(ValueOperatorsMetrics)} when
+ * bound to a {@link MeterRegistry}.
+ * 
+ * <ul>
+ * <li><code>querydsl.value.operators.parse</code> - timer of parsing a
+ * search value</li>
+ * <li><code>querydsl.value.operators.build</code> - timer of building the
+ * expression of a path, tagged by <code>provider</code> and
+ * <code>path</code></li>
+ * <li><code>querydsl.value.operators.values</code> - number of values per
+ * path, tagged by <code>path</code></li>
+ * <li><code>querydsl.value.operators.operators</code> - operator usage,
+ * tagged by <code>path</code> and <code>operator</code></li>
+ * <li><code>querydsl.value.operators.cache</code> - cache lookups, tagged by
+ * <code>cache</code> and <code>result</code> (hit or miss)</li>
+ * </ul>
+ * 
+ * Tags are bounded by the domain model, search values are never used.
+ * 
+ * @author gt_tech
+ *
+ */
+public class ValueOperatorsMeterBinder implements MeterBinder, ValueOperatorsMetrics {
+
+	private static final String PREFIX = "querydsl.value.operators.";
+
+	private MeterRegistry registry;
+
+	private Timer parseTimer;
+
+	/*
+	 * Meters by their distinguishing tag values, avoids building meter ids on
+	 * every callback
+	 */
+	private final Map<String, Timer> buildTimers = new ConcurrentHashMap<>();
+	private final Map<String, DistributionSummary> valueCounts = new ConcurrentHashMap<>();
+	private final Map<String, Counter> operatorCounters = new ConcurrentHashMap<>();
+	private final Map<String, Counter> cacheCounters = new ConcurrentHashMap<>();
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+		this.parseTimer = Timer.builder(PREFIX + "parse")
+				.description("Parsing of a search value into its operator chain")
+				.register(registry);
+		ExpressionProviderFactory.setMetrics(this);
+	}
+
+	@Override
+	public void recordParse(long nanos) {
+		parseTimer.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void recordBuild(Class<?> providerType, String path, int valueCount, long nanos) {
+		buildTimers.computeIfAbsent(providerType.getName() + '#' + path, k -> Timer.builder(PREFIX + "build")
+				.description("Building of a path's expression from parsed values")
+				.tag("provider", providerType.getSimpleName())
+				.tag("path", path)
+				.register(registry))
+				.record(nanos, TimeUnit.NANOSECONDS);
+		valueCounts.computeIfAbsent(path, k -> DistributionSummary.builder(PREFIX + "values")
+				.description("Number of values of a path")
+				.tag("path", path)
+				.register(registry))
+				.record(valueCount);
+	}
+
+	@Override
+	public void recordOperator(String path, Operator operator) {
+		operatorCounters.computeIfAbsent(path + '#' + operator.name(), k -> Counter.builder(PREFIX + "operators")
+				.description("Usage of value operators")
+				.tag("path", path)
+				.tag("operator", operator.name())
+				.register(registry))
+				.increment();
+	}
+
+	@Override
+	public void recordCacheAccess(String cache, boolean hit) {
+		final String result = hit ? "hit" : "miss";
+		cacheCounters.computeIfAbsent(cache + '#' + result, k -> Counter.builder(PREFIX + "cache")
+				.description("Lookups of internal caches")
+				.tag("cache", cache)
+				.tag("result", result)
+				.register(registry))
+				.increment();
+	}
+}
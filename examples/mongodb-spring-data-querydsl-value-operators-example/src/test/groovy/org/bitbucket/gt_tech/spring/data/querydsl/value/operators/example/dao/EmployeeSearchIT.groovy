@@ -28,6 +28,8 @@ import static org.hamcrest.beans.HasPropertyWithValue.hasProperty
 import static org.hamcrest.beans.HasPropertyWithValue.hasProperty
 import static org.junit.Assert.assertEquals;
 
+import groovy.json.JsonSlurper
+
 import java.util.List
 
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.example.SpringApplication;
@@ -97,6 +99,36 @@ class EmployeeSearchIT extends Specification {
         "/employees/emails/dgayle@company.com"                                                                  | 1             | userNamesMatcher(["dgayle"])
     }
 
+    def "it should page through search results in order of sort with keyset pagination"() {
+        given:
+        def query = "/employees/search/keyset?emails.address=endsWith(@example.com)&emails.address=or(endsWith(@dummy.com))&sort=userName&size=3"
+        def userNames = []
+        def cursor = null
+
+        when:
+        while (true) {
+            def page = client.getForObject(cursor ? "$query&cursor=$cursor" : query, Map)
+            userNames.addAll(page.content*.userName)
+            cursor = page.nextCursor
+            if (!cursor) {
+                break
+            }
+        }
+
+        then:
+        userNames == ["bsummers", "dgayle", "ksmith", "ssmith"]
+    }
+
+    def "it should export all search results as newline delimited JSON"() {
+        when:
+        def response = client.getForEntity("/employees/export?emails.address=endsWith(@company.com)&status=ACTIVE", String)
+
+        then:
+        response.headers.contentType.toString() == "application/x-ndjson"
+        response.body.readLines().collect { new JsonSlurper().parseText(it).userName } as Set == [
+                "ssmith", "dgayle", "bsummers"] as Set
+    }
+
 
     def employees(def query) {
         client.exchange(query.trim(), HttpMethod.GET, null, new ParameterizedTypeReference<Resource<List<Employee>>>() {
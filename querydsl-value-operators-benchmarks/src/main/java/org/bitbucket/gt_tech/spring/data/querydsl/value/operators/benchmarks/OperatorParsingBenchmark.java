@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.benchmarks;
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProvider;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.Operator;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.OperatorAndValue;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ParsedOperatorValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing of a single value decorated with value operators, from
+ * a plain value up to a deeply nested composition.
+ *
+ * @author gt_tech
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OperatorParsingBenchmark {
+
+    private static final List<Operator> OPERATORS = Arrays.asList(Operator.values());
+
+    private static final String[] CHAIN = {"or", "not", "ci", "startsWith"};
+
+    @Param({"PLAIN", "SINGLE", "NESTED", "DEEP"})
+    public ValueShape shape;
+
+    private String value;
+
+    @Setup
+    public void setup() {
+        this.value = shape.decorate("John", CHAIN);
+    }
+
+    @Benchmark
+    public OperatorAndValue operatorAndValue() {
+        return new OperatorAndValue(value, OPERATORS, Operator.EQUAL);
+    }
+
+    @Benchmark
+    public void operatorAndValueChain(Blackhole blackhole) {
+        // how providers unwrap a composition, one level at a time
+        OperatorAndValue current = new OperatorAndValue(value, OPERATORS, Operator.EQUAL);
+        while (ExpressionProvider.isOperator(current.getValue())
+                .isPresent()) {
+            current = new OperatorAndValue(current.getValue(), OPERATORS, Operator.EQUAL);
+        }
+        blackhole.consume(current);
+    }
+
+    @Benchmark
+    public ParsedOperatorValue parsedOperatorValue() {
+        return ParsedOperatorValue.parse(value);
+    }
+
+    @Benchmark
+    public String validateComposition() {
+        ExpressionProvider.validateComposition(value);
+        return value;
+    }
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.benchmarks;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.Expressions;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProviderFactory;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ValueOperatorsConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ExpressionProviderFactory#getPredicate(Path, Object)} for
+ * each supported path type with a single value as well as multi-value lists,
+ * each value decorated with operators of given {@link ValueShape}.
+ *
+ * @author gt_tech
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PredicateBuildingBenchmark {
+
+    @Param({"STRING", "ENUM", "NUMBER", "DATETIME"})
+    public PathType pathType;
+
+    @Param({"SINGLE", "NESTED", "DEEP"})
+    public ValueShape shape;
+
+    @Param({"1", "10", "100", "1000"})
+    public int valueCount;
+
+    private Path<?> path;
+
+    private String singleValue;
+
+    private List<String> values;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // as configured when experimental features are turned on
+        ExpressionProviderFactory.configure(ValueOperatorsConfiguration.DEFAULT.withSupportsUnTypedValues(true));
+        this.path = pathType.path;
+        this.values = new ArrayList<>(valueCount);
+        for (int i = 0; i < valueCount; i++) {
+            this.values.add(shape.decorate(pathType.value(i), pathType.operators));
+        }
+        this.singleValue = this.values.get(0);
+    }
+
+    @Benchmark
+    public Optional<?> predicate() {
+        // single values reach providers as-is, multiple values as a collection
+        return ExpressionProviderFactory.getPredicate(path, valueCount == 1 ? singleValue : values);
+    }
+
+    /**
+     * Path types for which a provider is available, along with a generator of
+     * raw values and the deepest chain of operators supported on them.
+     */
+    public enum PathType {
+
+        STRING(Expressions.stringPath("user.profile.firstName"), "or", "not", "ci", "startsWith") {
+            @Override
+            String value(int index) {
+                return "John" + index;
+            }
+        },
+
+        ENUM(Expressions.enumPath(Status.class, "user.status"), "or", "not", "ci", "startsWith") {
+            @Override
+            String value(int index) {
+                return Status.values()[index % Status.values().length].name()
+                        .substring(0, 3);
+            }
+        },
+
+        NUMBER(Expressions.numberPath(Integer.class, "user.profile.age"), "or", "not", "gte") {
+            @Override
+            String value(int index) {
+                return Integer.toString(index);
+            }
+        },
+
+        // negation isn't supported on date-time
+        DATETIME(Expressions.dateTimePath(Date.class, "user.createdAt"), "or", "gte") {
+            @Override
+            String value(int index) {
+                return DateTimeFormatter.RFC_1123_DATE_TIME.format(EPOCH.plus(index, ChronoUnit.DAYS)
+                        .atOffset(ZoneOffset.UTC));
+            }
+        };
+
+        private static final Instant EPOCH = Instant.parse("2018-01-01T10:00:00Z");
+
+        private final Path<?> path;
+        private final String[] operators;
+
+        PathType(Path<?> path, String... operators) {
+            this.path = path;
+            this.operators = operators;
+        }
+
+        abstract String value(int index);
+    }
+
+    public enum Status {
+        ACTIVE, INACTIVE, LOCKED, DELETED
+    }
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.benchmarks;
+
+/**
+ * Shapes of operator composition a raw value is decorated with by benchmarks.
+ * A shape takes the innermost operators from a chain of operators supported
+ * on a path type (outermost first), for e.g. chain
+ * <code>or, not, ci, startsWith</code> decorates <code>John</code> as
+ * <code>startsWith(John)</code> when {@link #SINGLE} and as
+ * <code>or(not(ci(startsWith(John))))</code> when {@link #DEEP}.
+ *
+ * @author gt_tech
+ */
+public enum ValueShape {
+
+    /**
+     * Value without any operator
+     */
+    PLAIN(0),
+
+    /**
+     * Value wrapped in innermost operator of the chain
+     */
+    SINGLE(1),
+
+    /**
+     * Value wrapped in two innermost operators of the chain
+     */
+    NESTED(2),
+
+    /**
+     * Value wrapped in the whole chain
+     */
+    DEEP(Integer.MAX_VALUE);
+
+    private final int depth;
+
+    ValueShape(int depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * @param value     raw value
+     * @param operators chain of operators, outermost first
+     * @return value wrapped in operators of this shape
+     */
+    public String decorate(String value, String... operators) {
+        final int from = Math.max(0, operators.length - depth);
+        final StringBuilder builder = new StringBuilder(value.length() + 32);
+        for (int i = from; i < operators.length; i++) {
+            builder.append(operators[i])
+                    .append('(');
+        }
+        builder.append(value);
+        for (int i = from; i < operators.length; i++) {
+            builder.append(')');
+        }
+        return builder.toString();
+    }
+}
@@ -25,7 +25,6 @@ import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.Q
 
 import java.text.MessageFormat;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Base implementation of {@link ExpressionProvider} which handles the plumbing
@@ -44,7 +43,7 @@ import java.util.stream.Collectors;
  */
 abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvider<P, Object> {
 
-    private final List<Operator> SUPPORTED_SINGLE_VALUED_COMPARISON_OPERATORS;
+    private final Set<Operator> SUPPORTED_SINGLE_VALUED_COMPARISON_OPERATORS;
 
     /**
      * Constructor
@@ -56,29 +55,64 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
     public BaseExpressionProvider(List<Operator> supportedSingleValueComparisonOperators) {
         Validate.isTrue(CollectionUtils.isNotEmpty(supportedSingleValueComparisonOperators),
                         "Supported Single value" + " operators must be > 1");
-        this.SUPPORTED_SINGLE_VALUED_COMPARISON_OPERATORS = supportedSingleValueComparisonOperators;
+        this.SUPPORTED_SINGLE_VALUED_COMPARISON_OPERATORS = EnumSet.copyOf(supportedSingleValueComparisonOperators);
     }
 
     @Override
     public Optional<BooleanExpression> getExpression(P path, Object value) {
         return Optional.ofNullable(path) // check path
                        .map(p -> value) // check for value
-                       .map(v -> {
-                           if (Collection.class.isAssignableFrom(v.getClass())) {
-                               return new MultiValueExpressionBuilder(path, (Collection) v).getExpression();
-                           } else {
-                               /*
-                                * delegate to MultiValueExpressionBuilder instead of SingleValueExpressionBuilder
-                                * as MultiValueExpressionBuilder also checks for QuerydslHttpRequestContext if its
-                                * needed. SingleValueExpressionBuilder doesn't do it.
-                                */
-                               return new MultiValueExpressionBuilder(path, Arrays.asList(
-                                       getStringValue(path, v))).getExpression();
-                           }
-                       });
+                       .map(v -> buildExpression(path, parseValues(path, v)));
 
     }
 
+    /*
+     * Builds the expression from parsed values, reporting to
+     * ValueOperatorsMetrics only when metrics are turned on, to
+     * ExpressionBuildListener(s) only when registered and to
+     * FlightRecorderEvents only when its event is enabled.
+     */
+    private BooleanExpression buildExpression(P path, Collection<ParsedOperatorValue> values) {
+        final Object event = FlightRecorderEvents.beginBuild();
+        final ValueOperatorsMetrics metrics = ExpressionProviderFactory.getMetrics();
+        final ExpressionBuildListener[] listeners = ExpressionProviderFactory.expressionBuildListeners();
+        final boolean measured = metrics != ValueOperatorsMetrics.NOOP || listeners.length > 0;
+        final long start = measured ? System.nanoTime() : 0L;
+
+        final BooleanExpression expression;
+        if (listeners.length == 0) {
+            expression = new MultiValueExpressionBuilder(path, values, listeners).getExpression();
+        } else {
+            for (ExpressionBuildListener listener : listeners) {
+                listener.buildStarted(path, values);
+            }
+            try {
+                expression = new MultiValueExpressionBuilder(path, values, listeners).getExpression();
+            } catch (RuntimeException ex) {
+                for (ExpressionBuildListener listener : listeners) {
+                    listener.buildFailed(path, values, ex);
+                }
+                throw ex;
+            }
+        }
+        final long nanos = measured ? System.nanoTime() - start : 0L;
+        FlightRecorderEvents.commitBuild(event, getClass(), path, values);
+
+        for (ExpressionBuildListener listener : listeners) {
+            listener.buildCompleted(path, values, expression, nanos);
+        }
+        if (metrics != ValueOperatorsMetrics.NOOP) {
+            final String name = path.toString();
+            metrics.recordBuild(getClass(), name, values.size(), nanos);
+            for (ParsedOperatorValue value : values) {
+                for (ParsedOperatorValue v = value; v != null && v.getOperator() != null; v = v.getOperand()) {
+                    metrics.recordOperator(name, v.getOperator());
+                }
+            }
+        }
+        return expression;
+    }
+
     /*
      * START: Methods for concrete implementation in sub-classes depending on if
      * Path sub-type doesn't support same logic and may require a sub-query
@@ -223,6 +257,85 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
      * STOP: Abstract methods for concrete implementation
      */
 
+    /*
+     * START: Comparison methods receiving parsed operand, implementations for
+     * non-String paths can override these to use typed value of operand - see
+     * ParsedOperatorValue#getTypedValue(Class) - which is converted once per
+     * search input rather than re-parsing String value.
+     */
+
+    /**
+     * Variant of {@link #eq(Path, String, boolean)} receiving parsed operand, delegates to it by default.
+     *
+     * @param path       Specific type of {@link Path}
+     * @param operand    parsed operand to be used for making expression.
+     * @param ignoreCase if comparison must be done ignoring case if case is applicable to target value type.
+     * @return {@link BooleanExpression}
+     */
+    protected BooleanExpression eq(P path, ParsedOperatorValue operand, boolean ignoreCase) {
+        return eq(path, operand.getText(), ignoreCase);
+    }
+
+    /**
+     * Variant of {@link #ne(Path, String, boolean)} receiving parsed operand, delegates to it by default.
+     *
+     * @param path       Specific type of {@link Path}
+     * @param operand    parsed operand to be used for making expression.
+     * @param ignoreCase if comparison must be done ignoring case if case is applicable to target value type.
+     * @return {@link BooleanExpression}
+     */
+    protected BooleanExpression ne(P path, ParsedOperatorValue operand, boolean ignoreCase) {
+        return ne(path, operand.getText(), ignoreCase);
+    }
+
+    /**
+     * Variant of {@link #gt(Path, String)} receiving parsed operand, delegates to it by default.
+     *
+     * @param path    Specific type of {@link Path}
+     * @param operand parsed operand to be used for making expression.
+     * @return {@link BooleanExpression}
+     */
+    protected BooleanExpression gt(P path, ParsedOperatorValue operand) {
+        return gt(path, operand.getText());
+    }
+
+    /**
+     * Variant of {@link #gte(Path, String)} receiving parsed operand, delegates to it by default.
+     *
+     * @param path    Specific type of {@link Path}
+     * @param operand parsed operand to be used for making expression.
+     * @return {@link BooleanExpression}
+     */
+    protected BooleanExpression gte(P path, ParsedOperatorValue operand) {
+        return gte(path, operand.getText());
+    }
+
+    /**
+     * Variant of {@link #lt(Path, String)} receiving parsed operand, delegates to it by default.
+     *
+     * @param path    Specific type of {@link Path}
+     * @param operand parsed operand to be used for making expression.
+     * @return {@link BooleanExpression}
+     */
+    protected BooleanExpression lt(P path, ParsedOperatorValue operand) {
+        return lt(path, operand.getText());
+    }
+
+    /**
+     * Variant of {@link #lte(Path, String)} receiving parsed operand, delegates to it by default.
+     *
+     * @param path    Specific type of {@link Path}
+     * @param operand parsed operand to be used for making expression.
+     * @return {@link BooleanExpression}
+     */
+    protected BooleanExpression lte(P path, ParsedOperatorValue operand) {
+        return lte(path, operand.getText());
+    }
+
+    /*
+     * STOP: Comparison methods receiving parsed operand
+     */
+
     /**
      * Logical operators implementation
      */
@@ -272,16 +385,16 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
     private class MultiValueExpressionBuilder {
 
         private final P path;
-        private final Collection<Object> values;
+        private final Collection<ParsedOperatorValue> values;
+        private final ExpressionBuildListener[] listeners;
         private BooleanExpression expression;
 
-        private final Collection<Operator> MULTI_VALUE_LOGICAL_OPERATORS = Collections
-                .unmodifiableCollection(Arrays.asList(Operator.AND, Operator.OR));
-
-        public MultiValueExpressionBuilder(P path, Collection<Object> values) {
+        public MultiValueExpressionBuilder(P path, Collection<ParsedOperatorValue> values,
+                                           ExpressionBuildListener[] listeners) {
             this.path = path;
             this.values = values;
-            this.values.forEach(v -> ExpressionProvider.validateComposition(getStringValue(path, v)));
+            this.listeners = listeners;
+            this.values.forEach(v -> ExpressionProvider.validateComposition(v.getText()));
         }
 
         public BooleanExpression getExpression() {
@@ -295,48 +408,33 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
 
             if (CollectionUtils.isNotEmpty(this.values)) {
                 if (this.values.size() == 1) {
-                    String value = checkIfOriginalRequestValueAvailable(path,
-                                                                        getStringValue(path, this.values.iterator()
-                                                                                                        .next()));
-                    while (true) {
-                        if (ExpressionProvider
-                                .isOperator(MULTI_VALUE_LOGICAL_OPERATORS
-                                                    .toArray(new Operator[MULTI_VALUE_LOGICAL_OPERATORS.size()]), value)
-                                .isPresent()) {
-                            // got an ill-placed Logical operator that's meant
-                            // for multi-value searches on fields
-                            value = new OperatorAndValue(value, MULTI_VALUE_LOGICAL_OPERATORS, Operator.OR).getValue();
-                        } else {
-                            // got true value devoid of multi-value logical search operators.
-                            break;
-                        }
+                    ParsedOperatorValue value = this.values.iterator()
+                                                           .next();
+                    while (isMultiValueLogicalOperator(value.getOperator())) {
+                        // got an ill-placed Logical operator that's meant
+                        // for multi-value searches on fields
+                        value = value.getOperand();
                     }
                     /*
                      * Strip any ill-placed logical operator
                      */
-                    return new SingleValueExpressionBuilder(path, value).getExpression();
+                    return getExpression(value);
                 } else {
-                    for (Object o : checkIfOriginalRequestValuesAvailable(path, values).stream()
-                                                                                       .filter(Objects::nonNull)
-                                                                                       .collect(Collectors.toList())) {
-                        final String v = getStringValue(this.path, o);
-                        OperatorAndValue ov = new OperatorAndValue(v, MULTI_VALUE_LOGICAL_OPERATORS,
-                                                                   default_operator != null ? default_operator
-                                                                                            : Operator.OR);
-                        if (default_operator == null && !Operator.NOT.equals(ov.getOperator()))
-                            default_operator = ov.getOperator();
-                        /*
-                         * For NOT. delegate the comparison to
-                         * SingleValueExpressionBuilder. Known issue with NOT
-                         * operator with multiple leafs within MongoDB
-                         * serializer, issue opened on its JIRA site by self.
-                         */
-                        final SingleValueExpressionBuilder e = new SingleValueExpressionBuilder(path,
-                                                                                                Operator.NOT.equals(
-                                                                                                        ov
-                                                                                                                .getOperator())
-                                                                                                ? v : ov.getValue());
-                        BooleanExpression current = e.getExpression();
+                    for (ParsedOperatorValue v : this.values) {
+                        Validate.isTrue(StringUtils.isNotBlank(v.getText()), "Input string cannot be blank");
+                        final Operator operator;
+                        final ParsedOperatorValue operand;
+                        if (isMultiValueLogicalOperator(v.getOperator())) {
+                            operator = v.getOperator();
+                            operand = v.getOperand();
+                        } else {
+                            operator = default_operator != null ? default_operator : Operator.OR;
+                            operand = v;
+                        }
+                        if (default_operator == null)
+                            default_operator = operator;
+
+                        BooleanExpression current = getExpression(operand);
                         if (current == null) {
                             continue;
                         }
@@ -344,26 +442,20 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
                             expression = current;
                         } else {
                             // compose
-                            switch (ov.getOperator()) {
+                            switch (operator) {
                                 case AND:
                                     expression = and(expression, current);
                                     break;
                                 case OR:
-                                case NOT: // actual NOT clause is handled by
-                                    // SingleValueExpressionBuilder, at this
-                                    // level we are treating it as like starting
-                                    // without OR, AND and thus defaulting
-                                    // to OR
                                     expression = or(expression, current);
                                     break;
                                 default:
                                     String msg = MessageFormat.format(
                                             "Illegal operator: {0}, Search Parameter: " + "{1}, Value: {2}",
                                             new Object[]{
-                                                    ov.getOperator()
-                                                            .toString(),
+                                                    operator.toString(),
                                                     path.toString(),
-                                                    v
+                                                    v.getText()
                                             });
                                     throw new IllegalArgumentException(msg);
                             }
@@ -374,6 +466,27 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
             }
             return expression;
         }
+
+        /*
+         * Expression of a single value, reported to listeners (if any) before
+         * it's composed with other values.
+         */
+        private BooleanExpression getExpression(ParsedOperatorValue value) {
+            if (this.listeners.length == 0) {
+                return new SingleValueExpressionBuilder(path, value).getExpression();
+            }
+            final long start = System.nanoTime();
+            final BooleanExpression result = new SingleValueExpressionBuilder(path, value).getExpression();
+            final long nanos = System.nanoTime() - start;
+            for (ExpressionBuildListener listener : this.listeners) {
+                listener.valueBuilt(path, value, result, nanos);
+            }
+            return result;
+        }
+
+        private boolean isMultiValueLogicalOperator(Operator operator) {
+            return Operator.AND.equals(operator) || Operator.OR.equals(operator);
+        }
     }
 
     /**
@@ -384,16 +497,18 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
     private class SingleValueExpressionBuilder {
         private P path;
         private String value;
+        private ParsedOperatorValue operand;
         private Operator operator;
         private SingleValueExpressionBuilder parent;
         private SingleValueExpressionBuilder next;
         private boolean ignoreCase = false;
 
-        public SingleValueExpressionBuilder(P path, String value) {
+        public SingleValueExpressionBuilder(P path, ParsedOperatorValue value) {
             init(path, value);
         }
 
-        private SingleValueExpressionBuilder(final P path, String value, final SingleValueExpressionBuilder parent) {
+        private SingleValueExpressionBuilder(final P path, ParsedOperatorValue value,
+                                             final SingleValueExpressionBuilder parent) {
             this.parent = parent;
             init(path, value);
         }
@@ -413,31 +528,38 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
         }
 
         /*
-         * Extract the operator (or operator chain) and form chained expression
+         * Walk the parsed operator (or operator chain) and form chained expression
          * builder from this class.
          */
-        private void init(P path, String value) {
+        private void init(P path, ParsedOperatorValue value) {
             this.path = path;
 
-            OperatorAndValue ov = new OperatorAndValue(value, SUPPORTED_SINGLE_VALUED_COMPARISON_OPERATORS,
-                                                       Operator.EQUAL);
-            this.operator = ov.getOperator();
-            this.value = ov.getValue();
-            Validate.notNull(this.operator, "Operator must not be null");
+            Validate.isTrue(StringUtils.isNotBlank(value.getText()), "Input string cannot be blank");
+            final ParsedOperatorValue operand;
+            if (SUPPORTED_SINGLE_VALUED_COMPARISON_OPERATORS.contains(value.getOperator())) {
+                this.operator = value.getOperator();
+                operand = value.getOperand();
+                this.operand = operand;
+            } else {
+                // not wrapped in a supported operator, entire text is compared for equality
+                this.operator = Operator.EQUAL;
+                operand = null;
+                this.operand = value;
+            }
+            this.value = this.operand.getText();
             if (Operator.NOT.equals(this.operator)) {
                 Validate.isTrue(StringUtils.isNotBlank(this.value),
                                 "Sub-operation must be available with NOT operator");
-                this.next = new SingleValueExpressionBuilder(path, ov.getValue(), this);
+                this.next = new SingleValueExpressionBuilder(path, operand, this);
             } else if (Operator.CASE_IGNORE.equals(this.operator)) {
                 Validate.isTrue(StringUtils.isNotBlank(this.value),
                                 "Sub-operation must be available with CASE_IGNORE operator");
-                this.next = new SingleValueExpressionBuilder(path, ov.getValue(), this);
+                this.next = new SingleValueExpressionBuilder(path, operand, this);
                 this.next.setIgnoreCase(true);
-            } else if (ExpressionProvider.isOperator(SUPPORTED_SINGLE_VALUED_COMPARISON_OPERATORS.toArray(
-                    new Operator[SUPPORTED_SINGLE_VALUED_COMPARISON_OPERATORS.size()]), this.value)
-                                         .isPresent()) { // TODO: Perhaps check for an
+            } else if (operand != null && SUPPORTED_SINGLE_VALUED_COMPARISON_OPERATORS.contains(
+                    operand.getOperator())) { // TODO: Perhaps check for an
                 // unsupported operator here and throw an error
-                this.next = new SingleValueExpressionBuilder(path, ov.getValue(), this);
+                this.next = new SingleValueExpressionBuilder(path, operand, this);
             }
 
             // check for misplaced boolean operators, they should always be
@@ -454,7 +576,6 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
                 // technically doesn't hurt.
             }
         }
-
         public BooleanExpression getExpression() {
             BooleanExpression result;
 
@@ -463,10 +584,10 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
                     result = this.next.getExpression();
                     break;
                 case EQUAL:
-                    result = eq(path, this.value, this.isIgnoreCase());
+                    result = eq(path, this.operand, this.isIgnoreCase());
                     break;
                 case NOT_EQUAL:
-                    result = ne(path, this.value, this.isIgnoreCase());
+                    result = ne(path, this.operand, this.isIgnoreCase());
                     break;
                 case CONTAINS:
                     result = contains(path, this.value, this.isIgnoreCase());
@@ -489,16 +610,16 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
                     }
                     break;
                 case LESS_THAN:
-                    result = lt(path, this.value);
+                    result = lt(path, this.operand);
                     break;
                 case LESS_THAN_OR_EQUAL:
-                    result = lte(path, this.value);
+                    result = lte(path, this.operand);
                     break;
                 case GREATER_THAN:
-                    result = gt(path, this.value);
+                    result = gt(path, this.operand);
                     break;
                 case GREATER_THAN_OR_EQUAL:
-                    result = gte(path, this.value);
+                    result = gte(path, this.operand);
                     break;
                 default:
                     result = null;
@@ -509,46 +630,44 @@ abstract class BaseExpressionProvider<P extends Path> implements ExpressionProvi
     }
 
     /*
-     * Utility method that attempts to get original search input value for
-     * specific path from QuerydslHttpRequestContext if available for cases when
-     * experimental features using QuerydslHttpRequestContextAwareServletFilter
-     * is turned on.
+     * Parses the supplied value(s), parsed values are taken from
+     * QuerydslHttpRequestContext if available for cases when experimental
+     * features using QuerydslHttpRequestContextAwareServletFilter is turned on
+     * since they carry the original search input and are already parsed.
      */
-    private String checkIfOriginalRequestValueAvailable(Path path, String defaultValue) {
-        QuerydslHttpRequestContext ctx = QuerydslHttpRequestContextHolder.getContext();
-        String result = null;
-
+    private Collection<ParsedOperatorValue> parseValues(P path, Object value) {
+        final boolean multiValued = Collection.class.isAssignableFrom(value.getClass());
+        final QuerydslHttpRequestContext ctx = QuerydslHttpRequestContextHolder.getContext();
         if (ctx != null) {
-            result = ctx.getSingleValue(path);
-        }
-
-        if (StringUtils.isBlank(result)) {
-            result = defaultValue;
-        }
-        return result;
-    }
-
-    /*
-     * Utility method that attempts to get original search input value for
-     * specific path from QuerydslHttpRequestContext if available for cases when
-     * experimental features using QuerydslHttpRequestContextAwareServletFilter
-     * is turned on.
-     */
-    private Collection<Object> checkIfOriginalRequestValuesAvailable(Path path, Collection<Object> defaultValues) {
-        QuerydslHttpRequestContext ctx = QuerydslHttpRequestContextHolder.getContext();
-        Collection<Object> result = null;
-
-        if (ctx != null) {
-
-            result = Arrays.stream(Optional.ofNullable(ctx.getAllValues(path))
-                                           .orElseGet(() -> new String[]{}))
-                           .map(val -> (Object) val)
-                           .collect(Collectors.toCollection(LinkedList::new));
+            final List<ParsedOperatorValue> original = ctx.getParsedValues(path);
+            Collection<ParsedOperatorValue> result = null;
+            if (CollectionUtils.isNotEmpty(original)) {
+                if (multiValued) {
+                    result = original;
+                } else if (StringUtils.isNotBlank(original.get(0)
+                                                          .getText())) {
+                    result = Collections.singletonList(original.get(0));
+                }
+            }
+            final ValueOperatorsMetrics metrics = ExpressionProviderFactory.getMetrics();
+            if (metrics != ValueOperatorsMetrics.NOOP) {
+                metrics.recordCacheAccess(ValueOperatorsMetrics.PARSED_VALUES_CACHE, result != null);
+            }
+            if (result != null) {
+                return result;
+            }
         }
 
-        if (CollectionUtils.isEmpty(result)) {
-            result = defaultValues;
+        if (multiValued) {
+            final Collection<?> values = (Collection<?>) value;
+            final List<ParsedOperatorValue> result = new ArrayList<>(values.size());
+            for (Object o : values) {
+                if (o != null) {
+                    result.add(ParsedOperatorValue.parse(getStringValue(path, o)));
+                }
+            }
+            return result;
         }
-        return result;
+        return Collections.singletonList(ParsedOperatorValue.parse(getStringValue(path, value)));
     }
 }
@@ -0,0 +1,503 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Canonical form of search values, which is equal for searches that mean the
+ * same thing, along with stable 64-bit fingerprints of it. Useful as key of
+ * result caches, for grouping metrics or slow searches by their shape or for
+ * coalescing identical requests.
+ * <p>
+ * Values of a path are composed the same way as by {@link ExpressionProvider}
+ * (see {@link ExpressionProvider#getPredicate(com.querydsl.core.types.Path, Object)}),
+ * then:
+ * </p>
+ * <ul>
+ * <li>operands of a run of the same logical operator (<code>or</code> /
+ * <code>and</code>) are sorted and duplicates removed, so
+ * <code>userName=a&amp;userName=b</code> equals
+ * <code>userName=b&amp;userName=a</code>. Runs of different operators are
+ * composed left to right as they're not commutative with each other.</li>
+ * <li>ill-placed logical operators of a single value are stripped.</li>
+ * <li>alias operators are merged, for e.g. <code>starts-with</code> into
+ * <code>startsWith</code>.</li>
+ * <li>whitespace around operators and values is removed.</li>
+ * </ul>
+ * Values aren't interpreted any further, for e.g. <code>eq(x)</code> doesn't
+ * equal <code>x</code> since support of operators depends on the type of path.
+ * <p>
+ * {@link #getFingerprint()} is derived from {@link #getText()} and
+ * {@link #getShapeFingerprint()} from {@link #getShape()}, in which every
+ * value is replaced by <code>?</code>. Both are stable across JVMs as they only
+ * depend on canonical text (FNV-1a over its characters, finalized with
+ * MurmurHash3 <code>fmix64</code>). Fingerprints are hashes, so equal
+ * fingerprints don't guarantee equal searches.
+ * </p>
+ * <p>
+ * {@link #of(Predicate)} applies the same idea to a built {@link Predicate}:
+ * operands of nested <code>and</code> / <code>or</code> operations are
+ * flattened, sorted and duplicates removed, so predicates built from the
+ * same request parameters in different order are equal. Dates are rendered
+ * as epoch milliseconds so that the text doesn't depend on the time zone of
+ * JVM.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public final class CanonicalForm {
+
+    private static final String PLACEHOLDER = "?";
+
+    private final String text;
+    private final String shape;
+    private final long fingerprint;
+    private final long shapeFingerprint;
+
+    private CanonicalForm(String text, String shape) {
+        this.text = text;
+        this.shape = shape;
+        this.fingerprint = fingerprint(text);
+        this.shapeFingerprint = fingerprint(shape);
+    }
+
+    /**
+     * @param values parsed values of a path
+     * @return canonical form of supplied values
+     */
+    public static CanonicalForm of(Collection<ParsedOperatorValue> values) {
+        Validate.notNull(values, "Values must not be null");
+        final Node node = compose(values);
+        return new CanonicalForm(node.render(true), node.render(false));
+    }
+
+    /**
+     * @param values raw values of a path
+     * @return canonical form of supplied values after parsing them
+     */
+    public static CanonicalForm parse(String... values) {
+        Validate.notNull(values, "Values must not be null");
+        final List<ParsedOperatorValue> parsed = new ArrayList<>(values.length);
+        for (String value : values) {
+            if (value != null) {
+                parsed.add(ParsedOperatorValue.parse(value));
+            }
+        }
+        return of(parsed);
+    }
+
+    /**
+     * @param valuesByPath parsed values by path (or request parameter) name
+     * @return canonical form of a search on all supplied paths, independent of
+     * order of paths
+     */
+    public static CanonicalForm of(Map<String, ? extends Collection<ParsedOperatorValue>> valuesByPath) {
+        Validate.notNull(valuesByPath, "Values must not be null");
+        final Map<String, Node> sorted = new TreeMap<>();
+        valuesByPath.forEach((name, values) -> {
+            if (values != null) {
+                sorted.put(escape(StringUtils.trimToEmpty(name)), compose(values));
+            }
+        });
+        final StringBuilder text = new StringBuilder();
+        final StringBuilder shape = new StringBuilder();
+        sorted.forEach((name, node) -> {
+            if (text.length() > 0) {
+                text.append('&');
+                shape.append('&');
+            }
+            text.append(name)
+                .append('=')
+                .append(node.render(true));
+            shape.append(name)
+                 .append('=')
+                 .append(node.render(false));
+        });
+        return new CanonicalForm(text.toString(), shape.toString());
+    }
+
+    /**
+     * @param predicate predicate, for e.g. one resolved from a search request
+     * @return canonical form of supplied predicate, with empty text for
+     * <code>null</code> or an empty {@link com.querydsl.core.BooleanBuilder}
+     */
+    public static CanonicalForm of(Predicate predicate) {
+        if (predicate == null) {
+            return new CanonicalForm(StringUtils.EMPTY, StringUtils.EMPTY);
+        }
+        final String[] rendered = predicate.accept(PredicateRenderer.INSTANCE, null);
+        return rendered != null ? new CanonicalForm(rendered[0], rendered[1]) : new CanonicalForm(StringUtils.EMPTY,
+                StringUtils.EMPTY);
+    }
+
+    /**
+     * @return canonical text, for e.g. <code>or(a,b)</code>
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return canonical text with values replaced by <code>?</code>, for e.g. <code>or(?,?)</code>
+     */
+    public String getShape() {
+        return shape;
+    }
+
+    /**
+     * @return 64-bit fingerprint of {@link #getText()}
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return 64-bit fingerprint of {@link #getShape()}
+     */
+    public long getShapeFingerprint() {
+        return shapeFingerprint;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof CanonicalForm && text.equals(((CanonicalForm) o).text));
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /*
+     * Composes values the way MultiValueExpressionBuilder of
+     * BaseExpressionProvider does: left to right, using logical operator of a
+     * value or else the one of first value (or OR).
+     */
+    private static Node compose(Collection<ParsedOperatorValue> values) {
+        final List<ParsedOperatorValue> nonNull = new ArrayList<>(values.size());
+        for (ParsedOperatorValue v : values) {
+            if (v != null) {
+                nonNull.add(v);
+            }
+        }
+        if (nonNull.isEmpty()) {
+            return Node.literal(StringUtils.EMPTY);
+        }
+        if (nonNull.size() == 1) {
+            ParsedOperatorValue value = nonNull.get(0);
+            while (isLogical(value.getOperator())) {
+                value = value.getOperand();
+            }
+            return toNode(value);
+        }
+
+        Operator defaultOperator = null;
+        Node result = null;
+        for (ParsedOperatorValue v : nonNull) {
+            final Operator operator;
+            final ParsedOperatorValue operand;
+            if (isLogical(v.getOperator())) {
+                operator = v.getOperator();
+                operand = v.getOperand();
+            } else {
+                operator = defaultOperator != null ? defaultOperator : Operator.OR;
+                operand = v;
+            }
+            if (defaultOperator == null) {
+                defaultOperator = operator;
+            }
+
+            final Node current = toNode(operand);
+            if (result == null) {
+                result = current;
+            } else if (result.composite && result.operator == operator) {
+                result.operands.add(current);
+            } else {
+                result = Node.composite(operator, result, current);
+            }
+        }
+        return result.normalize();
+    }
+
+    private static Node toNode(ParsedOperatorValue value) {
+        if (value.getOperator() == null) {
+            return Node.literal(value.getText());
+        }
+        return Node.unary(alias(value.getOperator()), toNode(value.getOperand()));
+    }
+
+    private static boolean isLogical(Operator operator) {
+        return Operator.AND == operator || Operator.OR == operator;
+    }
+
+    private static Operator alias(Operator operator) {
+        switch (operator) {
+            case STARTSWITH:
+                return Operator.STARTS_WITH;
+            case ENDSWITH:
+                return Operator.ENDS_WITH;
+            default:
+                return operator;
+        }
+    }
+
+    /*
+     * Escapes characters with a meaning in canonical text so that values
+     * can't collide with structure
+     */
+    private static String escape(String value) {
+        if (StringUtils.containsNone(value, '\\', '(', ')', ',', '=', '&')) {
+            return value;
+        }
+        final StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' || c == '(' || c == ')' || c == ',' || c == '=' || c == '&') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static long fingerprint(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= value.length();
+        // fmix64
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    /*
+     * Node of canonical operator tree, either a value (literal), an operator
+     * wrapping a single operand or a run of the same logical operator.
+     */
+    private static final class Node {
+        private final Operator operator;
+        private final String literal;
+        private final List<Node> operands;
+        private final boolean composite;
+
+        private Node(Operator operator, String literal, List<Node> operands, boolean composite) {
+            this.operator = operator;
+            this.literal = literal;
+            this.operands = operands;
+            this.composite = composite;
+        }
+
+        static Node literal(String value) {
+            return new Node(null, escape(value), Collections.emptyList(), false);
+        }
+
+        static Node unary(Operator operator, Node operand) {
+            return new Node(operator, null, Collections.singletonList(operand), false);
+        }
+
+        static Node composite(Operator operator, Node left, Node right) {
+            return new Node(operator, null, new ArrayList<>(Arrays.asList(left, right)), true);
+        }
+
+        /*
+         * Removes duplicate operands of runs, a run left with single operand
+         * is replaced by it.
+         */
+        Node normalize() {
+            if (!composite) {
+                return this;
+            }
+            final Map<String, Node> unique = new LinkedHashMap<>();
+            for (Node operand : operands) {
+                final Node normalized = operand.normalize();
+                unique.putIfAbsent(normalized.render(true), normalized);
+            }
+            if (unique.size() == 1) {
+                return unique.values()
+                             .iterator()
+                             .next();
+            }
+            return new Node(operator, null, new ArrayList<>(unique.values()), true);
+        }
+
+        String render(boolean literals) {
+            if (operator == null) {
+                return literals ? literal : PLACEHOLDER;
+            }
+            final List<String> rendered = new ArrayList<>(operands.size());
+            for (Node operand : operands) {
+                rendered.add(operand.render(literals));
+            }
+            if (composite) {
+                Collections.sort(rendered);
+            }
+            return operator + "(" + String.join(",", rendered) + ")";
+        }
+    }
+
+    /*
+     * Renders a Querydsl expression tree into canonical text and shape at
+     * once, so that operands of and/or are de-duplicated by their text only.
+     */
+    private static final class PredicateRenderer implements Visitor<String[], Void> {
+
+        static final PredicateRenderer INSTANCE = new PredicateRenderer();
+
+        @Override
+        public String[] visit(Constant<?> expr, Void context) {
+            final Object constant = expr.getConstant();
+            if (constant instanceof Collection) {
+                // for e.g. in(..), order of elements doesn't matter
+                final TreeSet<String> elements = new TreeSet<>();
+                for (Object element : (Collection<?>) constant) {
+                    elements.add(escape(format(element)));
+                }
+                return pair("[" + String.join(",", elements) + "]", PLACEHOLDER);
+            }
+            return pair(escape(format(constant)), PLACEHOLDER);
+        }
+
+        @Override
+        public String[] visit(FactoryExpression<?> expr, Void context) {
+            return wrap("new " + expr.getType()
+                                     .getName() + "(", render(expr.getArgs()));
+        }
+
+        @Override
+        public String[] visit(Operation<?> expr, Void context) {
+            final com.querydsl.core.types.Operator operator = expr.getOperator();
+            if (operator != Ops.AND && operator != Ops.OR) {
+                return wrap(operator.name() + "(", render(expr.getArgs()));
+            }
+
+            final Map<String, String> operands = new TreeMap<>();
+            flatten(expr, operator, operands);
+            if (operands.size() == 1) {
+                final Map.Entry<String, String> operand = operands.entrySet()
+                                                                  .iterator()
+                                                                  .next();
+                return pair(operand.getKey(), operand.getValue());
+            }
+            final List<String> shapes = new ArrayList<>(operands.values());
+            Collections.sort(shapes);
+            final String prefix = operator == Ops.AND ? "and(" : "or(";
+            return pair(prefix + String.join(",", operands.keySet()) + ")", prefix + String.join(",", shapes) + ")");
+        }
+
+        @Override
+        public String[] visit(ParamExpression<?> expr, Void context) {
+            final String param = "param(" + escape(expr.getName()) + ")";
+            return pair(param, param);
+        }
+
+        @Override
+        public String[] visit(Path<?> expr, Void context) {
+            final String path = escape(expr.toString());
+            return pair(path, path);
+        }
+
+        @Override
+        public String[] visit(SubQueryExpression<?> expr, Void context) {
+            final String query = "query(" + escape(expr.toString()) + ")";
+            return pair(query, query);
+        }
+
+        @Override
+        public String[] visit(TemplateExpression<?> expr, Void context) {
+            return wrap("template(" + escape(expr.getTemplate()
+                                                 .toString()) + ",", render(expr.getArgs()));
+        }
+
+        private void flatten(Operation<?> operation, com.querydsl.core.types.Operator operator,
+                             Map<String, String> operands) {
+            for (Expression<?> arg : operation.getArgs()) {
+                if (arg instanceof Operation && ((Operation<?>) arg).getOperator() == operator) {
+                    flatten((Operation<?>) arg, operator, operands);
+                } else if (arg != null) {
+                    final String[] rendered = arg.accept(this, null);
+                    operands.put(rendered[0], rendered[1]);
+                }
+            }
+        }
+
+        private String[] render(List<?> args) {
+            final List<String> text = new ArrayList<>(args.size());
+            final List<String> shape = new ArrayList<>(args.size());
+            for (Object arg : args) {
+                final String[] rendered = arg instanceof Expression ? ((Expression<?>) arg).accept(this, null)
+                        : pair(escape(format(arg)), PLACEHOLDER);
+                text.add(rendered[0]);
+                shape.add(rendered[1]);
+            }
+            return pair(String.join(",", text), String.join(",", shape));
+        }
+
+        /*
+         * Dates are rendered as epoch milliseconds (and nanoseconds of a
+         * Timestamp), their toString() drops milliseconds and depends on the
+         * default time zone of JVM.
+         */
+        private static String format(Object value) {
+            if (value instanceof Timestamp) {
+                return ((Timestamp) value).getTime() + "." + ((Timestamp) value).getNanos();
+            } else if (value instanceof Date) {
+                return Long.toString(((Date) value).getTime());
+            }
+            return String.valueOf(value);
+        }
+
+        private static String[] wrap(String prefix, String[] args) {
+            return pair(prefix + args[0] + ")", prefix + args[1] + ")");
+        }
+
+        private static String[] pair(String text, String shape) {
+            return new String[]{text, shape};
+        }
+    }
+}
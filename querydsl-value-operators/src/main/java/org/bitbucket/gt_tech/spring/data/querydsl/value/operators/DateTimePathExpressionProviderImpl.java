@@ -2,7 +2,6 @@ package org.bitbucket.gt_tech.spring.data.querydsl.value.operators;
 
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.DateTimePath;
-import org.apache.commons.lang3.Validate;
 
 import java.util.Arrays;
 import java.util.Date;
@@ -21,16 +20,24 @@ class DateTimePathExpressionProviderImpl extends BaseExpressionProvider<DateTime
 
     @Override
     protected BooleanExpression eq(DateTimePath path, String value, boolean ignoreCase) {
-        Validate.isTrue(isDate(value), "Invalid date value");
         return path.eq(convertToDate(value));
     }
 
+    @Override
+    protected BooleanExpression eq(DateTimePath path, ParsedOperatorValue operand, boolean ignoreCase) {
+        return path.eq(operand.getTypedValue(Date.class));
+    }
+
     @Override
     protected BooleanExpression ne(DateTimePath path, String value, boolean ignoreCase) {
-        Validate.isTrue(isDate(value), "Invalid date value");
         return path.ne(convertToDate(value));
     }
 
+    @Override
+    protected BooleanExpression ne(DateTimePath path, ParsedOperatorValue operand, boolean ignoreCase) {
+        return path.ne(operand.getTypedValue(Date.class));
+    }
+
     @Override
     protected BooleanExpression contains(DateTimePath path, String value, boolean ignoreCase) {
         throw new UnsupportedOperationException("Datetime can't be searched using contains operator");
@@ -53,40 +60,45 @@ class DateTimePathExpressionProviderImpl extends BaseExpressionProvider<DateTime
 
     @Override
     protected BooleanExpression gt(DateTimePath path, String value) {
-        Validate.isTrue(isDate(value), "Invalid date value");
         return path.gt(convertToDate(value));
     }
 
+    @Override
+    protected BooleanExpression gt(DateTimePath path, ParsedOperatorValue operand) {
+        return path.gt(operand.getTypedValue(Date.class));
+    }
+
     @Override
     protected BooleanExpression gte(DateTimePath path, String value) {
-        Validate.isTrue(isDate(value), "Invalid date value");
         return path.goe(convertToDate(value));
     }
 
+    @Override
+    protected BooleanExpression gte(DateTimePath path, ParsedOperatorValue operand) {
+        return path.goe(operand.getTypedValue(Date.class));
+    }
+
     @Override
     protected BooleanExpression lt(DateTimePath path, String value) {
-        Validate.isTrue(isDate(value), "Invalid date value");
         return path.lt(convertToDate(value));
     }
 
+    @Override
+    protected BooleanExpression lt(DateTimePath path, ParsedOperatorValue operand) {
+        return path.lt(operand.getTypedValue(Date.class));
+    }
+
     @Override
     protected BooleanExpression lte(DateTimePath path, String value) {
-        Validate.isTrue(isDate(value), "Invalid date value");
         return path.loe(convertToDate(value));
     }
 
-    private boolean isDate(String dateString) {
-        try {
-            // use the same conversion as used by the Conversion service
-            new Date(dateString);
-            return true;
-        } catch (IllegalArgumentException iae) {
-            return false;
-        }
+    @Override
+    protected BooleanExpression lte(DateTimePath path, ParsedOperatorValue operand) {
+        return path.loe(operand.getTypedValue(Date.class));
     }
 
     private Date convertToDate(String dateString) {
-        // use the same conversion as used by the Conversion service
-        return new Date(dateString);
+        return TypedValueConverters.convert(dateString, Date.class);
     }
 }
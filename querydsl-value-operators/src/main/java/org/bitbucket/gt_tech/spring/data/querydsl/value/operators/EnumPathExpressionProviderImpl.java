@@ -52,8 +52,14 @@ class EnumPathExpressionProviderImpl extends BaseExpressionProvider<EnumPath> {
                                                                                       }
                                                                                   });
 
-    EnumPathExpressionProviderImpl() {
-        super(ExpressionProviderFactory.isSupportsUnTypedValues() ? Arrays.asList(Operator.EQUAL, Operator.NOT_EQUAL,
+    /*
+     * Whether untyped values are made available, fixed at construction from
+     * configuration snapshot
+     */
+    private final boolean supportsUnTypedValues;
+
+    EnumPathExpressionProviderImpl(ValueOperatorsConfiguration configuration) {
+        super(configuration.isSupportsUnTypedValues() ? Arrays.asList(Operator.EQUAL, Operator.NOT_EQUAL,
                                                                                   Operator.CONTAINS,
                                                                                   Operator.STARTS_WITH, Operator.STARTSWITH, Operator
                                                                                           .ENDS_WITH, Operator.ENDSWITH,
@@ -65,6 +71,7 @@ class EnumPathExpressionProviderImpl extends BaseExpressionProvider<EnumPath> {
                                                                           Operator.NOT_EQUAL,
                                                                           Operator.NOT
                                                                   }));
+        this.supportsUnTypedValues = configuration.isSupportsUnTypedValues();
     }
 
     @Override protected <S extends String> S getStringValue(EnumPath path, Object value) {
@@ -85,7 +92,7 @@ class EnumPathExpressionProviderImpl extends BaseExpressionProvider<EnumPath> {
     }
 
     @Override protected BooleanExpression contains(EnumPath path, String value, boolean ignoreCase) {
-        if (ExpressionProviderFactory.isSupportsUnTypedValues()) {
+        if (this.supportsUnTypedValues) {
             return path.in((List) EnumUtils.getEnumList(path.getType())
                                            .stream()
                                            .filter(v -> ignoreCase ? StringUtils.containsIgnoreCase(v.toString(),
@@ -101,7 +108,7 @@ class EnumPathExpressionProviderImpl extends BaseExpressionProvider<EnumPath> {
     }
 
     @Override protected BooleanExpression startsWith(EnumPath path, String value, boolean ignoreCase) {
-        if (ExpressionProviderFactory.isSupportsUnTypedValues()) {
+        if (this.supportsUnTypedValues) {
             return path.in((List) EnumUtils.getEnumList(path.getType())
                                            .stream()
                                            .filter(v -> ignoreCase ? StringUtils.startsWithIgnoreCase(v.toString(),
@@ -117,7 +124,7 @@ class EnumPathExpressionProviderImpl extends BaseExpressionProvider<EnumPath> {
     }
 
     @Override protected BooleanExpression endsWith(EnumPath path, String value, boolean ignoreCase) {
-        if (ExpressionProviderFactory.isSupportsUnTypedValues()) {
+        if (this.supportsUnTypedValues) {
             return path.in((List) EnumUtils.getEnumList(path.getType())
                                            .stream()
                                            .filter(v -> ignoreCase ? StringUtils.endsWithIgnoreCase(v.toString(),
@@ -133,12 +140,12 @@ class EnumPathExpressionProviderImpl extends BaseExpressionProvider<EnumPath> {
     }
 
     @Override protected BooleanExpression matches(EnumPath path, String value) {
-        if (ExpressionProviderFactory.isSupportsUnTypedValues()) {
+        if (this.supportsUnTypedValues) {
+            final Pattern pattern = getPattern(value);
             return path.in((List) EnumUtils.getEnumList(path.getType())
                                            .stream()
-                                           .filter(v -> regex_pattern_cache.getUnchecked(value)
-                                                                           .matcher(v.toString())
-                                                                           .matches())
+                                           .filter(v -> pattern.matcher(v.toString())
+                                                               .matches())
                                            .collect(Collectors.toList()));
         } else {
 
@@ -147,6 +154,22 @@ class EnumPathExpressionProviderImpl extends BaseExpressionProvider<EnumPath> {
         }
     }
 
+    /*
+     * Compiled (cached) pattern of supplied regex, cache access is reported
+     * only when metrics are turned on.
+     */
+    private Pattern getPattern(String value) {
+        final ValueOperatorsMetrics metrics = ExpressionProviderFactory.getMetrics();
+        if (metrics != ValueOperatorsMetrics.NOOP) {
+            final Pattern pattern = regex_pattern_cache.getIfPresent(value);
+            metrics.recordCacheAccess(ValueOperatorsMetrics.ENUM_PATTERN_CACHE, pattern != null);
+            if (pattern != null) {
+                return pattern;
+            }
+        }
+        return regex_pattern_cache.getUnchecked(value);
+    }
+
     @Override protected BooleanExpression gt(EnumPath path, String value) {
         throw new UnsupportedOperationException("Enum value can't be searched using gt operator");
     }
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.BooleanExpression;
+
+import java.util.Collection;
+
+/**
+ * Listener of expression building by {@link ExpressionProvider}s, for e.g.
+ * to wrap it in tracing spans or to sample slow searches. Registered with
+ * {@link ExpressionProviderFactory#addExpressionBuildListener(ExpressionBuildListener)}.
+ * <p>
+ * For every path, {@link #buildStarted(Path, Collection)} is followed by
+ * {@link #valueBuilt(Path, ParsedOperatorValue, BooleanExpression, long)}
+ * for each value (before values are composed using logical operators) and
+ * finally by either
+ * {@link #buildCompleted(Path, Collection, BooleanExpression, long)} or
+ * {@link #buildFailed(Path, Collection, RuntimeException)}.
+ * </p>
+ * <p>
+ * Callbacks are invoked synchronously on the thread building the
+ * expression, so implementations must be thread-safe and cheap. An
+ * exception thrown by a listener fails the search. Parsed values carry the
+ * raw search input, which must not be used as a metric tag or span name.
+ * When no listener is registered, nothing is measured or allocated.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public interface ExpressionBuildListener {
+
+    /**
+     * Invoked before the expression of a path is built.
+     *
+     * @param path   path for which expression is built
+     * @param values parsed values of path
+     */
+    default void buildStarted(Path<?> path, Collection<ParsedOperatorValue> values) {
+    }
+
+    /**
+     * Invoked after the expression of a single value is built.
+     *
+     * @param path       path for which expression is built
+     * @param value      parsed value, stripped of logical operator used to compose it with other values
+     * @param expression expression of value, <code>null</code> if value didn't result in an expression
+     * @param nanos      time taken in nanoseconds
+     */
+    default void valueBuilt(Path<?> path, ParsedOperatorValue value, BooleanExpression expression, long nanos) {
+    }
+
+    /**
+     * Invoked after the expression of a path is built.
+     *
+     * @param path       path for which expression is built
+     * @param values     parsed values of path
+     * @param expression resulting expression composed from expressions of all values
+     * @param nanos      time taken in nanoseconds, including time of all values
+     */
+    default void buildCompleted(Path<?> path, Collection<ParsedOperatorValue> values, BooleanExpression expression,
+                                long nanos) {
+    }
+
+    /**
+     * Invoked when building the expression of a path fails, the exception is
+     * rethrown afterwards.
+     *
+     * @param path   path for which expression was being built
+     * @param values parsed values of path
+     * @param error  failure, for e.g. {@link IllegalArgumentException} on ill-composed operators
+     */
+    default void buildFailed(Path<?> path, Collection<ParsedOperatorValue> values, RuntimeException error) {
+    }
+}
@@ -25,12 +25,20 @@ import com.querydsl.core.types.dsl.EnumPath;
 import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.core.types.dsl.StringPath;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 import org.springframework.data.querydsl.binding.QuerydslBindings;
 import org.springframework.data.querydsl.binding.QuerydslBindings.PathBinder;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 /**
  * Main entry point for library consumers. Factory class provides access to
@@ -41,26 +49,39 @@ import java.util.Optional;
 public final class ExpressionProviderFactory {
 
     /*
-    Internal cache for ExpressionProvider objects
-     */
-    static LoadingCache<Path, ExpressionProvider> loadingCache = CacheBuilder.newBuilder()
-            .build(new CacheLoader<Path, ExpressionProvider>() {
-                @Override
-                public ExpressionProvider load(Path key) throws Exception {
-                    if (StringPath.class.isAssignableFrom(key.getClass())) {
-                        return new StringPathExpressionProviderImpl();
-                    } else if (EnumPath.class.isAssignableFrom(key.getClass())) {
-                        return new EnumPathExpressionProviderImpl();
-                    } else if (NumberPath.class.isAssignableFrom(key.getClass())) {
-                        return new NumberPathExpressionProviderImpl();
-                    } else if (DateTimePath.class.isAssignableFrom(key.getClass())) {
-                        return new DateTimePathExpressionProviderImpl();
-                    }
-                    return null;
-                }
-            });
+    Configuration in effect along with the ExpressionProvider objects created for it,
+    replaced as a whole when a different configuration is published.
+     */
+    private static volatile Providers providers = new Providers(ValueOperatorsConfiguration.DEFAULT);
+
+    /*
+    Providers of a configuration overriding the published one on current thread, see callWithConfiguration(..)
+     */
+    private static final ThreadLocal<Providers> scoped_providers = new ThreadLocal<>();
 
-    private static boolean supportsUnTypedValues = false;
+    /*
+    Whether a configuration other than the published one was ever applied to a thread, until then lookups
+    don't consult scoped_providers.
+     */
+    private static volatile boolean scoped_providers_used = false;
+
+    /*
+    Providers of configurations other than the published one, created on first use.
+     */
+    private static final ConcurrentMap<ValueOperatorsConfiguration, Providers> scoped_providers_cache =
+            new ConcurrentHashMap<>();
+
+    /*
+    Metrics hook, NOOP unless registered.
+     */
+    private static volatile ValueOperatorsMetrics metrics = ValueOperatorsMetrics.NOOP;
+
+    private static final ExpressionBuildListener[] NO_LISTENERS = new ExpressionBuildListener[0];
+
+    /*
+    Registered listeners, copied on write so builders iterate without locking or allocating.
+     */
+    private static volatile ExpressionBuildListener[] listeners = NO_LISTENERS;
 
     /*
      * Registry for storing path to alias mapping.
@@ -74,7 +95,7 @@ public final class ExpressionProviderFactory {
      * @return <code>Optional</code> containing <code>ExpressionProvider</code> if available or else an empty optional.
      */
     public static Optional<ExpressionProvider> getProvider(Path path) {
-        return Optional.ofNullable(loadingCache.getUnchecked(path));
+        return Optional.ofNullable(currentProviders().get(path));
     }
 
     /**
@@ -86,7 +107,7 @@ public final class ExpressionProviderFactory {
      * @return {@link Optional} of {@link Predicate} based on provided value.
      */
     public static Optional<Predicate> getPredicate(Path path, Object value) {
-        return Optional.ofNullable(loadingCache.getUnchecked(path))
+        return Optional.ofNullable(currentProviders().get(path))
                 .flatMap(p -> p.getPredicate(path, value));
     }
 
@@ -114,13 +135,151 @@ public final class ExpressionProviderFactory {
                 .map(p -> path_alias_registry.get(p));
     }
 
+    /**
+     * @return {@link ValueOperatorsConfiguration} currently in effect, the one
+     * supplied to {@link #callWithConfiguration(ValueOperatorsConfiguration, Supplier)}
+     * while it runs on current thread or else the published one.
+     */
+    public static ValueOperatorsConfiguration getConfiguration() {
+        return currentProviders().configuration;
+    }
+
+    /**
+     * Runs the supplied action with supplied configuration in effect on
+     * current thread instead of the published one, for e.g. while an argument
+     * resolver builds a predicate from untyped values. Other threads, and
+     * current thread once action returns, aren't affected.
+     *
+     * <p>
+     * Bindings invoke {@link #getPredicate(Path, Object)} statically, hence a
+     * configuration other than the published one is bound to current thread
+     * and once that has happened every lookup of this factory checks a
+     * {@link ThreadLocal}. A configuration equal to the published one is run
+     * as-is, so publishing the configuration an application uses (see
+     * {@link #configure(ValueOperatorsConfiguration)}) keeps lookups off the
+     * {@link ThreadLocal}.
+     * </p>
+     *
+     * @param configuration {@link ValueOperatorsConfiguration} in effect while action runs
+     * @param action        action to run, typically building a predicate
+     * @param <T>           type of result
+     * @return result of action
+     */
+    public static <T> T callWithConfiguration(ValueOperatorsConfiguration configuration, Supplier<T> action) {
+        Validate.notNull(configuration, "ValueOperatorsConfiguration must not be null");
+        Validate.notNull(action, "Action must not be null");
+        final Providers previous = scoped_providers_used ? scoped_providers.get() : null;
+        final Providers published = providers;
+        if (previous == null && published.configuration.equals(configuration)) {
+            return action.get();
+        }
+        scoped_providers_used = true;
+        scoped_providers.set(published.configuration.equals(configuration) ? published
+                : scoped_providers_cache.computeIfAbsent(configuration, Providers::new));
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                scoped_providers.remove();
+            } else {
+                scoped_providers.set(previous);
+            }
+        }
+    }
+
+    private static Providers currentProviders() {
+        if (scoped_providers_used) {
+            final Providers scoped = scoped_providers.get();
+            if (scoped != null) {
+                return scoped;
+            }
+        }
+        return providers;
+    }
+
+    /**
+     * Publishes the supplied configuration. Providers created for a previous
+     * configuration are discarded so every {@link ExpressionProvider} returned
+     * afterwards is created with (and only reads) the supplied snapshot. This is
+     * expected to be invoked once at application startup.
+     *
+     * @param configuration {@link ValueOperatorsConfiguration} to publish
+     */
+    public static synchronized void configure(ValueOperatorsConfiguration configuration) {
+        Validate.notNull(configuration, "ValueOperatorsConfiguration must not be null");
+        if (!providers.configuration.equals(configuration)) {
+            providers = new Providers(configuration);
+        }
+    }
+
+    /**
+     * @return {@link ValueOperatorsMetrics} currently registered, {@link ValueOperatorsMetrics#NOOP} if none.
+     */
+    public static ValueOperatorsMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Registers the hook receiving metrics of value operator processing. This
+     * is expected to be invoked once at application startup.
+     *
+     * @param valueOperatorsMetrics {@link ValueOperatorsMetrics} to register, <code>null</code> turns metrics off.
+     */
+    public static void setMetrics(ValueOperatorsMetrics valueOperatorsMetrics) {
+        metrics = valueOperatorsMetrics != null ? valueOperatorsMetrics : ValueOperatorsMetrics.NOOP;
+    }
+
+    /**
+     * Registers a listener of expression building, see {@link ExpressionBuildListener}.
+     *
+     * @param listener {@link ExpressionBuildListener} to register
+     */
+    public static synchronized void addExpressionBuildListener(ExpressionBuildListener listener) {
+        Validate.notNull(listener, "ExpressionBuildListener must not be null");
+        final ExpressionBuildListener[] current = listeners;
+        final ExpressionBuildListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Unregisters a listener of expression building.
+     *
+     * @param listener {@link ExpressionBuildListener} to unregister
+     * @return <code>true</code> if listener was registered
+     */
+    public static synchronized boolean removeExpressionBuildListener(ExpressionBuildListener listener) {
+        final List<ExpressionBuildListener> updated = new ArrayList<>(Arrays.asList(listeners));
+        final boolean removed = updated.remove(listener);
+        if (removed) {
+            listeners = updated.isEmpty() ? NO_LISTENERS : updated.toArray(new ExpressionBuildListener[0]);
+        }
+        return removed;
+    }
+
+    /**
+     * @return unmodifiable list of registered {@link ExpressionBuildListener}s in order of registration.
+     */
+    public static List<ExpressionBuildListener> getExpressionBuildListeners() {
+        return Collections.unmodifiableList(Arrays.asList(listeners));
+    }
+
+    /*
+     * Registered listeners without copying, must not be modified by caller.
+     */
+    static ExpressionBuildListener[] expressionBuildListeners() {
+        return listeners;
+    }
+
     /**
      * @return <code>true</code> when experimental features are turned on, implying that untyped
      * values are going to be made available to {@link ExpressionProvider} for
      * non-string paths, <code>false</code> is returned if experimental features are disabled
+     * @deprecated use {@link #getConfiguration()}
      */
+    @Deprecated
     public static boolean isSupportsUnTypedValues() {
-        return supportsUnTypedValues;
+        return getConfiguration().isSupportsUnTypedValues();
     }
 
     /**
@@ -129,9 +288,52 @@ public final class ExpressionProviderFactory {
      * non-string paths.
      *
      * @param supportsUnTypedValues <code>Boolean</code> indicating status of support of untyped values (aka. experimental features)
+     * @deprecated use {@link #configure(ValueOperatorsConfiguration)}
      */
-    public static void setSupportsUnTypedValues(boolean supportsUnTypedValues) {
-        ExpressionProviderFactory.supportsUnTypedValues = supportsUnTypedValues;
+    @Deprecated
+    public static synchronized void setSupportsUnTypedValues(boolean supportsUnTypedValues) {
+        configure(getConfiguration().withSupportsUnTypedValues(supportsUnTypedValues));
     }
 
+    /*
+     * Cache of ExpressionProvider objects created for a single configuration
+     */
+    private static final class Providers {
+
+        private final ValueOperatorsConfiguration configuration;
+
+        private final LoadingCache<Path, ExpressionProvider> cache;
+
+        Providers(ValueOperatorsConfiguration configuration) {
+            this.configuration = configuration;
+            this.cache = CacheBuilder.newBuilder()
+                    .build(new CacheLoader<Path, ExpressionProvider>() {
+                        @Override
+                        public ExpressionProvider load(Path key) throws Exception {
+                            if (StringPath.class.isAssignableFrom(key.getClass())) {
+                                return new StringPathExpressionProviderImpl();
+                            } else if (EnumPath.class.isAssignableFrom(key.getClass())) {
+                                return new EnumPathExpressionProviderImpl(configuration);
+                            } else if (NumberPath.class.isAssignableFrom(key.getClass())) {
+                                return new NumberPathExpressionProviderImpl();
+                            } else if (DateTimePath.class.isAssignableFrom(key.getClass())) {
+                                return new DateTimePathExpressionProviderImpl();
+                            }
+                            return null;
+                        }
+                    });
+        }
+
+        ExpressionProvider get(Path path) {
+            final ValueOperatorsMetrics current = metrics;
+            if (current != ValueOperatorsMetrics.NOOP) {
+                final ExpressionProvider provider = cache.getIfPresent(path);
+                current.recordCacheAccess(ValueOperatorsMetrics.PROVIDER_CACHE, provider != null);
+                if (provider != null) {
+                    return provider;
+                }
+            }
+            return cache.getUnchecked(path);
+        }
+    }
 }
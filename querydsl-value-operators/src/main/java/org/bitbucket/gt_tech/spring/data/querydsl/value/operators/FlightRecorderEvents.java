@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators;
+
+import com.querydsl.core.types.Path;
+
+import java.util.Collection;
+
+/**
+ * Emits JDK Flight Recorder events of value operator processing so slow
+ * searches can be correlated with GC, lock and I/O events of the same
+ * recording:
+ * <ul>
+ * <li><code>org.bitbucket.gt_tech.querydsl.ValueOperatorParse</code> -
+ * parsing of a search value into its operator chain</li>
+ * <li><code>org.bitbucket.gt_tech.querydsl.PredicateBuild</code> - building
+ * the expression of a path (path, provider, operator chain depth and number
+ * of values)</li>
+ * <li><code>org.bitbucket.gt_tech.querydsl.ContextFilter</code> - a request
+ * processed by
+ * {@link org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.QuerydslHttpRequestContextAwareServletFilter}</li>
+ * </ul>
+ * Events are disabled by default and are enabled thru JFR settings of a
+ * recording. Search values are never recorded.
+ *
+ * <p>
+ * This library is packaged as a multi-release JAR and this (baseline)
+ * implementation, used on JDKs without <code>jdk.jfr</code>, emits nothing.
+ * On JDK 11+, the implementation under <code>META-INF/versions/11</code> is
+ * used instead. <code>begin*</code> methods return an opaque event which must
+ * be handed to the matching <code>commit*</code> method, <code>null</code> is
+ * returned when the event isn't enabled so nothing is allocated or measured.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * @return <code>true</code> if events are emitted on current JDK, <code>false</code> otherwise.
+     */
+    public static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * @return event to be committed with {@link #commitParse(Object, ParsedOperatorValue)}, <code>null</code> if not
+     * enabled
+     */
+    public static Object beginParse() {
+        return null;
+    }
+
+    /**
+     * @param event  event returned by {@link #beginParse()}
+     * @param parsed parsed value
+     */
+    public static void commitParse(Object event, ParsedOperatorValue parsed) {
+    }
+
+    /**
+     * @return event to be committed with {@link #commitBuild(Object, Class, Path, Collection)}, <code>null</code> if
+     * not enabled
+     */
+    public static Object beginBuild() {
+        return null;
+    }
+
+    /**
+     * @param event        event returned by {@link #beginBuild()}
+     * @param providerType type of {@link ExpressionProvider}
+     * @param path         path for which expression is built
+     * @param values       parsed values of path
+     */
+    public static void commitBuild(Object event, Class<?> providerType, Path<?> path,
+                                   Collection<ParsedOperatorValue> values) {
+    }
+
+    /**
+     * @return event to be committed with {@link #commitContextFilter(Object, String, Class, int)}, <code>null</code>
+     * if not enabled
+     */
+    public static Object beginContextFilter() {
+        return null;
+    }
+
+    /**
+     * @param event          event returned by {@link #beginContextFilter()}
+     * @param uri            request URI
+     * @param resourceType   type of search resource mapped to URI
+     * @param parameterCount number of request parameters
+     */
+    public static void commitContextFilter(Object event, String uri, Class<?> resourceType, int parameterCount) {
+    }
+}
@@ -48,17 +48,19 @@ class NumberPathExpressionProviderImpl extends BaseExpressionProvider<NumberPath
 	}
 
 	@Override protected BooleanExpression eq(NumberPath path, String value, boolean ignoreCase) {
-		Validate.isTrue(isNumeric(value), "Invalid numeric value");
-		//return path.eq(Integer.parseInt(StringUtils.trim(value)));
-		return path.eq(new NumberConversions<Tuple>(Projections.tuple(path)).newInstance(
-				NumberUtils.createNumber(StringUtils.trim(value))).get(path));
+		return path.eq(toNumber(path, value));
+	}
+
+	@Override protected BooleanExpression eq(NumberPath path, ParsedOperatorValue operand, boolean ignoreCase) {
+		return path.eq(toNumber(path, operand));
 	}
 
 	@Override protected BooleanExpression ne(NumberPath path, String value, boolean ignoreCase) {
-		Validate.isTrue(isNumeric(value), "Invalid numeric value");
-		//return path.ne(Integer.parseInt(StringUtils.trim(value)));
-		return path.ne(new NumberConversions<Tuple>(Projections.tuple(path)).newInstance(
-				NumberUtils.createNumber(StringUtils.trim(value))).get(path));
+		return path.ne(toNumber(path, value));
+	}
+
+	@Override protected BooleanExpression ne(NumberPath path, ParsedOperatorValue operand, boolean ignoreCase) {
+		return path.ne(toNumber(path, operand));
 	}
 
 	@Override protected BooleanExpression contains(NumberPath path, String value, boolean ignoreCase) {
@@ -78,34 +80,57 @@ class NumberPathExpressionProviderImpl extends BaseExpressionProvider<NumberPath
 	}
 
 	@Override protected BooleanExpression gt(NumberPath path, String value) {
-		Validate.isTrue(isNumeric(value), "Invalid numeric value");
-		//return path.gt(Integer.parseInt(StringUtils.trim(value)));
-		return path.gt((Number) new NumberConversions<Tuple>(Projections.tuple(path)).newInstance(
-				NumberUtils.createNumber(StringUtils.trim(value))).get(path));
+		return path.gt(toNumber(path, value));
+	}
+
+	@Override protected BooleanExpression gt(NumberPath path, ParsedOperatorValue operand) {
+		return path.gt(toNumber(path, operand));
 	}
 
 	@Override protected BooleanExpression gte(NumberPath path, String value) {
-		Validate.isTrue(isNumeric(value), "Invalid numeric value");
-		//return path.goe(Integer.parseInt(StringUtils.trim(value)));
-		return path.goe((Number) new NumberConversions<Tuple>(Projections.tuple(path)).newInstance(
-				NumberUtils.createNumber(StringUtils.trim(value))).get(path));
+		return path.goe(toNumber(path, value));
+	}
+
+	@Override protected BooleanExpression gte(NumberPath path, ParsedOperatorValue operand) {
+		return path.goe(toNumber(path, operand));
 	}
 
 	@Override protected BooleanExpression lt(NumberPath path, String value) {
-		Validate.isTrue(isNumeric(value), "Invalid numeric value");
-		//return path.lt(Integer.parseInt(StringUtils.trim(value)));
-		return path.lt((Number) new NumberConversions<Tuple>(Projections.tuple(path)).newInstance(
-				NumberUtils.createNumber(StringUtils.trim(value))).get(path));
+		return path.lt(toNumber(path, value));
+	}
+
+	@Override protected BooleanExpression lt(NumberPath path, ParsedOperatorValue operand) {
+		return path.lt(toNumber(path, operand));
 	}
 
 	@Override protected BooleanExpression lte(NumberPath path, String value) {
-		Validate.isTrue(isNumeric(value), "Invalid numeric value");
-		//return path.loe(Integer.parseInt(StringUtils.trim(value)));
-		return path.loe((Number) new NumberConversions<Tuple>(Projections.tuple(path)).newInstance(
-				NumberUtils.createNumber(StringUtils.trim(value))).get(path));
+		return path.loe(toNumber(path, value));
+	}
+
+	@Override protected BooleanExpression lte(NumberPath path, ParsedOperatorValue operand) {
+		return path.loe(toNumber(path, operand));
 	}
 	
 	
+	/*
+	 * Operand is converted to type of path once and reused thereafter.
+	 */
+	private Number toNumber(NumberPath path, ParsedOperatorValue operand) {
+		if (TypedValueConverters.canConvert(path.getType())) {
+			return (Number) operand.getTypedValue(path.getType());
+		}
+		return toNumber(path, operand.getText());
+	}
+
+	private Number toNumber(NumberPath path, String value) {
+		Validate.isTrue(isNumeric(value), "Invalid numeric value");
+		if (TypedValueConverters.canConvert(path.getType())) {
+			return (Number) TypedValueConverters.convert(value, path.getType());
+		}
+		return (Number) new NumberConversions<Tuple>(Projections.tuple(path)).newInstance(
+				NumberUtils.createNumber(StringUtils.trim(value))).get(path);
+	}
+
 	private boolean isNumeric(String inValue) {
 		return NumberUtils.isParsable(StringUtils.trim(inValue));
 	}
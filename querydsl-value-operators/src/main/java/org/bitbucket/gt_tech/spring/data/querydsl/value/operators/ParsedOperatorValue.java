@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Parsed form of a search input value, i.e. the chain of value operators
+ * wrapping the true value. Each instance represents one level of the chain,
+ * a nested (wrapped) value is available thru {@link #getOperand()}.
+ * <p>
+ * Values are parsed once against all available {@link Operator}s so the same
+ * parsed instance can be shared between the request decoration done by
+ * experimental features (which only needs the true value) and
+ * {@link ExpressionProvider} implementations (which need the whole chain).
+ * </p>
+ *
+ * @author gt_tech
+ */
+public final class ParsedOperatorValue {
+
+    private static final Operator[] OPERATORS = Operator.values();
+
+    private final String text;
+    private final Operator operator;
+    private final ParsedOperatorValue operand;
+
+    /*
+     * Last typed conversion of text, see getTypedValue(Class)
+     */
+    private volatile TypedValue typedValue;
+
+    private ParsedOperatorValue(final String input) {
+        this.text = StringUtils.trimToEmpty(input);
+        this.operator = findOperator(this.text);
+        if (this.operator != null) {
+            this.operand = new ParsedOperatorValue(this.text.substring(this.operator.toString()
+                                                                                    .length() + 1,
+                                                                       this.text.length() - 1));
+        } else {
+            this.operand = null;
+        }
+    }
+
+    /**
+     * Parses the supplied input into its operator chain.
+     *
+     * @param input Input String (search parameter's, usually an attribute, value), may be blank
+     * @return parsed value, never <code>null</code>
+     */
+    public static ParsedOperatorValue parse(final String input) {
+        final Object event = FlightRecorderEvents.beginParse();
+        final ValueOperatorsMetrics metrics = ExpressionProviderFactory.getMetrics();
+        final ParsedOperatorValue result;
+        if (metrics == ValueOperatorsMetrics.NOOP) {
+            result = new ParsedOperatorValue(input);
+        } else {
+            final long start = System.nanoTime();
+            result = new ParsedOperatorValue(input);
+            metrics.recordParse(System.nanoTime() - start);
+        }
+        FlightRecorderEvents.commitParse(event, result);
+        return result;
+    }
+
+    /**
+     * @return trimmed text this level of the chain was parsed from, empty String if input was blank.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return Operator wrapping the value at this level, <code>null</code> if value isn't wrapped in an operator
+     */
+    public Operator getOperator() {
+        return operator;
+    }
+
+    /**
+     * @return the value wrapped by {@link #getOperator()}, <code>null</code> if value isn't wrapped in an
+     * operator
+     */
+    public ParsedOperatorValue getOperand() {
+        return operand;
+    }
+
+    /**
+     * @return the innermost value devoid of any operators.
+     */
+    public String getTrueValue() {
+        ParsedOperatorValue current = this;
+        while (current.operand != null) {
+            current = current.operand;
+        }
+        return current.text;
+    }
+
+    /**
+     * Converts text of this level of the chain to supplied type using
+     * {@link TypedValueConverters}. Conversion is performed once and the
+     * result is reused by subsequent calls for the same type.
+     *
+     * @param type target type
+     * @param <T>  target type
+     * @return typed value
+     * @throws IllegalArgumentException if text can't be converted to supplied type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getTypedValue(Class<T> type) {
+        TypedValue current = this.typedValue;
+        if (current == null || current.type != type) {
+            current = new TypedValue(type, TypedValueConverters.convert(this.text, type));
+            this.typedValue = current;
+        }
+        return (T) current.value;
+    }
+
+    /*
+     * Allocation free equivalent of ExpressionProvider.isOperator(value)
+     */
+    private static Operator findOperator(final String value) {
+        if (value.endsWith(ExpressionProvider.OPERATOR_VALUE_DELIMITER_SUFFIX)) {
+            final char prefix = ExpressionProvider.OPERATOR_VALUE_DELIMITER_PREFIX.charAt(0);
+            for (Operator op : OPERATORS) {
+                final String name = op.toString();
+                if (value.length() > name.length() + 1 && value.startsWith(name)
+                        && value.charAt(name.length()) == prefix) {
+                    return op;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class TypedValue {
+        private final Class<?> type;
+        private final Object value;
+
+        private TypedValue(Class<?> type, Object value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this).append("operator", operator)
+                                        .append("text", text)
+                                        .append("operand", operand)
+                                        .toString();
+    }
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Registry of direct parse functions converting (operator free) search input
+ * values to a target type. Parse function is looked up once per target type
+ * using a {@link ClassValue} so conversion doesn't involve any search over
+ * registered types.
+ *
+ * <p>
+ * Supported target types are {@link String}, {@link Boolean}, sub-types of
+ * {@link Number} available in <code>java.lang</code> and <code>java.math</code>
+ * (and their primitive counterparts), {@link Enum}s, {@link UUID},
+ * {@link Date}, {@link Timestamp} and {@link LocalDate}.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public final class TypedValueConverters {
+
+    private static final ClassValue<Function<String, ?>> CONVERTERS = new ClassValue<Function<String, ?>>() {
+        @Override
+        protected Function<String, ?> computeValue(Class<?> type) {
+            return createConverter(type);
+        }
+    };
+
+    private TypedValueConverters() {
+    }
+
+    /**
+     * @param type target type
+     * @return <code>true</code> if values can be converted to supplied type.
+     */
+    public static boolean canConvert(Class<?> type) {
+        return type != null && CONVERTERS.get(type) != null;
+    }
+
+    /**
+     * Converts supplied value to target type.
+     *
+     * @param value value to be converted, leading and trailing whitespaces are ignored.
+     * @param type  target type
+     * @param <T>   target type
+     * @return converted value, <code>null</code> if value is <code>null</code>
+     * @throws IllegalArgumentException if value can't be converted to target type or if target type isn't
+     *                                  supported.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T convert(String value, Class<T> type) {
+        Validate.notNull(type, "Target type must not be null");
+        final Function<String, ?> converter = CONVERTERS.get(type);
+        Validate.isTrue(converter != null, "Conversion to %s is not supported", type.getName());
+        return value == null ? null : (T) converter.apply(StringUtils.trim(value));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, ?> createConverter(Class<?> type) {
+        if (String.class.equals(type)) {
+            return Function.identity();
+        } else if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+            return TypedValueConverters::toBoolean;
+        } else if (Integer.class.equals(type) || int.class.equals(type)) {
+            return v -> toNumber(v).intValue();
+        } else if (Long.class.equals(type) || long.class.equals(type)) {
+            return v -> toNumber(v).longValue();
+        } else if (Short.class.equals(type) || short.class.equals(type)) {
+            return v -> toNumber(v).shortValue();
+        } else if (Byte.class.equals(type) || byte.class.equals(type)) {
+            return v -> toNumber(v).byteValue();
+        } else if (Double.class.equals(type) || double.class.equals(type)) {
+            return v -> toNumber(v).doubleValue();
+        } else if (Float.class.equals(type) || float.class.equals(type)) {
+            return v -> toNumber(v).floatValue();
+        } else if (BigDecimal.class.equals(type)) {
+            return v -> NumberUtils.createBigDecimal(numeric(v));
+        } else if (BigInteger.class.equals(type)) {
+            return v -> NumberUtils.createBigInteger(numeric(v));
+        } else if (type.isEnum()) {
+            return v -> Enum.valueOf((Class) type, v);
+        } else if (UUID.class.equals(type)) {
+            return UUID::fromString;
+        } else if (Timestamp.class.equals(type)) {
+            return v -> new Timestamp(toDate(v).getTime());
+        } else if (Date.class.equals(type)) {
+            return TypedValueConverters::toDate;
+        } else if (LocalDate.class.equals(type)) {
+            return LocalDate::parse;
+        }
+        return null;
+    }
+
+    private static Number toNumber(String value) {
+        return NumberUtils.createNumber(numeric(value));
+    }
+
+    private static String numeric(String value) {
+        Validate.isTrue(NumberUtils.isParsable(value), "Invalid numeric value");
+        return value;
+    }
+
+    private static Boolean toBoolean(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "on":
+            case "yes":
+            case "1":
+                return Boolean.TRUE;
+            case "false":
+            case "off":
+            case "no":
+            case "0":
+                return Boolean.FALSE;
+            default:
+                throw new IllegalArgumentException("Invalid boolean value");
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Date toDate(String value) {
+        try {
+            // use the same conversion as used by the Conversion service
+            return new Date(value);
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalArgumentException("Invalid date value", iae);
+        }
+    }
+}
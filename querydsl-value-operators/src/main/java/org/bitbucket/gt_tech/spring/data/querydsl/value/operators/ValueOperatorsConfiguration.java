@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators;
+
+/**
+ * Immutable snapshot of library configuration consulted by
+ * {@link ExpressionProvider} implementations. A snapshot is published once
+ * through {@link ExpressionProviderFactory#configure(ValueOperatorsConfiguration)}
+ * (typically at application startup) and handed over to providers as they're
+ * created, so providers only ever read final fields and behave the same
+ * regardless of the thread or the order in which they were created.
+ *
+ * @author gt_tech
+ */
+public final class ValueOperatorsConfiguration {
+
+    /**
+     * Default configuration, experimental features turned off.
+     */
+    public static final ValueOperatorsConfiguration DEFAULT = new ValueOperatorsConfiguration(false);
+
+    private final boolean supportsUnTypedValues;
+
+    private ValueOperatorsConfiguration(boolean supportsUnTypedValues) {
+        this.supportsUnTypedValues = supportsUnTypedValues;
+    }
+
+    /**
+     * @return <code>true</code> when experimental features are turned on, implying that untyped
+     * values are going to be made available to {@link ExpressionProvider} for
+     * non-string paths, <code>false</code> otherwise.
+     */
+    public boolean isSupportsUnTypedValues() {
+        return supportsUnTypedValues;
+    }
+
+    /**
+     * @param supportsUnTypedValues <code>Boolean</code> indicating status of support of untyped values (aka. experimental features)
+     * @return configuration identical to this one except for support of untyped values,
+     * <code>this</code> if nothing changes.
+     */
+    public ValueOperatorsConfiguration withSupportsUnTypedValues(boolean supportsUnTypedValues) {
+        return this.supportsUnTypedValues == supportsUnTypedValues ? this
+                : new ValueOperatorsConfiguration(supportsUnTypedValues);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return supportsUnTypedValues == ((ValueOperatorsConfiguration) o).supportsUnTypedValues;
+    }
+
+    @Override
+    public int hashCode() {
+        return Boolean.hashCode(supportsUnTypedValues);
+    }
+
+    @Override
+    public String toString() {
+        return "ValueOperatorsConfiguration{supportsUnTypedValues=" + supportsUnTypedValues + "}";
+    }
+}
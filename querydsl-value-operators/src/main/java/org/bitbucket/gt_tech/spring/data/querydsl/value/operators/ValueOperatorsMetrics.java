@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators;
+
+/**
+ * Hook for collecting metrics of value operator processing, registered with
+ * {@link ExpressionProviderFactory#setMetrics(ValueOperatorsMetrics)}. This
+ * library doesn't depend on a metrics library, an implementation adapts the
+ * callbacks to one - for e.g. timers and counters of a Micrometer
+ * <code>MeterRegistry</code>.
+ * <p>
+ * Callbacks are invoked synchronously on the thread processing the search,
+ * so implementations must be thread-safe and cheap. Arguments are bounded
+ * by the domain model (path names, provider classes, {@link Operator}s and
+ * cache names), search input values are never passed and must not be used
+ * for tagging. Nothing is measured while {@link #NOOP} is registered, which
+ * is the default.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public interface ValueOperatorsMetrics {
+
+    /**
+     * Implementation discarding all callbacks, registered by default.
+     */
+    ValueOperatorsMetrics NOOP = new ValueOperatorsMetrics() {
+    };
+
+    /**
+     * Cache of {@link ExpressionProvider}s by {@link com.querydsl.core.types.Path}
+     */
+    String PROVIDER_CACHE = "providers";
+
+    /**
+     * Values parsed once per request by experimental features and reused by
+     * {@link ExpressionProvider}s, a miss means the value had to be parsed again.
+     */
+    String PARSED_VALUES_CACHE = "parsed-values";
+
+    /**
+     * Compiled patterns of <code>matches(..)</code> operator on Enum paths
+     */
+    String ENUM_PATTERN_CACHE = "enum-patterns";
+
+    /**
+     * Search results cached by experimental <code>SearchResultCache</code>
+     */
+    String SEARCH_RESULT_CACHE = "search-results";
+
+    /**
+     * Search results stored by disk tier of experimental <code>SearchResultCache</code>,
+     * looked up on a miss of {@link #SEARCH_RESULT_CACHE}
+     */
+    String SEARCH_RESULT_DISK_CACHE = "search-results-disk";
+
+    /**
+     * Searches in flight in experimental <code>CoalescingSearchExecutor</code>,
+     * a hit means the caller joined an identical search already being executed
+     */
+    String SEARCH_FLIGHTS = "search-flights";
+
+    /**
+     * Invoked after a search input value is parsed into its operator chain.
+     *
+     * @param nanos time taken in nanoseconds
+     */
+    default void recordParse(long nanos) {
+    }
+
+    /**
+     * Invoked after an {@link ExpressionProvider} built the expression of a
+     * path from already parsed values.
+     *
+     * @param providerType type of {@link ExpressionProvider}
+     * @param path         path name, for e.g. <code>user.profile.firstName</code>
+     * @param valueCount   number of values for the path
+     * @param nanos        time taken in nanoseconds
+     */
+    default void recordBuild(Class<?> providerType, String path, int valueCount, long nanos) {
+    }
+
+    /**
+     * Invoked once for every operator found in values of a path, for e.g.
+     * twice for <code>not(eq(..))</code>. Values without an operator aren't
+     * reported.
+     *
+     * @param path     path name
+     * @param operator operator used
+     */
+    default void recordOperator(String path, Operator operator) {
+    }
+
+    /**
+     * Invoked on lookup of an internal cache.
+     *
+     * @param cache cache name, one of the constants of this interface
+     * @param hit   <code>true</code> if found in cache
+     */
+    default void recordCacheAccess(String cache, boolean hit) {
+    }
+}
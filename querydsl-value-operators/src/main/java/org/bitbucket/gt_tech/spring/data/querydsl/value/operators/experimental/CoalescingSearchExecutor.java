@@ -0,0 +1,373 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import org.apache.commons.lang3.Validate;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.CanonicalForm;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProviderFactory;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ValueOperatorsMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces identical concurrent searches of
+ * {@link QuerydslPredicateExecutor#findAll(Predicate, Pageable)} into a single
+ * query (single-flight), for traffic spikes where many clients run the same
+ * search at the same moment.
+ *
+ * <p>
+ * Searches are keyed like in {@link SearchResultCache}: by domain type,
+ * {@link CanonicalForm#of(Predicate) canonical form} of predicate and
+ * {@link Pageable} (page, size and sort). The first caller of a key executes
+ * the query on its own thread while callers arriving during its execution
+ * wait for and share its result. Nothing is retained once the query
+ * completes, so unlike a cache this never serves a result of a search which
+ * started before the caller arrived by more than the duration of one query.
+ * </p>
+ *
+ * <p>
+ * A waiting caller gives up after the configured maximum wait and executes
+ * the query itself, so a slow or stuck query doesn't delay callers by more
+ * than that. When the shared query fails, waiting callers either fail with
+ * the same exception ({@link FailurePolicy#PROPAGATE}, preserving its type
+ * for e.g. exception translation but carrying the stack trace of executing
+ * thread) or retry once, again coalesced ({@link FailurePolicy#RETRY}).
+ * </p>
+ *
+ * <p>
+ * Shared results must not be modified. Like {@link SearchResultCache}, an
+ * instance is typically registered once at startup using
+ * {@link #setDefault(CoalescingSearchExecutor)} and used through
+ * {@link #getDefault()}, which is {@link #DISABLED} until then. The two
+ * compose by handing {@link #wrap(QuerydslPredicateExecutor, Class)} to the
+ * cache so that only its misses are coalesced:
+ * </p>
+ *
+ * <pre>
+ * SearchResultCache.getDefault().findAll(CoalescingSearchExecutor.getDefault().wrap(this, User.class),
+ * 		User.class, predicate, pageable);
+ * </pre>
+ *
+ * @author gt_tech
+ */
+public class CoalescingSearchExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(CoalescingSearchExecutor.class);
+
+	/**
+	 * Behavior of callers waiting for a search which fails
+	 */
+	public enum FailurePolicy {
+		/**
+		 * Waiting callers fail with the exception of search.
+		 */
+		PROPAGATE,
+		/**
+		 * Waiting callers retry once, again coalesced, and only fail if the
+		 * retry does.
+		 */
+		RETRY
+	}
+
+	/**
+	 * Executor which coalesces nothing, every search goes to the repository.
+	 */
+	public static final CoalescingSearchExecutor DISABLED = new CoalescingSearchExecutor(Duration.ZERO,
+			FailurePolicy.PROPAGATE);
+
+	private static volatile CoalescingSearchExecutor defaultExecutor = DISABLED;
+
+	private final long maxWaitNanos;
+
+	private final FailurePolicy failurePolicy;
+
+	private final ConcurrentMap<Key, CompletableFuture<Page<?>>> flights = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxWait
+	 *            maximum time a caller waits for a search executed on behalf
+	 *            of another before executing it itself, {@link Duration#ZERO}
+	 *            disables coalescing.
+	 * @param failurePolicy
+	 *            behavior of waiting callers when search fails
+	 */
+	public CoalescingSearchExecutor(Duration maxWait, FailurePolicy failurePolicy) {
+		Validate.notNull(maxWait, "Maximum wait must not be null");
+		Validate.isTrue(!maxWait.isNegative(), "Maximum wait must not be negative");
+		Validate.notNull(failurePolicy, "FailurePolicy must not be null");
+		this.maxWaitNanos = maxWait.toNanos();
+		this.failurePolicy = failurePolicy;
+	}
+
+	/**
+	 * @return executor registered with
+	 *         {@link #setDefault(CoalescingSearchExecutor)}, {@link #DISABLED}
+	 *         if none.
+	 */
+	public static CoalescingSearchExecutor getDefault() {
+		return defaultExecutor;
+	}
+
+	/**
+	 * Registers the executor returned by {@link #getDefault()}. This is
+	 * expected to be invoked once at application startup.
+	 *
+	 * @param executor
+	 *            executor to register, <code>null</code> registers
+	 *            {@link #DISABLED}.
+	 */
+	public static void setDefault(CoalescingSearchExecutor executor) {
+		defaultExecutor = executor != null ? executor : DISABLED;
+	}
+
+	/**
+	 * Executes the search or joins an identical one already being executed.
+	 *
+	 * @param executor
+	 *            repository executing the search
+	 * @param domainType
+	 *            domain type searched by repository
+	 * @param predicate
+	 *            search predicate, can be <code>null</code>.
+	 * @param pageable
+	 *            page requested, must not be <code>null</code> (can be
+	 *            {@link Pageable#unpaged()}).
+	 * @param <T>
+	 *            domain type
+	 * @return page of search results, shared with concurrent callers.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Page<T> findAll(QuerydslPredicateExecutor<T> executor, Class<T> domainType, Predicate predicate,
+			Pageable pageable) {
+		Validate.notNull(executor, "QuerydslPredicateExecutor must not be null");
+		Validate.notNull(domainType, "Domain type must not be null");
+		Validate.notNull(pageable, "Pageable must not be null");
+		if (!isEnabled()) {
+			return executor.findAll(predicate, pageable);
+		}
+
+		final Key key = new Key(domainType, CanonicalForm.of(predicate)
+				.getText(), pageable);
+		boolean retried = false;
+		while (true) {
+			final CompletableFuture<Page<?>> flight = new CompletableFuture<>();
+			final CompletableFuture<Page<?>> running = flights.putIfAbsent(key, flight);
+			ExpressionProviderFactory.getMetrics()
+					.recordCacheAccess(ValueOperatorsMetrics.SEARCH_FLIGHTS, running != null);
+			if (running == null) {
+				return (Page<T>) execute(key, flight, executor, predicate, pageable);
+			}
+
+			try {
+				return (Page<T>) running.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				logger.debug("Search of {} didn't complete within maximum wait, executing it again", domainType);
+				return executor.findAll(predicate, pageable);
+			} catch (InterruptedException e) {
+				Thread.currentThread()
+						.interrupt();
+				return executor.findAll(predicate, pageable);
+			} catch (ExecutionException e) {
+				if (failurePolicy == FailurePolicy.RETRY && !retried) {
+					logger.debug("Search of {} failed, retrying", domainType, e.getCause());
+					retried = true;
+				} else {
+					throw propagate(e.getCause());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param executor
+	 *            repository executing searches
+	 * @param domainType
+	 *            domain type searched by repository
+	 * @param <T>
+	 *            domain type
+	 * @return executor coalescing
+	 *         {@link QuerydslPredicateExecutor#findAll(Predicate, Pageable)}
+	 *         through this instance, other methods are passed through to
+	 *         supplied executor.
+	 */
+	public <T> QuerydslPredicateExecutor<T> wrap(QuerydslPredicateExecutor<T> executor, Class<T> domainType) {
+		Validate.notNull(executor, "QuerydslPredicateExecutor must not be null");
+		Validate.notNull(domainType, "Domain type must not be null");
+		return isEnabled() ? new CoalescingQuerydslPredicateExecutor<>(this, executor, domainType) : executor;
+	}
+
+	/**
+	 * @return <code>false</code> if this executor coalesces nothing
+	 */
+	public boolean isEnabled() {
+		return maxWaitNanos > 0;
+	}
+
+	/**
+	 * @return number of distinct searches currently being executed
+	 */
+	public int getInFlightCount() {
+		return flights.size();
+	}
+
+	/*
+	 * Executes the search on behalf of all callers of key. The flight is
+	 * removed before it's completed so that callers retrying after a failure
+	 * start a new one.
+	 */
+	private Page<?> execute(Key key, CompletableFuture<Page<?>> flight, QuerydslPredicateExecutor<?> executor,
+			Predicate predicate, Pageable pageable) {
+		final Page<?> result;
+		try {
+			result = executor.findAll(predicate, pageable);
+		} catch (Throwable t) {
+			flights.remove(key, flight);
+			flight.completeExceptionally(t);
+			throw t;
+		}
+		flights.remove(key, flight);
+		flight.complete(result);
+		return result;
+	}
+
+	/*
+	 * QuerydslPredicateExecutor#findAll doesn't declare checked exceptions
+	 */
+	private static RuntimeException propagate(Throwable cause) {
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return cause instanceof RuntimeException ? (RuntimeException) cause : new UndeclaredThrowableException(
+				cause);
+	}
+
+	/*
+	 * Key of a search in flight
+	 */
+	private static final class Key {
+		private final Class<?> domainType;
+		private final String predicate;
+		private final boolean paged;
+		private final int page;
+		private final int size;
+		private final Sort sort;
+		private final int hash;
+
+		private Key(Class<?> domainType, String predicate, Pageable pageable) {
+			this.domainType = domainType;
+			this.predicate = predicate;
+			this.paged = pageable.isPaged();
+			this.page = paged ? pageable.getPageNumber() : -1;
+			this.size = paged ? pageable.getPageSize() : -1;
+			this.sort = pageable.getSort();
+			this.hash = Objects.hash(domainType, predicate, page, size, sort);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) o;
+			return hash == other.hash && paged == other.paged && page == other.page && size == other.size
+					&& domainType.equals(other.domainType) && predicate.equals(other.predicate) && sort.equals(
+							other.sort);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/*
+	 * Executor coalescing paged searches, see #wrap
+	 */
+	private static final class CoalescingQuerydslPredicateExecutor<T> implements QuerydslPredicateExecutor<T> {
+		private final CoalescingSearchExecutor coalescer;
+		private final QuerydslPredicateExecutor<T> delegate;
+		private final Class<T> domainType;
+
+		private CoalescingQuerydslPredicateExecutor(CoalescingSearchExecutor coalescer,
+				QuerydslPredicateExecutor<T> delegate, Class<T> domainType) {
+			this.coalescer = coalescer;
+			this.delegate = delegate;
+			this.domainType = domainType;
+		}
+
+		@Override
+		public Page<T> findAll(Predicate predicate, Pageable pageable) {
+			return coalescer.findAll(delegate, domainType, predicate, pageable);
+		}
+
+		@Override
+		public Optional<T> findOne(Predicate predicate) {
+			return delegate.findOne(predicate);
+		}
+
+		@Override
+		public Iterable<T> findAll(Predicate predicate) {
+			return delegate.findAll(predicate);
+		}
+
+		@Override
+		public Iterable<T> findAll(Predicate predicate, Sort sort) {
+			return delegate.findAll(predicate, sort);
+		}
+
+		@Override
+		public Iterable<T> findAll(Predicate predicate, OrderSpecifier<?>... orders) {
+			return delegate.findAll(predicate, orders);
+		}
+
+		@Override
+		public Iterable<T> findAll(OrderSpecifier<?>... orders) {
+			return delegate.findAll(orders);
+		}
+
+		@Override
+		public long count(Predicate predicate) {
+			return delegate.count(predicate);
+		}
+
+		@Override
+		public boolean exists(Predicate predicate) {
+			return delegate.exists(predicate);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page of search results fetched by {@link KeysetPagination}, carrying the
+ * opaque cursor of next page instead of a page number.
+ *
+ * @param <T>
+ *            domain type
+ * @author gt_tech
+ */
+public class KeysetPage<T> {
+
+	private final List<T> content;
+
+	private final String nextCursor;
+
+	/**
+	 * Constructor
+	 *
+	 * @param content
+	 *            results of page
+	 * @param nextCursor
+	 *            cursor of next page, <code>null</code> if this is the last
+	 *            page.
+	 */
+	public KeysetPage(List<T> content, String nextCursor) {
+		this.content = content != null ? Collections.unmodifiableList(content) : Collections.emptyList();
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * @return results of page in order of sort
+	 */
+	public List<T> getContent() {
+		return content;
+	}
+
+	/**
+	 * @return cursor to be supplied for next page, <code>null</code> if this
+	 *         is the last page.
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	/**
+	 * @return <code>true</code> if there's a next page
+	 */
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+}
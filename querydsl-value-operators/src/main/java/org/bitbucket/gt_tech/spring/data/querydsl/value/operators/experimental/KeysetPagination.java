@@ -0,0 +1,426 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import com.google.common.hash.Hashing;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.ComparablePath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.springframework.beans.NullValueInNestedPathException;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Keyset (seek) pagination of searches: instead of skipping the rows of
+ * previous pages like an offset based {@link PageRequest}, a page continues
+ * after the values of sort properties of the last row of previous page. Each
+ * page thus costs the same as the first one when the sort is backed by an
+ * index, which keeps deep pages, infinite scroll and exports flat.
+ *
+ * <p>
+ * The values of sort properties of last row are encoded into an opaque
+ * cursor (URL-safe) handed out with each {@link KeysetPage}. For a sort on
+ * <code>a, b</code> the next page is searched with the user's predicate and
+ * <code>a &gt; x or (a = x and b &gt; y)</code> - the same comparisons as
+ * value operators <code>gt(..)</code>, <code>eq(..)</code> and
+ * <code>lt(..)</code> (for descending order) - built directly on typed values
+ * so that precision (for e.g. milliseconds of dates) isn't lost to string
+ * conversion. A unique property is appended to the sort if it's missing so
+ * rows with equal sort values are neither skipped nor repeated.
+ * </p>
+ *
+ * <p>
+ * Sort properties must be single-valued, {@link Comparable} (after boxing)
+ * and not <code>null</code> in any row, ignore-case orders aren't supported.
+ * A cursor is only accepted with the sort it was created for. Rows changing
+ * between pages are seen as they are when the page containing them is
+ * fetched, there's no snapshot.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe and meant to be shared per domain type.
+ * </p>
+ *
+ * @param <T>
+ *            domain type
+ * @author gt_tech
+ */
+public class KeysetPagination<T> {
+
+	private static final byte CURSOR_VERSION = 1;
+
+	private static final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+	private final Class<T> domainType;
+
+	private final PathBuilder<T> root;
+
+	private final String uniqueProperty;
+
+	private final Map<String, Property> properties = new ConcurrentHashMap<>();
+
+	/**
+	 * Fetches a page of rows, implemented with a limit (rather than a page)
+	 * where the store allows, see
+	 * {@link KeysetPagination#findAll(Query, Predicate, Sort, int, String)}.
+	 *
+	 * @param <T>
+	 *            domain type
+	 */
+	@FunctionalInterface
+	public interface Query<T> {
+
+		/**
+		 * @param predicate
+		 *            search predicate including the keyset condition, never
+		 *            <code>null</code>.
+		 * @param sort
+		 *            sort including unique property
+		 * @param limit
+		 *            maximum number of rows
+		 * @return first rows matching predicate in order of sort
+		 */
+		List<T> fetch(Predicate predicate, Sort sort, int limit);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param domainType
+	 *            domain type having a Querydsl query type
+	 * @param uniqueProperty
+	 *            unique property of domain type (for e.g. its identifier)
+	 *            used to break ties between rows with equal sort values.
+	 */
+	public KeysetPagination(Class<T> domainType, String uniqueProperty) {
+		Validate.notNull(domainType, "Domain type must not be null");
+		Validate.isTrue(StringUtils.isNotBlank(uniqueProperty), "Unique property must not be blank");
+		final EntityPath<T> path = SimpleEntityPathResolver.INSTANCE.createPath(domainType);
+		this.domainType = domainType;
+		this.root = new PathBuilder<>(domainType, path.getMetadata());
+		this.uniqueProperty = uniqueProperty;
+		getProperty(uniqueProperty);
+	}
+
+	/**
+	 * Fetches a page using
+	 * {@link QuerydslPredicateExecutor#findAll(Predicate, org.springframework.data.domain.Pageable)}
+	 * which always requests the first page (no rows skipped). Spring data
+	 * however executes a count query along with every page but the last,
+	 * {@link #findAll(Query, Predicate, Sort, int, String)} avoids that with
+	 * a query fetching a limited number of rows.
+	 *
+	 * @param executor
+	 *            repository executing the search
+	 * @param predicate
+	 *            search predicate, can be <code>null</code>.
+	 * @param sort
+	 *            sort of results, can be <code>null</code> to sort on unique
+	 *            property only.
+	 * @param size
+	 *            maximum number of results of page
+	 * @param cursor
+	 *            cursor of previous page, <code>null</code> for the first
+	 *            page.
+	 * @return page of results
+	 * @throws IllegalArgumentException
+	 *             if cursor is invalid or was created for another sort
+	 */
+	public KeysetPage<T> findAll(QuerydslPredicateExecutor<T> executor, Predicate predicate, Sort sort, int size,
+			String cursor) {
+		Validate.notNull(executor, "QuerydslPredicateExecutor must not be null");
+		return findAll((p, s, limit) -> executor.findAll(p, PageRequest.of(0, limit, s))
+				.getContent(), predicate, sort, size, cursor);
+	}
+
+	/**
+	 * Fetches a page using supplied query.
+	 *
+	 * @param query
+	 *            query fetching a limited number of rows
+	 * @param predicate
+	 *            search predicate, can be <code>null</code>.
+	 * @param sort
+	 *            sort of results, can be <code>null</code> to sort on unique
+	 *            property only.
+	 * @param size
+	 *            maximum number of results of page
+	 * @param cursor
+	 *            cursor of previous page, <code>null</code> for the first
+	 *            page.
+	 * @return page of results
+	 * @throws IllegalArgumentException
+	 *             if cursor is invalid or was created for another sort
+	 */
+	public KeysetPage<T> findAll(Query<T> query, Predicate predicate, Sort sort, int size, String cursor) {
+		Validate.notNull(query, "Query must not be null");
+		Validate.isTrue(size > 0, "Size must be positive");
+		final Sort keyset = getSort(sort);
+		final List<Sort.Order> orders = new ArrayList<>();
+		keyset.forEach(orders::add);
+
+		final BooleanBuilder where = new BooleanBuilder().and(predicate);
+		if (cursor != null) {
+			where.and(seek(orders, decode(cursor, keyset, orders)));
+		}
+		// one more row than requested tells whether there's a next page
+		final List<T> rows = query.fetch(where, keyset, size + 1);
+		if (rows.size() <= size) {
+			return new KeysetPage<>(rows, null);
+		}
+		final List<T> content = new ArrayList<>(rows.subList(0, size));
+		return new KeysetPage<>(content, encode(keyset, orders, content.get(size - 1)));
+	}
+
+	/**
+	 * Streams all results page by page using supplied query, for stores
+	 * (or repositories) that can't stream from a server-side cursor. A page
+	 * is only fetched once results of previous one are consumed, so no more
+	 * than a page of results is held at a time.
+	 *
+	 * @param query
+	 *            query fetching a limited number of rows
+	 * @param predicate
+	 *            search predicate, can be <code>null</code>.
+	 * @param sort
+	 *            sort of results, can be <code>null</code> to sort on unique
+	 *            property only.
+	 * @param batchSize
+	 *            number of results fetched per page
+	 * @return lazy sequential stream of results in order of sort
+	 */
+	public Stream<T> stream(Query<T> query, Predicate predicate, Sort sort, int batchSize) {
+		Validate.notNull(query, "Query must not be null");
+		Validate.isTrue(batchSize > 0, "Batch size must be positive");
+		final Sort keyset = getSort(sort);
+		final Iterator<T> iterator = new Iterator<T>() {
+			private Iterator<T> rows = Collections.emptyIterator();
+			private String cursor;
+			private boolean last;
+
+			@Override
+			public boolean hasNext() {
+				while (!rows.hasNext() && !last) {
+					final KeysetPage<T> page = findAll(query, predicate, keyset, batchSize, cursor);
+					rows = page.getContent()
+							.iterator();
+					cursor = page.getNextCursor();
+					last = !page.hasNext();
+				}
+				return rows.hasNext();
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return rows.next();
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED
+				| Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * @param sort
+	 *            requested sort, can be <code>null</code>.
+	 * @return sort used to fetch pages, the requested one followed by unique
+	 *         property unless already sorted by it.
+	 * @throws IllegalArgumentException
+	 *             if a sort property isn't supported
+	 */
+	public Sort getSort(Sort sort) {
+		Sort result = sort != null ? sort : Sort.unsorted();
+		for (Sort.Order order : result) {
+			Validate.isTrue(!order.isIgnoreCase(), "Ignore-case sort isn't supported on property: %s", order
+					.getProperty());
+			getProperty(order.getProperty());
+		}
+		if (result.getOrderFor(uniqueProperty) == null) {
+			result = result.and(Sort.by(uniqueProperty));
+		}
+		return result;
+	}
+
+	/*
+	 * (a > x) or (a = x and b > y) or ... for sort a, b, ...
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Predicate seek(List<Sort.Order> orders, Object[] values) {
+		final BooleanBuilder seek = new BooleanBuilder();
+		for (int i = 0; i < orders.size(); i++) {
+			final BooleanBuilder term = new BooleanBuilder();
+			for (int j = 0; j < i; j++) {
+				final ComparablePath equal = getProperty(orders.get(j)
+						.getProperty()).path;
+				term.and(equal.eq(values[j]));
+			}
+			final ComparablePath path = getProperty(orders.get(i)
+					.getProperty()).path;
+			term.and(orders.get(i)
+					.isAscending() ? path.gt((Comparable) values[i]) : path.lt((Comparable) values[i]));
+			seek.or(term);
+		}
+		return seek.getValue();
+	}
+
+	private String encode(Sort sort, List<Sort.Order> orders, T row) {
+		final PropertyAccessor accessor = PropertyAccessorFactory.forDirectFieldAccess(row);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(CURSOR_VERSION);
+			out.writeInt(hash(sort));
+			for (Sort.Order order : orders) {
+				Object value;
+				try {
+					value = accessor.getPropertyValue(order.getProperty());
+				} catch (NullValueInNestedPathException e) {
+					value = null;
+				}
+				Validate.validState(value != null, "Keyset pagination requires non-null values but %s is null",
+						order.getProperty());
+				out.writeUTF(format(value));
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to encode cursor", e);
+		}
+		return Base64.getUrlEncoder()
+				.withoutPadding()
+				.encodeToString(bytes.toByteArray());
+	}
+
+	private Object[] decode(String cursor, Sort sort, List<Sort.Order> orders) {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder()
+				.decode(cursor)))) {
+			Validate.isTrue(in.readByte() == CURSOR_VERSION, "Unsupported version");
+			Validate.isTrue(in.readInt() == hash(sort), "Cursor was created for another sort");
+			final Object[] values = new Object[orders.size()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = parse(in.readUTF(), getProperty(orders.get(i)
+						.getProperty()).type);
+			}
+			Validate.isTrue(in.available() == 0, "Trailing data");
+			return values;
+		} catch (IOException | IllegalArgumentException | ConversionException | DateTimeException e) {
+			// DateTimeException is thrown by parse(..) of temporal types
+			throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+		}
+	}
+
+	private int hash(Sort sort) {
+		return Hashing.murmur3_32()
+				.hashString(domainType.getName() + '|' + sort, StandardCharsets.UTF_8)
+				.asInt();
+	}
+
+	private Property getProperty(String name) {
+		return properties.computeIfAbsent(name, this::resolve);
+	}
+
+	/*
+	 * Resolves the (nested) field of domain type named by sort property
+	 */
+	private Property resolve(String name) {
+		final String[] segments = StringUtils.split(name, '.');
+		Validate.isTrue(segments != null && segments.length > 0, "Sort property must not be blank");
+		Class<?> type = domainType;
+		PathBuilder<?> parent = root;
+		for (int i = 0; i < segments.length; i++) {
+			final Field field = ReflectionUtils.findField(type, segments[i]);
+			Validate.isTrue(field != null, "Property %s not found on %s", name, domainType.getName());
+			type = ClassUtils.resolvePrimitiveIfNecessary(field.getType());
+			if (i < segments.length - 1) {
+				parent = parent.get(segments[i]);
+			}
+		}
+		Validate.isTrue(Comparable.class.isAssignableFrom(type),
+				"Property %s of type %s isn't supported by keyset pagination", name, type.getName());
+		return new Property(parent.getComparable(segments[segments.length - 1], Comparable.class), type);
+	}
+
+	private static String format(Object value) {
+		if (value instanceof Date) {
+			return Long.toString(((Date) value).getTime());
+		} else if (value instanceof Enum) {
+			return ((Enum<?>) value).name();
+		}
+		return value.toString();
+	}
+
+	private static Object parse(String text, Class<?> type) {
+		if (Date.class.isAssignableFrom(type)) {
+			final long millis = Long.parseLong(text);
+			return Timestamp.class.isAssignableFrom(type) ? new Timestamp(millis) : new Date(millis);
+		} else if (TemporalAccessor.class.isAssignableFrom(type)) {
+			final Method parse = ReflectionUtils.findMethod(type, "parse", CharSequence.class);
+			Validate.isTrue(parse != null, "Unsupported type: %s", type.getName());
+			return ReflectionUtils.invokeMethod(parse, null, text);
+		}
+		return conversionService.convert(text, type);
+	}
+
+	/*
+	 * Sort property of domain type
+	 */
+	private static final class Property {
+		private final ComparablePath<?> path;
+		private final Class<?> type;
+
+		private Property(ComparablePath<?> path, Class<?> type) {
+			this.path = path;
+			this.type = type;
+		}
+	}
+}
@@ -0,0 +1,494 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import com.google.common.hash.Hashing;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Disk tier of {@link SearchResultCache} keeping encoded pages of search
+ * results in memory-mapped files of a local directory, so that large pages
+ * don't have to be retained on heap and a restarted application starts with
+ * the results cached before.
+ *
+ * <p>
+ * The directory holds two files, both mapped once when the store is opened:
+ * </p>
+ * <ul>
+ * <li><code>search-results.dat</code> - ring buffer of records (key, write
+ * time, CRC and encoded page) of configured capacity. Once full, oldest
+ * records are overwritten.</li>
+ * <li><code>search-results.idx</code> - open-addressing hash table from
+ * 64-bit hash of key to the position of its latest record, along with the
+ * write position of ring buffer and invalidation watermark. The index thus
+ * lives off-heap and survives restarts as well.</li>
+ * </ul>
+ *
+ * <p>
+ * A record is returned only if its full key matches, its CRC is intact, it
+ * hasn't been overwritten and it's written after both the supplied time (for
+ * e.g. time-to-live) and the last {@link #invalidateAll()} - which is
+ * persisted, so records invalidated before a restart stay invalid. Pages are
+ * decoded by {@link SearchResultCodec} directly from the mapped region,
+ * without copying it to heap first.
+ * </p>
+ *
+ * <p>
+ * Only one store can have a directory open at a time, which is enforced with
+ * a file lock. Files are re-created when they don't match the configured
+ * capacity or number of index slots. Mapped regions are released by garbage
+ * collector after {@link #close()}.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public class MappedSearchResultStore implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(MappedSearchResultStore.class);
+
+	static final String DATA_FILE = "search-results.dat";
+	static final String INDEX_FILE = "search-results.idx";
+
+	private static final int MAGIC = 0x51564F53;
+	private static final int VERSION = 1;
+
+	/*
+	 * Index header: magic, version, slots, capacity, head, watermark
+	 */
+	private static final int HEADER_SLOTS = 8;
+	private static final int HEADER_CAPACITY = 12;
+	private static final int HEADER_HEAD = 16;
+	private static final int HEADER_WATERMARK = 24;
+	private static final int HEADER_SIZE = 64;
+
+	/*
+	 * Index slot: key hash (0 if empty), position and length of record
+	 */
+	private static final int SLOT_SIZE = 24;
+	private static final int SLOT_POSITION = 8;
+	private static final int SLOT_LENGTH = 16;
+	private static final int MAX_PROBES = 16;
+
+	/*
+	 * Record header: length, key hash, write time, CRC of key and value, key
+	 * length
+	 */
+	private static final int RECORD_HASH = 4;
+	private static final int RECORD_TIME = 12;
+	private static final int RECORD_CRC = 20;
+	private static final int RECORD_KEY_LENGTH = 24;
+	private static final int RECORD_HEADER_SIZE = 28;
+
+	private final SearchResultCodec codec;
+	private final int capacity;
+	private final int slots;
+
+	private final FileChannel indexChannel;
+	private final FileChannel dataChannel;
+	private final FileLock lock;
+	private final MappedByteBuffer index;
+	private final MappedByteBuffer data;
+
+	private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+	private volatile boolean closed;
+
+	/**
+	 * Opens the store in supplied directory, creating it if required.
+	 *
+	 * @param directory
+	 *            local directory of store files
+	 * @param capacity
+	 *            capacity of data file in bytes, a page encoded bigger than
+	 *            that isn't stored.
+	 * @param slots
+	 *            number of index slots (rounded up to a power of two), at
+	 *            least the number of pages expected to fit in capacity.
+	 * @param codec
+	 *            codec of pages
+	 * @throws IOException
+	 *             if files can't be opened or the directory is used by
+	 *             another store
+	 */
+	public MappedSearchResultStore(Path directory, int capacity, int slots, SearchResultCodec codec)
+			throws IOException {
+		Validate.notNull(directory, "Directory must not be null");
+		Validate.isTrue(capacity > RECORD_HEADER_SIZE, "Capacity must be greater than " + RECORD_HEADER_SIZE);
+		Validate.isTrue(slots > 0 && slots <= (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE / 2,
+				"Slots out of range: " + slots);
+		Validate.notNull(codec, "SearchResultCodec must not be null");
+		this.codec = codec;
+		this.capacity = capacity;
+		this.slots = powerOfTwo(slots);
+
+		Files.createDirectories(directory);
+		final long indexSize = HEADER_SIZE + (long) this.slots * SLOT_SIZE;
+		this.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		final boolean reuse;
+		try {
+			this.lock = tryLock(indexChannel);
+			if (lock == null) {
+				throw new IOException("Search result store directory is in use: " + directory);
+			}
+			reuse = indexChannel.size() == indexSize && matches(indexChannel);
+			if (!reuse) {
+				indexChannel.truncate(0);
+			}
+			this.index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexSize);
+
+			this.dataChannel = FileChannel.open(directory.resolve(DATA_FILE), StandardOpenOption.CREATE,
+					StandardOpenOption.READ, StandardOpenOption.WRITE);
+			if (!reuse) {
+				dataChannel.truncate(0);
+			}
+			this.data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+		} catch (IOException | RuntimeException e) {
+			indexChannel.close();
+			throw e;
+		}
+
+		if (reuse) {
+			logger.info("Opened search result store in {} with {} bytes written", directory, index.getLong(
+					HEADER_HEAD));
+		} else {
+			index.putInt(HEADER_SLOTS, this.slots);
+			index.putInt(HEADER_CAPACITY, capacity);
+			index.putInt(4, VERSION);
+			// magic last, marks the header complete
+			index.putInt(0, MAGIC);
+			logger.info("Created search result store in {}", directory);
+		}
+	}
+
+	/**
+	 * @param domainType
+	 *            domain type of search results
+	 * @param key
+	 *            key of search
+	 * @param notBeforeMillis
+	 *            records written before this time are ignored
+	 * @param <T>
+	 *            domain type
+	 * @return stored page or <code>null</code> if none is valid
+	 */
+	public <T> Page<T> get(Class<T> domainType, String key, long notBeforeMillis) {
+		Validate.notNull(domainType, "Domain type must not be null");
+		Validate.notNull(key, "Key must not be null");
+		final long hash = hash(key);
+		final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+
+		rwLock.readLock()
+				.lock();
+		try {
+			if (closed) {
+				return null;
+			}
+			final long watermark = index.getLong(HEADER_WATERMARK);
+			final long head = index.getLong(HEADER_HEAD);
+			for (int i = 0; i < MAX_PROBES; i++) {
+				final int slot = slotOffset(hash, i);
+				final long slotHash = index.getLong(slot);
+				if (slotHash == 0) {
+					return null;
+				}
+				if (slotHash != hash) {
+					continue;
+				}
+				final long position = index.getLong(slot + SLOT_POSITION);
+				final int length = index.getInt(slot + SLOT_LENGTH);
+				if (!isLive(position, length, head)) {
+					return null;
+				}
+				final ByteBuffer record = slice(position, length);
+				final long writeTime = record.getLong(RECORD_TIME);
+				if (record.getInt(0) != length || record.getLong(RECORD_HASH) != hash || writeTime <= watermark
+						|| writeTime < notBeforeMillis || !matches(record, keyBytes)) {
+					return null;
+				}
+				return decode(domainType, record, keyBytes.length);
+			}
+			return null;
+		} finally {
+			rwLock.readLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Stores supplied page, replacing any page stored before under the same
+	 * key. Failure to encode the page is logged and ignored.
+	 *
+	 * @param key
+	 *            key of search
+	 * @param page
+	 *            page of search results
+	 * @param writeTimeMillis
+	 *            time when search started, a record is invalid if
+	 *            {@link #invalidateAll()} happens at or after this time.
+	 */
+	public void put(String key, Page<?> page, long writeTimeMillis) {
+		Validate.notNull(key, "Key must not be null");
+		Validate.notNull(page, "Page must not be null");
+		final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		final ByteArrayOutputStream value = new ByteArrayOutputStream(1024);
+		try {
+			codec.encode(page, value);
+		} catch (IOException | RuntimeException e) {
+			logger.debug("Failed to encode search results for key: {}", key, e);
+			return;
+		}
+		final long length = (long) RECORD_HEADER_SIZE + keyBytes.length + value.size();
+		if (length > capacity) {
+			logger.debug("Search results of {} bytes exceed capacity of store, key: {}", length, key);
+			return;
+		}
+
+		final long hash = hash(key);
+		rwLock.writeLock()
+				.lock();
+		try {
+			if (closed || writeTimeMillis <= index.getLong(HEADER_WATERMARK)) {
+				return;
+			}
+			long position = index.getLong(HEADER_HEAD);
+			if (position % capacity + length > capacity) {
+				// records don't wrap around end of ring buffer
+				position += capacity - position % capacity;
+			}
+
+			final ByteBuffer record = slice(position, (int) length);
+			record.putInt(0, (int) length);
+			record.putLong(RECORD_HASH, hash);
+			record.putLong(RECORD_TIME, writeTimeMillis);
+			record.putInt(RECORD_KEY_LENGTH, keyBytes.length);
+			((Buffer) record).position(RECORD_HEADER_SIZE);
+			record.put(keyBytes);
+			value.writeTo(new ByteBufferOutputStream(record));
+			record.putInt(RECORD_CRC, crc(record));
+
+			final long head = position + length;
+			index.putLong(HEADER_HEAD, head);
+			index(hash, position, (int) length, head);
+		} catch (IOException e) {
+			// not thrown by ByteBufferOutputStream
+			throw new IllegalStateException(e);
+		} finally {
+			rwLock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Invalidates all records written at or before current time, persistently.
+	 */
+	public void invalidateAll() {
+		rwLock.writeLock()
+				.lock();
+		try {
+			if (!closed) {
+				index.putLong(HEADER_WATERMARK, Math.max(System.currentTimeMillis(), index.getLong(
+						HEADER_WATERMARK)));
+			}
+		} finally {
+			rwLock.writeLock()
+					.unlock();
+		}
+	}
+
+	/**
+	 * Flushes mapped files to disk and closes them.
+	 */
+	@Override
+	public void close() throws IOException {
+		rwLock.writeLock()
+				.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			data.force();
+			index.force();
+		} finally {
+			rwLock.writeLock()
+					.unlock();
+			try {
+				dataChannel.close();
+			} finally {
+				indexChannel.close();
+			}
+		}
+	}
+
+	/*
+	 * Points index at supplied record, replacing the slot of same key hash,
+	 * else an empty or stale one on its probe sequence or else the first one.
+	 */
+	private void index(long hash, long position, int length, long head) {
+		int target = -1;
+		for (int i = 0; i < MAX_PROBES; i++) {
+			final int slot = slotOffset(hash, i);
+			final long slotHash = index.getLong(slot);
+			if (slotHash == hash) {
+				target = slot;
+				break;
+			}
+			if (target < 0 && (slotHash == 0 || !isLive(index.getLong(slot + SLOT_POSITION), index.getInt(slot
+					+ SLOT_LENGTH), head))) {
+				target = slot;
+			}
+		}
+		if (target < 0) {
+			target = slotOffset(hash, 0);
+		}
+		index.putLong(target + SLOT_POSITION, position);
+		index.putInt(target + SLOT_LENGTH, length);
+		index.putLong(target, hash);
+	}
+
+	/*
+	 * A record is live until the ring buffer wraps over it
+	 */
+	private boolean isLive(long position, int length, long head) {
+		return length >= RECORD_HEADER_SIZE && position >= 0 && position + length <= head
+				&& head <= position + capacity;
+	}
+
+	private boolean matches(ByteBuffer record, byte[] keyBytes) {
+		if (record.getInt(RECORD_KEY_LENGTH) != keyBytes.length) {
+			return false;
+		}
+		for (int i = 0; i < keyBytes.length; i++) {
+			if (record.get(RECORD_HEADER_SIZE + i) != keyBytes[i]) {
+				return false;
+			}
+		}
+		return crc(record) == record.getInt(RECORD_CRC);
+	}
+
+	/*
+	 * CRC of key and value of record
+	 */
+	private static int crc(ByteBuffer record) {
+		final ByteBuffer payload = record.duplicate();
+		// Buffer casts keep byte code compatible with Java 8
+		((Buffer) payload).clear()
+				.position(RECORD_HEADER_SIZE);
+		final CRC32 crc = new CRC32();
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+
+	private <T> Page<T> decode(Class<T> domainType, ByteBuffer record, int keyLength) {
+		final ByteBuffer value = record.duplicate();
+		((Buffer) value).position(RECORD_HEADER_SIZE + keyLength);
+		try {
+			return codec.decode(domainType, value.slice()
+					.asReadOnlyBuffer());
+		} catch (IOException | RuntimeException e) {
+			logger.debug("Failed to decode search results of {}", domainType, e);
+			return null;
+		}
+	}
+
+	private ByteBuffer slice(long position, int length) {
+		final ByteBuffer buffer = data.duplicate();
+		final int offset = (int) (position % capacity);
+		((Buffer) buffer).limit(offset + length)
+				.position(offset);
+		return buffer.slice();
+	}
+
+	private int slotOffset(long hash, int probe) {
+		return HEADER_SIZE + (int) ((hash + probe) & (slots - 1)) * SLOT_SIZE;
+	}
+
+	private boolean matches(FileChannel channel) throws IOException {
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		channel.read(header, 0);
+		return header.getInt(0) == MAGIC && header.getInt(4) == VERSION && header.getInt(HEADER_SLOTS) == slots
+				&& header.getInt(HEADER_CAPACITY) == capacity;
+	}
+
+	/*
+	 * Returns null instead of throwing if lock is held within this JVM
+	 */
+	private static FileLock tryLock(FileChannel channel) throws IOException {
+		try {
+			return channel.tryLock();
+		} catch (OverlappingFileLockException e) {
+			return null;
+		}
+	}
+
+	private static int powerOfTwo(int value) {
+		int result = 1;
+		while (result < value) {
+			result <<= 1;
+		}
+		return result;
+	}
+
+	private static long hash(String key) {
+		final long hash = Hashing.murmur3_128()
+				.hashString(key, StandardCharsets.UTF_8)
+				.asLong();
+		// 0 marks an empty slot
+		return hash != 0 ? hash : 1;
+	}
+
+	/*
+	 * Writes to a buffer without an intermediate copy
+	 */
+	private static final class ByteBufferOutputStream extends OutputStream {
+		private final ByteBuffer buffer;
+
+		private ByteBufferOutputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void write(int b) {
+			buffer.put((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			buffer.put(b, off, len);
+		}
+	}
+}
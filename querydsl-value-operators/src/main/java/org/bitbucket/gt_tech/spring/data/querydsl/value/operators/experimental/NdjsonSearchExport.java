@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes search results as newline delimited JSON (one JSON document per
+ * line) while they're read from a server-side cursor of the store, so that a
+ * bulk export is a single query in a single request rather than a page
+ * request (and count query) per page.
+ *
+ * <p>
+ * Results are pulled from the supplied {@link Stream} one at a time,
+ * serialized straight into the (buffered) output and released, so memory
+ * stays bounded by the fetch size of the cursor regardless of the number of
+ * results. Output is flushed every <code>flushInterval</code> results. Since
+ * writes to a servlet response block while the client isn't reading, a slow
+ * client slows down reading of the cursor instead of results piling up on
+ * the server. The stream (and with it the cursor) is closed once all results
+ * are written or writing fails, for e.g. when the client disconnects.
+ * </p>
+ *
+ * <p>
+ * Typically returned from a Spring MVC handler as a
+ * <code>StreamingResponseBody</code> opening the stream (for e.g. Spring data
+ * MongoDB <code>MongoOperations#stream</code> or a JPA query with a fetch
+ * size) within the body:
+ * </p>
+ *
+ * <pre>
+ * return ResponseEntity.ok()
+ * 		.contentType(MediaType.parseMediaType(NdjsonSearchExport.MEDIA_TYPE))
+ * 		.body(out -&gt; export.write(openStream(predicate), out));
+ * </pre>
+ *
+ * <p>
+ * Instances are thread-safe.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public class NdjsonSearchExport {
+
+	/**
+	 * Media type of newline delimited JSON
+	 */
+	public static final String MEDIA_TYPE = "application/x-ndjson";
+
+	private static final char LINE_SEPARATOR = '\n';
+
+	private final JsonFactory factory;
+
+	private final ObjectWriter writer;
+
+	private final int flushInterval;
+
+	/**
+	 * Constructor
+	 *
+	 * @param objectMapper
+	 *            {@link ObjectMapper} serializing results, indentation is
+	 *            turned off as each result must fit on a line.
+	 * @param flushInterval
+	 *            number of results written between flushes of output
+	 */
+	public NdjsonSearchExport(ObjectMapper objectMapper, int flushInterval) {
+		Validate.notNull(objectMapper, "ObjectMapper must not be null");
+		Validate.isTrue(flushInterval > 0, "Flush interval must be positive");
+		this.factory = objectMapper.getFactory();
+		this.writer = objectMapper.writer()
+				.without(SerializationFeature.INDENT_OUTPUT)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * Writes all results of supplied stream and closes it, output itself is
+	 * flushed but left open.
+	 *
+	 * @param results
+	 *            search results, read sequentially
+	 * @param out
+	 *            output to write to
+	 * @return number of results written
+	 * @throws IOException
+	 *             if writing to output fails
+	 */
+	public long write(Stream<?> results, OutputStream out) throws IOException {
+		Validate.notNull(results, "Stream must not be null");
+		Validate.notNull(out, "OutputStream must not be null");
+		long count = 0;
+		try (Stream<?> rows = results; JsonGenerator generator = factory.createGenerator(out)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			// lines are separated explicitly, not by the default space
+			generator.setRootValueSeparator(null);
+			final Iterator<?> iterator = rows.iterator();
+			while (iterator.hasNext()) {
+				writer.writeValue(generator, iterator.next());
+				generator.writeRaw(LINE_SEPARATOR);
+				if (++count % flushInterval == 0) {
+					generator.flush();
+				}
+			}
+		}
+		return count;
+	}
+}
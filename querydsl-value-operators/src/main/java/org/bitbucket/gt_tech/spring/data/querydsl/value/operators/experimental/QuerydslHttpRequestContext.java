@@ -18,20 +18,18 @@ package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Path;
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProvider;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProviderFactory;
-import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.Operator;
-import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.OperatorAndValue;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ParsedOperatorValue;
 import org.springframework.data.web.querydsl.QuerydslPredicateArgumentResolver;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 import java.lang.reflect.Array;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Context is core to experimental features using
@@ -50,17 +48,35 @@ import java.util.stream.Collectors;
 public final class QuerydslHttpRequestContext {
 
 	private final EntityPath<?> root;
-	private final HttpServletRequest servletRequest;
-	private final Map<String, Collection<String>> original_parameters = new LinkedHashMap<>();
-	private final Map<String, Collection<String>> transformed_parameters;
+	/*
+	 * Snapshot of request parameters, the request (and it's parameter map
+	 * which a container recycles once request completes) isn't retained as a
+	 * context can outlive the request on worker threads, see
+	 * QuerydslHttpRequestContextTaskDecorator.
+	 */
+	private final Map<String, String[]> parameters;
+	/*
+	 * Transformed (operator stripped) values memoized per parameter name, only
+	 * populated for parameters that are actually looked up. Memos are
+	 * concurrent since a context can be shared with worker threads, see
+	 * QuerydslHttpRequestContextTaskDecorator.
+	 */
+	private final Map<String, String[]> transformed_parameters = new ConcurrentHashMap<>();
+	/*
+	 * Parsed values memoized per parameter name and per Path, each request
+	 * parameter value is parsed at most once.
+	 */
+	private final Map<String, ParsedOperatorValue[]> parsed_parameters = new ConcurrentHashMap<>();
+	private final Map<Path, List<ParsedOperatorValue>> parsed_path_values = new ConcurrentHashMap<>();
 
 	/**
 	 * Constructor
 	 * 
 	 * <p>
-	 * This constructor extracts the original request parameters and also
-	 * creates a local transformed parameter list devoid of any value operators
-	 * this component supports.
+	 * Request parameters are copied but not processed here, each parameter is
+	 * stripped off the value operators this component supports lazily when
+	 * it's first requested from the wrapped request and the result is memoized
+	 * for subsequent lookups. Supplied request isn't retained.
 	 * </p>
 	 * 
 	 * @param root
@@ -72,50 +88,77 @@ public final class QuerydslHttpRequestContext {
 		Validate.notNull(root, "EntityPath must not be null");
 		Validate.notNull(servletRequest, "HttpServletRequest must not be null");
 		this.root = root;
-		this.servletRequest = servletRequest;
-
-		this.servletRequest.getParameterMap()
-				.keySet()
-				.stream()
-				.forEach(k -> original_parameters.put(String.valueOf(k),
-						Arrays.asList(this.servletRequest.getParameterValues(String.valueOf(k)))));
-
-		transformed_parameters = this.original_parameters.keySet()
-				.stream()
-				.collect(Collectors.toMap(key -> key, key -> original_parameters.get(key)
-						.stream()
-						.map(s -> extractTrueValue(s))
-						.collect(Collectors.toList()), (e1, e2) -> e1, LinkedHashMap::new));
+		this.parameters = snapshot(servletRequest.getParameterMap());
+	}
+
+	/**
+	 * Constructor for contexts not backed by a {@link HttpServletRequest},
+	 * for e.g. a reactive request - see
+	 * {@link QuerydslHttpRequestContextAwareWebFilter}.
+	 * 
+	 * @param root
+	 *            Root {@link EntityPath} for this context
+	 * @param parameters
+	 *            request parameters (original values as supplied by client),
+	 *            copied by this constructor.
+	 */
+	public QuerydslHttpRequestContext(EntityPath<?> root, Map<String, String[]> parameters) {
+		Validate.notNull(root, "EntityPath must not be null");
+		Validate.notNull(parameters, "Parameters must not be null");
+		this.root = root;
+		this.parameters = snapshot(parameters);
+	}
+
+	private static Map<String, String[]> snapshot(Map<String, String[]> parameters) {
+		if (parameters.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, String[]> result = new LinkedHashMap<>((int) (parameters.size() / 0.75f) + 1);
+		for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+			result.put(entry.getKey(), entry.getValue() != null ? entry.getValue()
+					.clone() : null);
+		}
+		return Collections.unmodifiableMap(result);
 	}
 
 	/**
+	 * @param servletRequest
+	 *            {@link HttpServletRequest} this context was created from.
 	 * @return decorated {@link HttpServletRequest} object containing search
 	 *         request parameters devoid of any value operators.
 	 */
-	HttpServletRequest getWrappedHttpServletRequest() {
-		if (this.transformed_parameters == null || this.transformed_parameters.size() <= 0) {
-			return getOriginalHttpServletRequest();
+	HttpServletRequest getWrappedHttpServletRequest(HttpServletRequest servletRequest) {
+		Validate.notNull(servletRequest, "HttpServletRequest must not be null");
+		if (this.parameters.isEmpty()) {
+			return servletRequest;
 		}
-		return new HttpServletRequestWrapper(this.servletRequest) {
+		return new HttpServletRequestWrapper(servletRequest) {
+
+			/*
+			 * Built once on first access, the same unmodifiable map (and its
+			 * arrays) is handed out on every subsequent call.
+			 */
+			private Map<String, String[]> parameterMap;
+
 			@Override
 			public String getParameter(String name) {
-				Collection<String> values = getParameterValuesAsList(name);
-				if (CollectionUtils.isNotEmpty(values)) {
-					return values.iterator()
-							.next();
+				String[] values = getParameterValues(name);
+				if (values != null && values.length > 0) {
+					return values[0];
 				}
 				return super.getParameter(name);
 			}
 
 			@Override
 			public Map<String, String[]> getParameterMap() {
-				return transformed_parameters.keySet()
-						.stream()
-						.collect(Collectors.toMap(key -> key, key -> transformed_parameters.get(key)
-								.toArray(new String[transformed_parameters.get(key)
-										.size()]),
-								(e1, e2) -> e1, LinkedHashMap::new));
-
+				if (this.parameterMap == null) {
+					Map<String, String[]> result = new LinkedHashMap<>();
+					for (String key : parameters.keySet()) {
+						result.put(key, getParameterValues(key));
+					}
+					this.parameterMap = Collections.unmodifiableMap(result);
+				}
+				return this.parameterMap;
 			}
 
 			@Override
@@ -123,26 +166,81 @@ public final class QuerydslHttpRequestContext {
 				return super.getParameterNames();
 			}
 
+			/*
+			 * null for absent parameter as per ServletRequest, for e.g. an
+			 * optional @RequestParam would otherwise be bound to an empty
+			 * String.
+			 */
 			@Override
 			public String[] getParameterValues(String name) {
-				Collection<String> values = getParameterValuesAsList(name);
-				return values.toArray(new String[values.size()]);
-			}
-
-			private Collection<String> getParameterValuesAsList(String name) {
 				Validate.notNull(name, "Parameter name must not be blank");
-				Collection<String> result = transformed_parameters.get(name);
-				return result != null ? result : new ArrayList<>(0);
+				return getTransformedValues(name);
 			}
 		};
 	}
 
+	/*
+	 * Returns the values for given request parameter devoid of any value
+	 * operators, transformation happens only on first access for a parameter.
+	 */
+	String[] getTransformedValues(String name) {
+		String[] result = this.transformed_parameters.get(name);
+		if (result == null) {
+			// not stored when parameter is absent
+			result = this.transformed_parameters.computeIfAbsent(name, this::transform);
+		}
+		return result;
+	}
+
+	private String[] transform(String name) {
+		ParsedOperatorValue[] values = getParsedParameterValues(name);
+		if (values == null) {
+			return null;
+		}
+		String[] result = new String[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i].getTrueValue();
+		}
+		return result;
+	}
+
+	/*
+	 * Returns the parsed values for given request parameter, each parameter is
+	 * parsed only once and the result is shared by the decorated request and
+	 * ExpressionProvider(s).
+	 */
+	private ParsedOperatorValue[] getParsedParameterValues(String name) {
+		ParsedOperatorValue[] result = this.parsed_parameters.get(name);
+		if (result == null) {
+			result = this.parsed_parameters.computeIfAbsent(name, this::parse);
+		}
+		return result;
+	}
+
+	private ParsedOperatorValue[] parse(String name) {
+		String[] values = this.parameters.get(name);
+		if (values == null) {
+			return null;
+		}
+		ParsedOperatorValue[] result = new ParsedOperatorValue[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = ParsedOperatorValue.parse(values[i]);
+		}
+		return result;
+	}
+
 	/**
-	 * @return original {@link HttpServletRequest} containing inputs from client
-	 *         request.
+	 * @return names of all request parameters
 	 */
-	HttpServletRequest getOriginalHttpServletRequest() {
-		return this.servletRequest;
+	Set<String> getParameterNames() {
+		return this.parameters.keySet();
+	}
+
+	/**
+	 * @return root {@link EntityPath} of this context
+	 */
+	EntityPath<?> getRoot() {
+		return this.root;
 	}
 
 	/**
@@ -153,13 +251,10 @@ public final class QuerydslHttpRequestContext {
 	 *         {@link Path} if available, <code>null</code> otherwise
 	 */
 	public String getSingleValue(Path inPath) {
-		return Optional.ofNullable(Optional.ofNullable(inPath)
-				.map(p -> this.servletRequest.getParameter(findRequestParameterNameFromPath(inPath)))
-				.orElseGet(() -> this.servletRequest.getParameter(inPath.toString())))
-				.orElseGet(() -> ExpressionProviderFactory.findAlias(inPath)
-						.map(s -> this.servletRequest.getParameter(s))
-						.orElseGet(() -> null));
-
+		return Optional.ofNullable(getAllValues(inPath))
+				.filter(values -> values.length > 0)
+				.map(values -> values[0])
+				.orElse(null);
 	}
 
 	/**
@@ -172,14 +267,44 @@ public final class QuerydslHttpRequestContext {
 	 */
 	public String[] getAllValues(Path inPath) {
 		return Optional.ofNullable(Optional.ofNullable(inPath)
-				.map(p -> this.servletRequest.getParameterValues(findRequestParameterNameFromPath(inPath)))
-				.orElseGet(() -> this.servletRequest.getParameterValues(inPath.toString())))
+				.map(p -> this.parameters.get(findRequestParameterNameFromPath(inPath)))
+				.orElseGet(() -> this.parameters.get(inPath.toString())))
 				.orElseGet(() -> ExpressionProviderFactory.findAlias(inPath)
-						.map(s -> this.servletRequest.getParameterValues(s))
+						.map(s -> this.parameters.get(s))
 						.orElseGet(() -> null));
 
 	}
 
+	/**
+	 * @param inPath
+	 *            {@link Path} for which original search request values are
+	 *            required in their parsed form.
+	 * @return Original values from original HttpServletRequest for given
+	 *         {@link Path} already parsed into their operator chain if
+	 *         available, empty List otherwise
+	 */
+	public List<ParsedOperatorValue> getParsedValues(Path inPath) {
+		Validate.notNull(inPath, "Input path must not be null to lookup original request parameter value");
+		List<ParsedOperatorValue> result = this.parsed_path_values.get(inPath);
+		if (result == null) {
+			result = this.parsed_path_values.computeIfAbsent(inPath, this::parse);
+		}
+		return result;
+	}
+
+	private List<ParsedOperatorValue> parse(Path inPath) {
+		ParsedOperatorValue[] values = getParsedParameterValues(findRequestParameterNameFromPath(inPath));
+		if (values == null) {
+			values = getParsedParameterValues(inPath.toString());
+		}
+		if (values == null) {
+			values = ExpressionProviderFactory.findAlias(inPath)
+					.map(s -> getParsedParameterValues(s))
+					.orElse(null);
+		}
+		return values != null ? Collections.unmodifiableList(Arrays.asList(values)) : Collections.emptyList();
+	}
+
 	/*
 	 * Internal utility function to create actual search parameter name in
 	 * request originating from request since provided path starts from root.
@@ -193,23 +318,4 @@ public final class QuerydslHttpRequestContext {
 				.equals(this.root.getType()), "Mismatch in type root in path and current context");
 		return StringUtils.replace(inPath.toString(), this.root + ".", StringUtils.EMPTY, 1);
 	}
-
-	/*
-	 * Utility function that strips the provided input from all operators and
-	 * returns true value of input
-	 */
-	private String extractTrueValue(String input) {
-		if (StringUtils.isNotBlank(input)) {
-			while (true) {
-				if (ExpressionProvider.isOperator(input)
-						.isPresent()) {
-					return extractTrueValue(
-							new OperatorAndValue(input, Arrays.asList(Operator.values()), null).getValue());
-				} else {
-					return input;
-				}
-			}
-		}
-		return StringUtils.EMPTY;
-	}
 }
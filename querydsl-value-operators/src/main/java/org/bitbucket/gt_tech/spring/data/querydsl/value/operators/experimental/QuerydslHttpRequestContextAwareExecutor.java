@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import org.apache.commons.lang3.Validate;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.Executor;
+
+/**
+ * {@link Executor} propagating the {@link QuerydslHttpRequestContext} of
+ * submitting thread to the tasks executed by delegate {@link Executor}, for
+ * e.g. <code>CompletableFuture.supplyAsync(supplier, executor)</code> from a
+ * search handler. See {@link QuerydslHttpRequestContextTaskDecorator}.
+ *
+ * @author gt_tech
+ */
+public class QuerydslHttpRequestContextAwareExecutor implements Executor {
+
+	private final TaskDecorator decorator = new QuerydslHttpRequestContextTaskDecorator();
+
+	private final Executor delegate;
+
+	/**
+	 * Constructor
+	 *
+	 * @param delegate
+	 *            {@link Executor} to execute tasks.
+	 */
+	public QuerydslHttpRequestContextAwareExecutor(Executor delegate) {
+		Validate.notNull(delegate, "Delegate Executor must not be null");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		this.delegate.execute(this.decorator.decorate(command));
+	}
+}
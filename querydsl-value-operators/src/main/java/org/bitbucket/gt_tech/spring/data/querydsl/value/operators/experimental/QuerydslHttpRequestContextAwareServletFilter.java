@@ -21,6 +21,7 @@ import com.google.common.cache.LoadingCache;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.dsl.EnumPath;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProvider;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.FlightRecorderEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.querydsl.EntityPathResolver;
@@ -31,6 +32,7 @@ import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
@@ -59,6 +61,17 @@ import java.util.concurrent.ExecutionException;
  * filter can be disabled by consuming application.
  * </p>
  * 
+ * <p>
+ * The filter supports asynchronous requests. Context is stored as request
+ * attribute {@link #CONTEXT_ATTRIBUTE} and reused (and bound again) when the
+ * filter is invoked on an async dispatch of the same request, so it must be
+ * registered with async support and for <code>ASYNC</code> dispatcher type.
+ * Work offloaded to other threads, for e.g. a <code>Callable</code> or
+ * <code>CompletableFuture</code> returned from controller, can access the
+ * context using {@link QuerydslHttpRequestContextTaskDecorator} or
+ * {@link QuerydslHttpRequestContextAwareExecutor}.
+ * </p>
+ * 
  * @author gt_tech
  *
  */
@@ -68,6 +81,12 @@ public class QuerydslHttpRequestContextAwareServletFilter implements Filter {
 
 	private static final EntityPathResolver entityPathResolver = SimpleEntityPathResolver.INSTANCE;
 
+	/**
+	 * Name of request attribute holding the {@link QuerydslHttpRequestContext}
+	 * of request.
+	 */
+	public static final String CONTEXT_ATTRIBUTE = QuerydslHttpRequestContext.class.getName();
+
 	Map<String, Class<?>> URI_SEARCH_RESOURCE_TYPE_MAPPINGS = new TreeMap(new Comparator<String>() {
 		@Override
 		public int compare(String s1, String s2) {
@@ -92,11 +111,20 @@ public class QuerydslHttpRequestContextAwareServletFilter implements Filter {
 				}
 			});
 
+	/*
+	 * URI mappings compiled to their respective EntityPath
+	 */
+	private final SearchResourceUriMatcher<EntityPath<?>> uriMatcher;
+
 	/**
 	 * Constructor
 	 * 
 	 * @param URI_SEARCH_RESOURCE_TYPE_MAPPINGS
 	 *            - A mapping of URI to corresponding search resource class.
+	 *            URI is matched ignoring case and can also be a template
+	 *            containing variables or wildcards, for e.g.
+	 *            <code>/tenants/{id}/users/search</code> - see
+	 *            {@link SearchResourceUriMatcher}.
 	 */
 	public QuerydslHttpRequestContextAwareServletFilter(Map<String, Class<?>> URI_SEARCH_RESOURCE_TYPE_MAPPINGS) {
 		if (URI_SEARCH_RESOURCE_TYPE_MAPPINGS != null) {
@@ -104,7 +132,10 @@ public class QuerydslHttpRequestContextAwareServletFilter implements Filter {
 		}
 
 		try {
-			loadingCache.getAll(this.URI_SEARCH_RESOURCE_TYPE_MAPPINGS.values());
+			Map<Class<?>, EntityPath<?>> paths = loadingCache.getAll(this.URI_SEARCH_RESOURCE_TYPE_MAPPINGS.values());
+			Map<String, EntityPath<?>> uriPaths = new HashMap<>();
+			this.URI_SEARCH_RESOURCE_TYPE_MAPPINGS.forEach((uri, type) -> uriPaths.put(uri, paths.get(type)));
+			this.uriMatcher = new SearchResourceUriMatcher<>(uriPaths);
 		} catch (ExecutionException ex) {
 			throw new RuntimeException("Failed to instantiate filter, possible mis-configurations?", ex); // TODO:
 																											// to
@@ -124,40 +155,59 @@ public class QuerydslHttpRequestContextAwareServletFilter implements Filter {
 	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
 			throws IOException, ServletException {
 
-		try {
-			HttpServletRequest req = (HttpServletRequest) request;
-			final String request_uri = req.getRequestURI();
-
-			Optional<EntityPath<?>> optionalPath = URI_SEARCH_RESOURCE_TYPE_MAPPINGS.keySet()
-					.stream()
-					.filter(k -> k.equalsIgnoreCase(request_uri))
-					.findFirst()
-					.map(k -> URI_SEARCH_RESOURCE_TYPE_MAPPINGS.get(k))
-					.map(k -> {
-						try {
-							return loadingCache.get(k);
-						} catch (Exception ex) {
-							throw new RuntimeException("Failed to load Path for " + "request uri: " + request_uri);
-						}
-					});
-
-			if (optionalPath.isPresent()) {
-				logger.debug("Processing {} on URI: {} for EntityPath: {}",
-						new Object[] { QuerydslHttpRequestContext.class, request_uri, optionalPath.get()
-								.getClass()
-								.getCanonicalName() });
-				QuerydslHttpRequestContext context = new QuerydslHttpRequestContext(optionalPath.get(), req);
-				QuerydslHttpRequestContextHolder.setContext(context);
-				chain.doFilter(context.getWrappedHttpServletRequest(), response);
-			} else {
-				logger.error(
-						"No EntityPath found on request_uri: {}, bad filter configurations (check filter url pattern and also the injected mappings), filter is turning into a no-op for this request",
-						request_uri);
-				chain.doFilter(req, response);
+		HttpServletRequest req = (HttpServletRequest) request;
+		final String request_uri = req.getRequestURI();
+
+		Optional<EntityPath<?>> optionalPath = Optional.ofNullable(uriMatcher.match(request_uri));
+
+		if (optionalPath.isPresent()) {
+			logger.debug("Processing {} on URI: {} for EntityPath: {}",
+					new Object[] { QuerydslHttpRequestContext.class, request_uri, optionalPath.get()
+							.getClass()
+							.getCanonicalName() });
+			final Object event = FlightRecorderEvents.beginContextFilter();
+			QuerydslHttpRequestContext context = getOrCreateContext(optionalPath.get(), req);
+			/*
+			 * Context is bound for the duration of chain only, see
+			 * QuerydslHttpRequestContextHolderStrategy#callWithContext
+			 */
+			try {
+				QuerydslHttpRequestContextHolder.callWithContext(context, () -> {
+					chain.doFilter(context.getWrappedHttpServletRequest(req), response);
+					return null;
+				});
+			} catch (IOException | ServletException | RuntimeException ex) {
+				throw ex;
+			} catch (Exception ex) {
+				// not expected from FilterChain
+				throw new ServletException(ex);
+			} finally {
+				if (event != null) {
+					FlightRecorderEvents.commitContextFilter(event, request_uri, optionalPath.get()
+							.getType(), req.getParameterMap()
+									.size());
+				}
 			}
-		} finally {
-			QuerydslHttpRequestContextHolder.clearContext();
+		} else {
+			logger.error(
+					"No EntityPath found on request_uri: {}, bad filter configurations (check filter url pattern and also the injected mappings), filter is turning into a no-op for this request",
+					request_uri);
+			chain.doFilter(req, response);
+		}
+	}
+
+	/*
+	 * Context is created once per request and reused on async (or error)
+	 * dispatch of the same request.
+	 */
+	private QuerydslHttpRequestContext getOrCreateContext(EntityPath<?> root, HttpServletRequest req) {
+		Object existing = req.getAttribute(CONTEXT_ATTRIBUTE);
+		if (existing instanceof QuerydslHttpRequestContext) {
+			return (QuerydslHttpRequestContext) existing;
 		}
+		QuerydslHttpRequestContext context = new QuerydslHttpRequestContext(root, req);
+		req.setAttribute(CONTEXT_ATTRIBUTE, context);
+		return context;
 	}
 
 	@Override
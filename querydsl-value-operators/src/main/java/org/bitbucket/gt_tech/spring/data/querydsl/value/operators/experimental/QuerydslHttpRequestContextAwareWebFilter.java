@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import com.querydsl.core.types.EntityPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.querydsl.EntityPathResolver;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive (WebFlux) counterpart of
+ * {@link QuerydslHttpRequestContextAwareServletFilter}. Since a reactive
+ * request isn't served by a single thread, the {@link QuerydslHttpRequestContext}
+ * isn't stored in {@link QuerydslHttpRequestContextHolder} but in the Reactor
+ * {@link Context} of the request under key
+ * <code>QuerydslHttpRequestContext.class</code>, from where it's consumed by
+ * {@link ReactiveQuerydslPredicateArgumentResolver}.
+ *
+ * <p>
+ * Registering this filter is optional,
+ * {@link ReactiveQuerydslPredicateArgumentResolver} creates the context on its
+ * own for requests this filter isn't mapped to.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public class QuerydslHttpRequestContextAwareWebFilter implements WebFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(QuerydslHttpRequestContextAwareWebFilter.class);
+
+	private static final EntityPathResolver entityPathResolver = SimpleEntityPathResolver.INSTANCE;
+
+	private final SearchResourceUriMatcher<EntityPath<?>> uriMatcher;
+
+	/**
+	 * Constructor
+	 *
+	 * @param URI_SEARCH_RESOURCE_TYPE_MAPPINGS
+	 *            - A mapping of URI to corresponding search resource class.
+	 *            URI is matched ignoring case and can also be a template - see
+	 *            {@link SearchResourceUriMatcher}.
+	 */
+	public QuerydslHttpRequestContextAwareWebFilter(Map<String, Class<?>> URI_SEARCH_RESOURCE_TYPE_MAPPINGS) {
+		Map<String, EntityPath<?>> uriPaths = new HashMap<>();
+		if (URI_SEARCH_RESOURCE_TYPE_MAPPINGS != null) {
+			URI_SEARCH_RESOURCE_TYPE_MAPPINGS.forEach(
+					(uri, type) -> uriPaths.put(uri, entityPathResolver.createPath(type)));
+		}
+		this.uriMatcher = new SearchResourceUriMatcher<>(uriPaths);
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		final String request_uri = exchange.getRequest()
+				.getPath()
+				.value();
+		final EntityPath<?> root = uriMatcher.match(request_uri);
+		if (root == null) {
+			logger.debug("No EntityPath found on request_uri: {}, filter is turning into a no-op for this request",
+					request_uri);
+			return chain.filter(exchange);
+		}
+
+		final QuerydslHttpRequestContext context = new QuerydslHttpRequestContext(root,
+				toParameterMap(exchange.getRequest()
+						.getQueryParams()));
+		return chain.filter(exchange)
+				.subscriberContext(ctx -> ctx.put(QuerydslHttpRequestContext.class, context));
+	}
+
+	/*
+	 * Copies reactive request query parameters into the form used by
+	 * QuerydslHttpRequestContext.
+	 */
+	static Map<String, String[]> toParameterMap(MultiValueMap<String, String> queryParams) {
+		Map<String, String[]> result = new LinkedHashMap<>(queryParams.size() * 2);
+		for (Map.Entry<String, List<String>> entry : queryParams.entrySet()) {
+			result.put(entry.getKey(), entry.getValue()
+					.toArray(new String[entry.getValue()
+							.size()]));
+		}
+		return result;
+	}
+}
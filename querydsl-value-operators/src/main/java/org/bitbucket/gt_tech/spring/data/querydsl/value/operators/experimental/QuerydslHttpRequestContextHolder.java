@@ -30,10 +30,11 @@ import java.lang.reflect.Constructor;
  * {@link QuerydslHttpRequestContextHolder#SYSTEM_PROPERTY}.
  * 
  * The property can contain either of
- * {@link QuerydslHttpRequestContextHolder#MODE_THREADLOCAL} or
- * {@link QuerydslHttpRequestContextHolder#MODE_INHERITABLETHREADLOCAL} but if
- * it contains any other value, it is assumed to be a cannonical classname for
- * strategy to be used by this holder.
+ * {@link QuerydslHttpRequestContextHolder#MODE_THREADLOCAL},
+ * {@link QuerydslHttpRequestContextHolder#MODE_INHERITABLETHREADLOCAL} or
+ * {@link QuerydslHttpRequestContextHolder#MODE_SCOPEDVALUE} but if it contains
+ * any other value, it is assumed to be a cannonical classname for strategy to
+ * be used by this holder.
  * 
  * 
  * @author gt_tech
@@ -51,16 +52,24 @@ public final class QuerydslHttpRequestContextHolder {
 	 * QuerydslHttpRequestContextHolderStrategy to be used.
 	 */
 	public static final String MODE_INHERITABLETHREADLOCAL = "MODE_INHERITABLETHREADLOCAL";
+	/**
+	 * <code>ScopedValue</code> based QuerydslHttpRequestContextHolderStrategy
+	 * to be used, falls back to {@link #MODE_THREADLOCAL} unless library is
+	 * built with JDK 25+ classes (released JARs aren't). See
+	 * {@link ScopedValueQuerydslHttpRequestContextHolderStrategy}.
+	 */
+	public static final String MODE_SCOPEDVALUE = "MODE_SCOPEDVALUE";
 	/**
 	 * System property to configure/override the
 	 * QuerydslHttpRequestContextHolderStrategy to be used.
 	 * 
 	 * <p>
 	 * The property can contain either of
-	 * {@link QuerydslHttpRequestContextHolder#MODE_THREADLOCAL} or
-	 * {@link QuerydslHttpRequestContextHolder#MODE_INHERITABLETHREADLOCAL} but
-	 * if it contains any other value, it is assumed to be a cannonical
-	 * classname for strategy to be used by this holder.
+	 * {@link QuerydslHttpRequestContextHolder#MODE_THREADLOCAL},
+	 * {@link QuerydslHttpRequestContextHolder#MODE_INHERITABLETHREADLOCAL} or
+	 * {@link QuerydslHttpRequestContextHolder#MODE_SCOPEDVALUE} but if it
+	 * contains any other value, it is assumed to be a cannonical classname for
+	 * strategy to be used by this holder.
 	 * </p>
 	 */
 	public static final String SYSTEM_PROPERTY = "querydsl.experimental.operator.web.context.strategy";
@@ -100,6 +109,8 @@ public final class QuerydslHttpRequestContextHolder {
 			strategy = new ThreadLocalQuerydslHttpRequestContextHolderStrategy(false);
 		} else if (strategyName.equals(MODE_INHERITABLETHREADLOCAL)) {
 			strategy = new ThreadLocalQuerydslHttpRequestContextHolderStrategy(true);
+		} else if (strategyName.equals(MODE_SCOPEDVALUE)) {
+			strategy = new ScopedValueQuerydslHttpRequestContextHolderStrategy();
 		} else {
 			// Try to load a custom strategy
 			try {
@@ -124,6 +135,29 @@ public final class QuerydslHttpRequestContextHolder {
 		strategy.setContext(context);
 	}
 
+	/**
+	 * Binds the supplied <code>QuerydslHttpRequestContext</code> for the
+	 * duration of given call only, the previously bound context (if any) is
+	 * restored after the call.
+	 *
+	 * @param context
+	 *            the <code>QuerydslHttpRequestContext</code> to be bound (may
+	 *            not be <code>null</code>)
+	 * @param call
+	 *            call to be executed with context bound
+	 * @param <R>
+	 *            type of result of call
+	 * @param <X>
+	 *            type of exception thrown by call
+	 * @return result of call
+	 * @throws X
+	 *             if call fails
+	 */
+	public static <R, X extends Throwable> R callWithContext(QuerydslHttpRequestContext context,
+			QuerydslHttpRequestContextHolderStrategy.ScopedCall<R, X> call) throws X {
+		return strategy.callWithContext(context, call);
+	}
+
 	/**
 	 * Changes the preferred strategy. Do <em>NOT</em> call this method more
 	 * than once for a given JVM, as it will re-initialize the strategy and
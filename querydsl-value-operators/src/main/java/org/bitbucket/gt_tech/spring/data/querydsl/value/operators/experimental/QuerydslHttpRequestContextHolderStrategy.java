@@ -51,4 +51,56 @@ public interface QuerydslHttpRequestContextHolderStrategy {
 	 */
 	void setContext(QuerydslHttpRequestContext context);
 
+	/**
+	 * Binds the supplied context for the duration of given call only. Default
+	 * implementation sets the context before the call and restores the
+	 * previous one (if any) after it, strategies capable of scoped bindings
+	 * can override it to avoid any mutable per-thread state.
+	 *
+	 * @param context
+	 *            context to be bound, must not be <code>null</code>
+	 * @param call
+	 *            call to be executed with the context bound
+	 * @param <R>
+	 *            type of result of call
+	 * @param <X>
+	 *            type of exception thrown by call
+	 * @return result of call
+	 * @throws X
+	 *             if call fails
+	 */
+	default <R, X extends Throwable> R callWithContext(QuerydslHttpRequestContext context, ScopedCall<R, X> call)
+			throws X {
+		final QuerydslHttpRequestContext previous = getContext();
+		setContext(context);
+		try {
+			return call.call();
+		} finally {
+			if (previous == null) {
+				clearContext();
+			} else {
+				setContext(previous);
+			}
+		}
+	}
+
+	/**
+	 * Operation executed while a {@link QuerydslHttpRequestContext} is bound,
+	 * see {@link #callWithContext(QuerydslHttpRequestContext, ScopedCall)}.
+	 *
+	 * @param <R>
+	 *            type of result
+	 * @param <X>
+	 *            type of exception thrown
+	 */
+	@FunctionalInterface
+	interface ScopedCall<R, X extends Throwable> {
+
+		/**
+		 * @return result of operation
+		 * @throws X
+		 *             if operation fails
+		 */
+		R call() throws X;
+	}
 }
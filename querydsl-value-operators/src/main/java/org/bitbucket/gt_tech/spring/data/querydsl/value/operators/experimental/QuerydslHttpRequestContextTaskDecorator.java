@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * {@link TaskDecorator} propagating the {@link QuerydslHttpRequestContext} to
+ * tasks executed on other threads. The context bound to the thread submitting
+ * the task is captured when the task is decorated and bound (using
+ * {@link QuerydslHttpRequestContextHolder#callWithContext(QuerydslHttpRequestContext, QuerydslHttpRequestContextHolderStrategy.ScopedCall)})
+ * only while the task runs, so pooled threads never retain it.
+ *
+ * <p>
+ * Can be configured on a <code>ThreadPoolTaskExecutor</code> used for
+ * asynchronous request processing, for e.g. the one configured with
+ * <code>WebMvcConfigurer#configureAsyncSupport</code>.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public class QuerydslHttpRequestContextTaskDecorator implements TaskDecorator {
+
+	@Override
+	public Runnable decorate(Runnable runnable) {
+		final QuerydslHttpRequestContext context = QuerydslHttpRequestContextHolder.getContext();
+		if (context == null) {
+			return runnable;
+		}
+		return () -> QuerydslHttpRequestContextHolder.callWithContext(context, () -> {
+			runnable.run();
+			return null;
+		});
+	}
+}
@@ -22,20 +22,19 @@ import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.Operator;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.core.convert.ConversionService;
-import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.data.querydsl.binding.QuerydslBindingsFactory;
 import org.springframework.data.web.querydsl.QuerydslPredicateArgumentResolver;
 
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.util.Date;
-import java.util.Optional;
 
 /**
  * Advanced experimental feature of this component - an implementation of
  * {@link BeanPostProcessor} that overrides the default
- * {@link QuerydslPredicateArgumentResolver} by providing it a no-op
- * {@link ConversionService} and in-turn disabling it's strong type-conversion.
+ * {@link QuerydslPredicateArgumentResolver} with
+ * {@link ValueOperatorPredicateArgumentResolver} which uses a no-op
+ * {@link ConversionService} and in-turn disables strong type-conversion.
  * This allows for String values decorated with value-operators by client to
  * reach expression-provided even for non StringPath.
  *
@@ -51,6 +50,14 @@ import java.util.Optional;
  * (for. e.g. EnumPath) when values are decorated with value-operators -
  * {@link Operator}
  * </p>
+ *
+ * <p>
+ * With Spring Boot 1.5.x, the predicate is built by Spring data's own
+ * resolver which can't scope a configuration, hence support of untyped values
+ * is turned on in the configuration published by
+ * {@link ExpressionProviderFactory#configure} and applies to every predicate
+ * built by the application.
+ * </p>
  * 
  * @author gt_tech
  *
@@ -66,58 +73,7 @@ public class QuerydslPredicateArgumentResolverBeanPostProcessor implements BeanP
 	/*
 	 * No-op conversion service
 	 */
-	private final ConversionService delegationAwareConversionService = new ConversionService() {
-
-		@Override
-		public boolean canConvert(Class<?> sourceType, Class<?> targetType) {
-			if ( isDelegatedConversion(sourceType) || isDelegatedConversion(targetType))
-				return conversionServiceDelegate.canConvert(sourceType, targetType);
-
-			return false;
-		}
-
-		@Override
-		public boolean canConvert(TypeDescriptor sourceType, TypeDescriptor targetType) {
-			if ( isDelegatedConversion(sourceType.getType()) || isDelegatedConversion(targetType.getType()))
-				return conversionServiceDelegate.canConvert(sourceType, targetType);
-
-			return false;
-		}
-
-		@Override
-		public <T> T convert(Object source, Class<T> targetType) {
-
-			if ( isDelegatedConversion(source.getClass()) || isDelegatedConversion(targetType))
-				return conversionServiceDelegate.convert(source, targetType);
-
-			throw new UnsupportedOperationException("Overridden ConversionService in "
-					+ "QuerydslPredicateArgumentResolver does not " + "support conversion");
-		}
-
-		@Override
-		public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
-
-			if ( isDelegatedConversion(sourceType.getType()) || isDelegatedConversion(targetType.getType()))
-				return conversionServiceDelegate.convert(source, sourceType, targetType);
-
-			throw new UnsupportedOperationException("Overridden ConversionService in "
-					+ "QuerydslPredicateArgumentResolver does not " + "support conversion");
-		}
-
-		private boolean isDelegatedConversion(Class<?> type) {
-			boolean result = false;
-
-			if ( conversionServiceDelegate != null && type != null && delegatedConversions != null ) {
-				for (Class c : delegatedConversions) {
-					if (c.equals(type)) {
-						result = true;
-						break;
-					}
-				}
-			}
-			return result;
-		}
-	};
+	private final ConversionService delegationAwareConversionService;
 
 	/**
 	 * Constructor: Replaces {@link QuerydslPredicateArgumentResolver} with a no-op conversion service
@@ -144,26 +100,31 @@ public class QuerydslPredicateArgumentResolverBeanPostProcessor implements BeanP
 		this.querydslBindingsFactory = querydslBindingsFactory;
 		this.conversionServiceDelegate = conversionServiceDelegate;
 		this.delegatedConversions = delegatedConversions;
+		this.delegationAwareConversionService = new UnTypedConversionService(conversionServiceDelegate,
+				delegatedConversions);
 	}
 
 	@Override
 	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
 		Object target = bean;
-		if (target != null && QuerydslPredicateArgumentResolver.class.isAssignableFrom(target.getClass())) {
-			ExpressionProviderFactory.setSupportsUnTypedValues(true);
+		if (target != null && QuerydslPredicateArgumentResolver.class.isAssignableFrom(target.getClass())
+				&& !(target instanceof ValueOperatorPredicateArgumentResolver)) {
 			try {
+				// Spring Boot 2.x, untyped values are supported only while resolver builds a predicate
+				return new ValueOperatorPredicateArgumentResolver(querydslBindingsFactory, conversionServiceDelegate,
+						delegatedConversions);
+			} catch (NoSuchMethodError e) {
+				// Spring boot 1.5.x, predicate is built by Spring's own resolver which can't be scoped hence
+				// untyped values are supported by the published configuration
+				ExpressionProviderFactory.configure(ExpressionProviderFactory.getConfiguration()
+						.withSupportsUnTypedValues(true));
 				try {
-					// Spring Boot 2.x
-					return ConstructorUtils.invokeConstructor(QuerydslPredicateArgumentResolver.class,
-							new Object[] { querydslBindingsFactory, Optional.of(delegationAwareConversionService) });
-				} catch (NoSuchMethodException | NoSuchMethodError e) {
-					// Spring boot 1.5.x
 					return ConstructorUtils.invokeConstructor(QuerydslPredicateArgumentResolver.class,
 							new Object[] { querydslBindingsFactory, delegationAwareConversionService });
+				} catch (Throwable t) {
+					// phew
+					throw new RuntimeException("Failed to post-process QuerydslPredicateArgumentResolver", t);
 				}
-			} catch (Throwable t) {
-				// phew
-				throw new RuntimeException("Failed to post-process QuerydslPredicateArgumentResolver", t);
 			}
 		}
 		return target;
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import com.querydsl.core.types.Predicate;
+import org.apache.commons.lang3.Validate;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.querydsl.binding.QuerydslBinderCustomizer;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
+import org.springframework.data.querydsl.binding.QuerydslBindingsFactory;
+import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Support for argument resolvers of this package resolving {@link Predicate}
+ * handler method parameters (optionally annotated with
+ * {@link QuerydslPredicate}) in the same way as Spring data's own resolver.
+ *
+ * @author gt_tech
+ */
+final class QuerydslPredicateParameterSupport {
+
+	/*
+	 * Resolved by name so that reactive streams aren't required on classpath of
+	 * servlet applications.
+	 */
+	private static final Class<?> REACTIVE_PUBLISHER = ClassUtils.isPresent("org.reactivestreams.Publisher",
+			QuerydslPredicateParameterSupport.class.getClassLoader())
+					? ClassUtils.resolveClassName("org.reactivestreams.Publisher",
+							QuerydslPredicateParameterSupport.class.getClassLoader())
+					: null;
+
+	private QuerydslPredicateParameterSupport() {
+	}
+
+	/**
+	 * @param parameter
+	 *            handler method parameter
+	 * @return <code>true</code> if parameter is of {@link Predicate} type.
+	 */
+	static boolean isPredicate(MethodParameter parameter) {
+		return Predicate.class.equals(parameter.getParameterType());
+	}
+
+	/**
+	 * Domain type is taken from {@link QuerydslPredicate#root()} if available
+	 * or else from return type of handler method, unwrapping reactive types.
+	 *
+	 * @param parameter
+	 *            handler method parameter
+	 * @return domain type
+	 */
+	static TypeInformation<?> getDomainType(MethodParameter parameter) {
+		QuerydslPredicate annotation = parameter.getParameterAnnotation(QuerydslPredicate.class);
+		if (annotation != null && !Object.class.equals(annotation.root())) {
+			return ClassTypeInformation.from(annotation.root());
+		}
+
+		TypeInformation<?> type = ClassTypeInformation.fromReturnTypeOf(parameter.getMethod());
+		if (isPublisher(type.getType()) && !type.getTypeArguments()
+				.isEmpty()) {
+			type = type.getTypeArguments()
+					.get(0);
+		}
+		Validate.validState(type != null, "Unable to detect domain type, use QuerydslPredicate#root to specify it");
+		return type.getRequiredActualType();
+	}
+
+	/**
+	 * @param bindingsFactory
+	 *            factory for bindings
+	 * @param parameter
+	 *            handler method parameter
+	 * @param domainType
+	 *            domain type
+	 * @return bindings as per {@link QuerydslPredicate#bindings()} if
+	 *         available, or else default bindings of domain type.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static QuerydslBindings getBindings(QuerydslBindingsFactory bindingsFactory, MethodParameter parameter,
+			TypeInformation<?> domainType) {
+		QuerydslPredicate annotation = parameter.getParameterAnnotation(QuerydslPredicate.class);
+		if (annotation == null) {
+			return bindingsFactory.createBindingsFor(domainType);
+		}
+		return bindingsFactory.createBindingsFor(domainType,
+				(Class<? extends QuerydslBinderCustomizer<?>>) (Class) annotation.bindings());
+	}
+
+	private static boolean isPublisher(Class<?> type) {
+		return REACTIVE_PUBLISHER != null && REACTIVE_PUBLISHER.isAssignableFrom(type);
+	}
+}
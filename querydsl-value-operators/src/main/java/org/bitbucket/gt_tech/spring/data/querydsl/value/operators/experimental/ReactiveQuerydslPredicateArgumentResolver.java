@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import org.apache.commons.lang3.Validate;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
+import org.springframework.data.querydsl.binding.QuerydslBindingsFactory;
+import org.springframework.data.querydsl.binding.QuerydslPredicateBuilder;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.Arrays;
+
+/**
+ * Reactive (WebFlux) {@link HandlerMethodArgumentResolver} resolving
+ * {@link Predicate} arguments of handler methods from request parameters
+ * decorated with value operators.
+ *
+ * <p>
+ * The {@link QuerydslHttpRequestContext} is taken from Reactor {@link Context}
+ * when populated by {@link QuerydslHttpRequestContextAwareWebFilter} or else
+ * created from the request. Operator-free values go through the usual
+ * type-conversion of Spring data and the context is bound to
+ * {@link QuerydslHttpRequestContextHolder} only while the {@link Predicate} is
+ * built, which happens synchronously on the subscribing thread. So no
+ * {@link ThreadLocal} state outlives the resolution and the request can
+ * continue on any thread, for e.g. with a reactive Querydsl repository.
+ * When no request parameter is bound, the predicate is an empty
+ * {@link BooleanBuilder}.
+ * </p>
+ *
+ * <p>
+ * Register it with <code>WebFluxConfigurer#configureArgumentResolvers</code>
+ * using <code>ArgumentResolverConfigurer#addCustomResolver</code>.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public class ReactiveQuerydslPredicateArgumentResolver implements HandlerMethodArgumentResolver {
+
+	private final QuerydslBindingsFactory bindingsFactory;
+
+	private final QuerydslPredicateBuilder predicateBuilder;
+
+	/**
+	 * Constructor
+	 *
+	 * @param bindingsFactory
+	 *            {@link QuerydslBindingsFactory} to lookup bindings for domain
+	 *            type.
+	 * @param conversionService
+	 *            {@link ConversionService} used for type-conversion of values
+	 *            devoid of value operators.
+	 */
+	public ReactiveQuerydslPredicateArgumentResolver(QuerydslBindingsFactory bindingsFactory,
+			ConversionService conversionService) {
+		Validate.notNull(bindingsFactory, "QuerydslBindingsFactory must not be null");
+		Validate.notNull(conversionService, "ConversionService must not be null");
+		this.bindingsFactory = bindingsFactory;
+		this.predicateBuilder = new QuerydslPredicateBuilder(conversionService,
+				bindingsFactory.getEntityPathResolver());
+	}
+
+	@Override
+	public boolean supportsParameter(MethodParameter parameter) {
+		return QuerydslPredicateParameterSupport.isPredicate(parameter);
+	}
+
+	@Override
+	public Mono<Object> resolveArgument(MethodParameter parameter, BindingContext bindingContext,
+			ServerWebExchange exchange) {
+		final TypeInformation<?> domainType = QuerydslPredicateParameterSupport.getDomainType(parameter);
+		return Mono.subscriberContext()
+				.map(ctx -> ctx.<QuerydslHttpRequestContext> getOrEmpty(QuerydslHttpRequestContext.class)
+						.filter(c -> domainType.getType()
+								.equals(c.getRoot()
+										.getType()))
+						.orElseGet(() -> new QuerydslHttpRequestContext(
+								bindingsFactory.getEntityPathResolver()
+										.createPath(domainType.getType()),
+								QuerydslHttpRequestContextAwareWebFilter.toParameterMap(exchange.getRequest()
+										.getQueryParams()))))
+				.map(context -> getPredicate(parameter, domainType, context));
+	}
+
+	/*
+	 * Builds the predicate with supplied context made available to
+	 * ExpressionProvider(s) thru QuerydslHttpRequestContextHolder for the
+	 * duration of (synchronous) build.
+	 */
+	private Predicate getPredicate(MethodParameter parameter, TypeInformation<?> domainType,
+			QuerydslHttpRequestContext context) {
+		final MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+		for (String name : context.getParameterNames()) {
+			parameters.put(name, Arrays.asList(context.getTransformedValues(name)));
+		}
+
+		final QuerydslBindings bindings = QuerydslPredicateParameterSupport.getBindings(bindingsFactory, parameter,
+				domainType);
+		final Predicate predicate = QuerydslHttpRequestContextHolder.callWithContext(context,
+				() -> predicateBuilder.getPredicate(domainType, parameters, bindings));
+		// none of the parameters is bound (for e.g. only page and size), Mono can't map to null
+		return predicate != null ? predicate : new BooleanBuilder();
+	}
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+/**
+ * <code>ScopedValue</code> based implementation of
+ * {@link QuerydslHttpRequestContextHolderStrategy} which binds the context for
+ * the duration of
+ * {@link #callWithContext(QuerydslHttpRequestContext, ScopedCall)} only (for
+ * e.g. <code>chain.doFilter</code> of
+ * {@link QuerydslHttpRequestContextAwareServletFilter}). A scoped binding
+ * leaves no per-thread entry behind, costs nothing to inherit and can't leak,
+ * which makes it well suited for virtual threads.
+ *
+ * <p>
+ * This (baseline) implementation falls back to a {@link ThreadLocal} as per
+ * {@link QuerydslHttpRequestContextHolder#MODE_THREADLOCAL}. Released JARs
+ * only contain this implementation, so the fallback is used on every JDK. A
+ * <code>ScopedValue</code> is bound only by a JAR built from source with
+ * <code>-DmultiRelease</code> on JDK 25+, which packages the implementation
+ * under <code>META-INF/versions/25</code>, see {@link #isScoped()}.
+ * {@link #setContext(QuerydslHttpRequestContext)} always uses the fallback as
+ * a scoped value can't be bound outside of a call.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public class ScopedValueQuerydslHttpRequestContextHolderStrategy implements QuerydslHttpRequestContextHolderStrategy {
+
+	private final QuerydslHttpRequestContextHolderStrategy fallback = new ThreadLocalQuerydslHttpRequestContextHolderStrategy(
+			false);
+
+	/**
+	 * @return <code>true</code> if context is bound using a
+	 *         <code>ScopedValue</code>, <code>false</code> if this strategy
+	 *         falls back to a {@link ThreadLocal} on current JDK.
+	 */
+	public boolean isScoped() {
+		return false;
+	}
+
+	@Override
+	public void clearContext() {
+		this.fallback.clearContext();
+	}
+
+	@Override
+	public QuerydslHttpRequestContext getContext() {
+		return this.fallback.getContext();
+	}
+
+	@Override
+	public void setContext(QuerydslHttpRequestContext context) {
+		this.fallback.setContext(context);
+	}
+
+	@Override
+	public <R, X extends Throwable> R callWithContext(QuerydslHttpRequestContext context, ScopedCall<R, X> call)
+			throws X {
+		return this.fallback.callWithContext(context, call);
+	}
+}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Case-insensitive matcher of request URI to a search resource, compiled once
+ * from the URI mappings supplied to
+ * {@link QuerydslHttpRequestContextAwareServletFilter}.
+ *
+ * <p>
+ * Exact URIs (for e.g. <code>/users/search</code>) are matched using a hash
+ * lookup. URI templates are compiled into a tree of path segments where a
+ * segment can be a template variable (for e.g.
+ * <code>/tenants/{id}/users/search</code>) or <code>*</code> to match exactly
+ * one segment, and a trailing <code>**</code> to match any remaining segments.
+ * Matching is thus proportional to the length of request URI regardless of the
+ * number of mappings. Literal segments take precedence over wildcard ones.
+ * </p>
+ *
+ * @param <T>
+ *            type of search resource mapped to an URI
+ * @author gt_tech
+ */
+final class SearchResourceUriMatcher<T> {
+
+	private static final char SEPARATOR = '/';
+	private static final String SINGLE_SEGMENT_WILDCARD = "*";
+	private static final String MULTI_SEGMENT_WILDCARD = "**";
+
+	private final Map<String, T> exactMappings = new HashMap<>();
+	private final Node<T> patterns = new Node<>();
+
+	/**
+	 * Constructor
+	 *
+	 * @param mappings
+	 *            A mapping of URI (or URI template) to corresponding search
+	 *            resource.
+	 */
+	SearchResourceUriMatcher(Map<String, T> mappings) {
+		if (mappings != null) {
+			mappings.forEach(this::register);
+		}
+	}
+
+	/**
+	 * @param uri
+	 *            request URI
+	 * @return search resource mapped to the supplied URI, <code>null</code>
+	 *         if none is mapped.
+	 */
+	T match(String uri) {
+		if (uri == null) {
+			return null;
+		}
+		final String key = uri.toLowerCase(Locale.ROOT);
+		T result = this.exactMappings.get(key);
+		if (result == null) {
+			result = match(this.patterns, key, 0);
+		}
+		return result;
+	}
+
+	private void register(String uri, T resource) {
+		Validate.isTrue(StringUtils.isNotBlank(uri), "URI must not be blank");
+		Validate.notNull(resource, "Search resource must not be null for URI: " + uri);
+		final String key = uri.trim()
+				.toLowerCase(Locale.ROOT);
+		if (!isPattern(key)) {
+			this.exactMappings.put(key, resource);
+			return;
+		}
+
+		final String[] segments = StringUtils.splitPreserveAllTokens(key, SEPARATOR);
+		Node<T> node = this.patterns;
+		for (int i = 0; i < segments.length; i++) {
+			final String segment = segments[i];
+			if (MULTI_SEGMENT_WILDCARD.equals(segment)) {
+				Validate.isTrue(i == segments.length - 1, "'**' is only supported as last segment of URI: " + uri);
+				node.remainder = resource;
+				return;
+			} else if (isWildcard(segment)) {
+				if (node.wildcard == null) {
+					node.wildcard = new Node<>();
+				}
+				node = node.wildcard;
+			} else {
+				node = node.literals.computeIfAbsent(segment, s -> new Node<>());
+			}
+		}
+		node.value = resource;
+	}
+
+	/*
+	 * Matches the segment of uri starting at given index against children of
+	 * supplied node, backtracks to wildcard when a literal path doesn't match.
+	 */
+	private T match(Node<T> node, String uri, int from) {
+		if (from > uri.length()) {
+			// all segments consumed
+			return node.value != null ? node.value : node.remainder;
+		}
+		int end = uri.indexOf(SEPARATOR, from);
+		if (end < 0) {
+			end = uri.length();
+		}
+
+		T result = null;
+		final Node<T> literal = node.literals.get(uri.substring(from, end));
+		if (literal != null) {
+			result = match(literal, uri, end + 1);
+		}
+		if (result == null && node.wildcard != null && end > from) {
+			result = match(node.wildcard, uri, end + 1);
+		}
+		if (result == null) {
+			result = node.remainder;
+		}
+		return result;
+	}
+
+	private static boolean isPattern(String uri) {
+		return uri.indexOf('*') >= 0 || uri.indexOf('{') >= 0;
+	}
+
+	private static boolean isWildcard(String segment) {
+		return SINGLE_SEGMENT_WILDCARD.equals(segment) || (segment.length() > 2 && segment.charAt(0) == '{'
+				&& segment.charAt(segment.length() - 1) == '}');
+	}
+
+	/*
+	 * Node in tree of compiled URI template segments
+	 */
+	private static final class Node<T> {
+		private final Map<String, Node<T>> literals = new HashMap<>();
+		private Node<T> wildcard;
+		private T value;
+		private T remainder;
+	}
+}
@@ -0,0 +1,392 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import com.querydsl.core.types.Predicate;
+import org.apache.commons.lang3.Validate;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.CanonicalForm;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProviderFactory;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ValueOperatorsMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache of search results of
+ * {@link QuerydslPredicateExecutor#findAll(Predicate, Pageable)}, for
+ * searches re-run often against data that changes rarely.
+ *
+ * <p>
+ * Results are keyed by domain type, {@link CanonicalForm#of(Predicate)
+ * canonical form} of predicate and {@link Pageable} (page, size and sort), so
+ * the same search with request parameters in different order is served from
+ * the same entry. The cache holds at most the configured number of results,
+ * evicting least recently used ones, and each result expires after the
+ * configured time-to-live.
+ * </p>
+ *
+ * <p>
+ * {@link #invalidate(Class)} must be invoked whenever an entity of a cached
+ * domain type is saved or deleted, for e.g. from Spring data MongoDB
+ * <code>AfterSaveEvent</code> / <code>AfterDeleteEvent</code> or a JPA entity
+ * listener. Every domain type has a generation which is part of the key and
+ * is incremented on invalidation, so a search racing with a write can't
+ * store its result under a key that's still looked up afterwards. Writes not
+ * emitting any event (for e.g. bulk operations) are only seen after
+ * time-to-live or an explicit invalidation.
+ * </p>
+ *
+ * <p>
+ * Cached results are shared between callers and must not be modified.
+ * Since search methods of Spring data repository interfaces can't be
+ * injected with beans, a cache is typically registered once at startup using
+ * {@link #setDefault(SearchResultCache)} and used through
+ * {@link #getDefault()}, which is {@link #DISABLED} until then.
+ * </p>
+ *
+ * <p>
+ * {@link #getETag(Class, Predicate, Pageable)} supports conditional
+ * requests of polling clients: the entity tag changes when the search or its
+ * domain type's generation does, so a search answered with
+ * <code>304 Not Modified</code> doesn't have to be executed at all, whether
+ * or not its result is cached. Since the generation only tracks invalidations
+ * of this instance, the tag also changes with every time-to-live window so
+ * that writes it doesn't see (other nodes, bulk operations, native queries)
+ * reach polling clients no later than they reach cached results. Entity tags
+ * are weak and specific to this cache instance, so they don't survive
+ * restarts.
+ * </p>
+ *
+ * <p>
+ * Optionally a {@link MappedSearchResultStore} acts as second tier: results
+ * are written through to it and a result evicted from heap is read back
+ * from it (and promoted to heap again) until its time-to-live. Since the
+ * store outlives the application it isn't invalidated per domain type but
+ * as a whole, on {@link #invalidate(Class)} of any type.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public class SearchResultCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(SearchResultCache.class);
+
+	/**
+	 * Cache which caches nothing, every search goes to the repository.
+	 */
+	public static final SearchResultCache DISABLED = new SearchResultCache(0, Duration.ZERO);
+
+	private static volatile SearchResultCache defaultCache = DISABLED;
+
+	private final boolean enabled;
+
+	private final Cache<Key, Page<?>> results;
+
+	private final long timeToLiveMillis;
+
+	private final MappedSearchResultStore diskTier;
+
+	private final Map<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+
+	/*
+	 * Distinguishes generations of this instance from ones of other
+	 * instances (or runs of application) in entity tags
+	 */
+	private final long epoch = ThreadLocalRandom.current()
+			.nextLong();
+
+	/**
+	 * Constructor
+	 *
+	 * @param maximumSize
+	 *            maximum number of cached results, <code>0</code> disables
+	 *            caching.
+	 * @param timeToLive
+	 *            time after which a cached result expires,
+	 *            {@link Duration#ZERO} disables caching.
+	 */
+	public SearchResultCache(long maximumSize, Duration timeToLive) {
+		this(maximumSize, timeToLive, null);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param maximumSize
+	 *            maximum number of results cached on heap.
+	 * @param timeToLive
+	 *            time after which a cached result expires in both tiers,
+	 *            {@link Duration#ZERO} disables caching.
+	 * @param diskTier
+	 *            second tier of cache, can be <code>null</code>.
+	 */
+	public SearchResultCache(long maximumSize, Duration timeToLive, MappedSearchResultStore diskTier) {
+		Validate.isTrue(maximumSize >= 0, "Maximum size must not be negative");
+		Validate.notNull(timeToLive, "Time to live must not be null");
+		Validate.isTrue(!timeToLive.isNegative(), "Time to live must not be negative");
+		this.enabled = (maximumSize > 0 || diskTier != null) && !timeToLive.isZero();
+		this.timeToLiveMillis = timeToLive.toMillis();
+		this.diskTier = diskTier;
+		this.results = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(timeToLive.toNanos(), TimeUnit.NANOSECONDS)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * @return cache registered with {@link #setDefault(SearchResultCache)},
+	 *         {@link #DISABLED} if none.
+	 */
+	public static SearchResultCache getDefault() {
+		return defaultCache;
+	}
+
+	/**
+	 * Registers the cache returned by {@link #getDefault()}. This is expected
+	 * to be invoked once at application startup.
+	 *
+	 * @param cache
+	 *            cache to register, <code>null</code> registers
+	 *            {@link #DISABLED}.
+	 */
+	public static void setDefault(SearchResultCache cache) {
+		defaultCache = cache != null ? cache : DISABLED;
+	}
+
+	/**
+	 * Returns the cached result of search or else executes it and caches the
+	 * result.
+	 *
+	 * @param executor
+	 *            repository executing the search on a miss
+	 * @param domainType
+	 *            domain type searched by repository, entries are invalidated
+	 *            by it.
+	 * @param predicate
+	 *            search predicate, can be <code>null</code>.
+	 * @param pageable
+	 *            page requested, must not be <code>null</code> (can be
+	 *            {@link Pageable#unpaged()}).
+	 * @param <T>
+	 *            domain type
+	 * @return page of search results
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Page<T> findAll(QuerydslPredicateExecutor<T> executor, Class<T> domainType, Predicate predicate,
+			Pageable pageable) {
+		Validate.notNull(executor, "QuerydslPredicateExecutor must not be null");
+		Validate.notNull(domainType, "Domain type must not be null");
+		Validate.notNull(pageable, "Pageable must not be null");
+		if (!enabled) {
+			return executor.findAll(predicate, pageable);
+		}
+
+		final AtomicLong generation = generations.computeIfAbsent(domainType, t -> new AtomicLong());
+		final long current = generation.get();
+		final Key key = new Key(domainType, current, CanonicalForm.of(predicate)
+				.getText(), normalize(pageable));
+
+		Page<T> result = (Page<T>) results.getIfPresent(key);
+		ExpressionProviderFactory.getMetrics()
+				.recordCacheAccess(ValueOperatorsMetrics.SEARCH_RESULT_CACHE, result != null);
+		if (result != null) {
+			return result;
+		}
+
+		final long startedAt = System.currentTimeMillis();
+		if (diskTier != null) {
+			result = diskTier.get(domainType, key.toString(), startedAt - timeToLiveMillis);
+			ExpressionProviderFactory.getMetrics()
+					.recordCacheAccess(ValueOperatorsMetrics.SEARCH_RESULT_DISK_CACHE, result != null);
+			if (result != null) {
+				if (generation.get() == current) {
+					results.put(key, result);
+				}
+				return result;
+			}
+		}
+
+		result = executor.findAll(predicate, pageable);
+		if (result != null && generation.get() == current) {
+			results.put(key, result);
+			if (diskTier != null) {
+				diskTier.put(key.toString(), result, startedAt);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the entity tag of a search from its key, the current
+	 * generation of domain type and the current time-to-live window (current
+	 * millisecond if caching is disabled). To be computed before the search
+	 * is executed so that a change racing with it results in a new tag
+	 * afterwards.
+	 *
+	 * @param domainType
+	 *            domain type searched
+	 * @param predicate
+	 *            search predicate, can be <code>null</code>.
+	 * @param pageable
+	 *            page requested
+	 * @return weak entity tag, for e.g. <code>W/"5d0c8a1e2f3b4c6d-1a2b3c4d5e6f7a8b-0"</code>
+	 */
+	public String getETag(Class<?> domainType, Predicate predicate, Pageable pageable) {
+		Validate.notNull(domainType, "Domain type must not be null");
+		Validate.notNull(pageable, "Pageable must not be null");
+		final long generation = generations.computeIfAbsent(domainType, t -> new AtomicLong())
+				.get();
+		final long now = System.currentTimeMillis();
+		final long window = timeToLiveMillis > 0 ? now / timeToLiveMillis : now;
+		final long hash = Hashing.murmur3_128()
+				.hashString(new Key(domainType, generation, CanonicalForm.of(predicate)
+						.getText(), normalize(pageable)).toString() + '|' + window, StandardCharsets.UTF_8)
+				.asLong();
+		return "W/\"" + Long.toHexString(hash) + '-' + Long.toHexString(epoch) + '-' + Long.toString(generation,
+				36) + '"';
+	}
+
+	/**
+	 * Invalidates cached results of supplied domain type, its super-types and
+	 * sub-types. To be invoked after an entity is saved or deleted.
+	 *
+	 * @param type
+	 *            type of entity saved or deleted, <code>null</code>
+	 *            invalidates all results.
+	 */
+	public void invalidate(Class<?> type) {
+		if (type == null) {
+			invalidateAll();
+			return;
+		}
+		generations.forEach((domainType, generation) -> {
+			if (domainType.isAssignableFrom(type) || type.isAssignableFrom(domainType)) {
+				generation.incrementAndGet();
+				logger.debug("Invalidated search results of {} on change of {}", domainType, type);
+			}
+		});
+		if (diskTier != null) {
+			diskTier.invalidateAll();
+		}
+	}
+
+	/**
+	 * Invalidates all cached results.
+	 */
+	public void invalidateAll() {
+		generations.values()
+				.forEach(AtomicLong::incrementAndGet);
+		results.invalidateAll();
+		if (diskTier != null) {
+			diskTier.invalidateAll();
+		}
+	}
+
+	/**
+	 * @return <code>false</code> if this cache caches nothing
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return approximate number of cached results, including ones of
+	 *         invalidated generations not yet evicted.
+	 */
+	public long size() {
+		return results.size();
+	}
+
+	/**
+	 * @return hit, miss and eviction statistics
+	 */
+	public CacheStats getStats() {
+		return results.stats();
+	}
+
+	/*
+	 * Pageable implementations aren't required to implement equals, so key on
+	 * page, size and sort only.
+	 */
+	private static Pageable normalize(Pageable pageable) {
+		return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+				pageable.getSort()) : Pageable.unpaged();
+	}
+
+	/*
+	 * Key of a cached result
+	 */
+	private static final class Key {
+		private final Class<?> domainType;
+		private final long generation;
+		private final String predicate;
+		private final Pageable pageable;
+		private final int hash;
+
+		private Key(Class<?> domainType, long generation, String predicate, Pageable pageable) {
+			this.domainType = domainType;
+			this.generation = generation;
+			this.predicate = predicate;
+			this.pageable = pageable;
+			this.hash = Objects.hash(domainType, generation, predicate, pageable);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) o;
+			return hash == other.hash && generation == other.generation && domainType.equals(other.domainType)
+					&& predicate.equals(other.predicate) && pageable.equals(other.pageable);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		/*
+		 * Key of disk tier, independent of generation which doesn't survive
+		 * restarts
+		 */
+		@Override
+		public String toString() {
+			return domainType.getName() + '|' + predicate + '|' + (pageable.isPaged() ? pageable.getPageNumber()
+					+ "," + pageable.getPageSize() + "," + pageable.getSort() : "unpaged");
+		}
+	}
+}
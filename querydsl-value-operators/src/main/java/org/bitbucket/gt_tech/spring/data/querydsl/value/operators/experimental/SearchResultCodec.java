@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes pages of search results stored by {@link MappedSearchResultStore}
+ * and decodes them straight from the memory-mapped region holding them.
+ *
+ * <p>
+ * Stored pages outlive the application, so an encoding should tolerate
+ * evolution of the domain model between deployments (for e.g. JSON) or else
+ * the store directory must be cleared when the model changes.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public interface SearchResultCodec {
+
+	/**
+	 * Codec using Java serialization, requires domain types (and their
+	 * properties) to be {@link java.io.Serializable}. Properties may only be
+	 * of classes in the package of domain type or of common
+	 * <code>java.*</code> value types, decoding rejects any other class.
+	 * Still only to be used with a store directory which isn't writable by
+	 * anyone but the application.
+	 */
+	SearchResultCodec SERIALIZATION = new SerializationSearchResultCodec();
+
+	/**
+	 * @param page
+	 *            page of search results
+	 * @param out
+	 *            stream to write encoded page to
+	 * @throws IOException
+	 *             if page can't be encoded
+	 */
+	void encode(Page<?> page, OutputStream out) throws IOException;
+
+	/**
+	 * @param domainType
+	 *            domain type of search results
+	 * @param buffer
+	 *            read-only buffer holding an encoded page (and nothing else),
+	 *            only valid for the duration of this call.
+	 * @param <T>
+	 *            domain type
+	 * @return decoded page
+	 * @throws IOException
+	 *             if page can't be decoded
+	 */
+	<T> Page<T> decode(Class<T> domainType, ByteBuffer buffer) throws IOException;
+}
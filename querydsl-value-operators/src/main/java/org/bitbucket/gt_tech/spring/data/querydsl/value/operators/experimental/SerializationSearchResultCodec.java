@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * {@link SearchResultCodec} using Java serialization, see
+ * {@link SearchResultCodec#SERIALIZATION}. Decoding only resolves the domain
+ * type, classes of its package, <code>java.lang</code>,
+ * <code>java.util</code>, <code>java.time</code> and <code>java.math</code>
+ * types and {@link Sort}; pages holding anything else fail to decode.
+ *
+ * @author gt_tech
+ */
+final class SerializationSearchResultCodec implements SearchResultCodec {
+
+	@Override
+	public void encode(Page<?> page, OutputStream out) throws IOException {
+		try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+			oos.writeObject(new ArrayList<>(page.getContent()));
+			oos.writeLong(page.getTotalElements());
+			final Pageable pageable = page.getPageable();
+			oos.writeBoolean(pageable.isPaged());
+			if (pageable.isPaged()) {
+				oos.writeInt(pageable.getPageNumber());
+				oos.writeInt(pageable.getPageSize());
+				oos.writeObject(pageable.getSort());
+			}
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> Page<T> decode(Class<T> domainType, ByteBuffer buffer) throws IOException {
+		try (ObjectInputStream ois = new RestrictedObjectInputStream(new ByteBufferInputStream(buffer), domainType)) {
+			final ArrayList<T> content = (ArrayList<T>) ois.readObject();
+			final long total = ois.readLong();
+			final Pageable pageable = ois.readBoolean() ? PageRequest.of(ois.readInt(), ois.readInt(),
+					(Sort) ois.readObject()) : Pageable.unpaged();
+			return new PageImpl<>(content, pageable, total);
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IOException("Failed to decode search results of " + domainType, e);
+		}
+	}
+
+	/*
+	 * Only resolves classes a page of search results is expected to hold, so
+	 * that a tampered store file can't instantiate arbitrary serializable
+	 * classes on the classpath.
+	 */
+	private static final class RestrictedObjectInputStream extends ObjectInputStream {
+		private final Class<?> domainType;
+
+		private RestrictedObjectInputStream(InputStream in, Class<?> domainType) throws IOException {
+			super(in);
+			this.domainType = domainType;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			if (!isAllowed(componentName(desc.getName()))) {
+				throw new InvalidClassException(desc.getName(), "Not allowed in search results of " + domainType);
+			}
+			return super.resolveClass(desc);
+		}
+
+		/**
+		 * Domain type along with classes of its package (and nested classes)
+		 * for its properties, common value types and {@link Sort} of
+		 * {@link Pageable}.
+		 */
+		private boolean isAllowed(String name) {
+			if (name.length() == 1) {
+				// primitive array
+				return true;
+			}
+			final String domainPackage = domainType.getPackage() != null ? domainType.getPackage()
+					.getName() + "." : "";
+			return name.equals(domainType.getName()) || name.startsWith(domainType.getName() + "$")
+					|| (!domainPackage.isEmpty() && isInPackage(name, domainPackage))
+					|| isInPackage(name, "java.lang.") || isInPackage(name, "java.util.")
+					|| isInPackage(name, "java.time.") || isInPackage(name, "java.math.")
+					|| name.equals(Sort.class.getName()) || name.startsWith(Sort.class.getName() + "$");
+		}
+
+		private static boolean isInPackage(String name, String packagePrefix) {
+			return name.startsWith(packagePrefix) && name.indexOf('.', packagePrefix.length()) < 0;
+		}
+
+		/*
+		 * Name of component type of array classes, for e.g. [Ljava.lang.String;
+		 */
+		private static String componentName(String name) {
+			int i = 0;
+			while (i < name.length() && name.charAt(i) == '[') {
+				i++;
+			}
+			if (i > 0 && name.charAt(i) == 'L') {
+				return name.substring(i + 1, name.length() - 1);
+			}
+			return i > 0 ? name.substring(i) : name;
+		}
+	}
+
+	/*
+	 * Reads a buffer without copying it to heap first
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			final int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
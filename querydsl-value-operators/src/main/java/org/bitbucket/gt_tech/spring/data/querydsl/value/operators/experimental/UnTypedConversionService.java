@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.TypedValueConverters;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * {@link ConversionService} which doesn't convert values, so that values
+ * decorated with value-operators reach expression-providers as-is even for non
+ * StringPath. Conversion to explicitly delegated types (for e.g. Date) is
+ * handed over to a delegate {@link ConversionService} when available or else
+ * performed using {@link TypedValueConverters}.
+ *
+ * <p>
+ * Whether a type is delegated is computed once per type and kept in a
+ * {@link ClassValue} rather than scanning delegated types on every call.
+ * </p>
+ *
+ * @author gt_tech
+ */
+final class UnTypedConversionService implements ConversionService {
+
+	private final ConversionService conversionServiceDelegate;
+
+	private final ClassValue<Boolean> delegated;
+
+	/**
+	 * Constructor
+	 *
+	 * @param conversionServiceDelegate
+	 *            delegate {@link ConversionService}, can be <code>null</code>
+	 * @param delegatedConversions
+	 *            types whose conversion is handed over to delegate
+	 */
+	UnTypedConversionService(ConversionService conversionServiceDelegate, Class[] delegatedConversions) {
+		this.conversionServiceDelegate = conversionServiceDelegate;
+		final Set<Class> types = new HashSet<>();
+		if (delegatedConversions != null) {
+			types.addAll(Arrays.asList(delegatedConversions));
+		}
+		this.delegated = new ClassValue<Boolean>() {
+			@Override
+			protected Boolean computeValue(Class<?> type) {
+				return types.contains(type) && (conversionServiceDelegate != null
+						|| TypedValueConverters.canConvert(type));
+			}
+		};
+	}
+
+	@Override
+	public boolean canConvert(Class<?> sourceType, Class<?> targetType) {
+		if (isDelegatedConversion(sourceType) || isDelegatedConversion(targetType))
+			return conversionServiceDelegate == null || conversionServiceDelegate.canConvert(sourceType, targetType);
+
+		return false;
+	}
+
+	@Override
+	public boolean canConvert(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		return canConvert(sourceType != null ? sourceType.getType() : null, targetType.getType());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T convert(Object source, Class<T> targetType) {
+
+		if (isDelegatedConversion(source != null ? source.getClass() : null) || isDelegatedConversion(targetType)) {
+			if (conversionServiceDelegate != null)
+				return conversionServiceDelegate.convert(source, targetType);
+			if (source == null || source instanceof String)
+				return TypedValueConverters.convert((String) source, targetType);
+		}
+
+		throw new UnsupportedOperationException("Overridden ConversionService in "
+				+ "QuerydslPredicateArgumentResolver does not " + "support conversion");
+	}
+
+	@Override
+	public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+
+		if (conversionServiceDelegate != null && (isDelegatedConversion(sourceType != null ? sourceType.getType()
+				: null) || isDelegatedConversion(targetType.getType())))
+			return conversionServiceDelegate.convert(source, sourceType, targetType);
+
+		return convert(source, targetType.getType());
+	}
+
+	private boolean isDelegatedConversion(Class<?> type) {
+		return type != null && delegated.get(type);
+	}
+}
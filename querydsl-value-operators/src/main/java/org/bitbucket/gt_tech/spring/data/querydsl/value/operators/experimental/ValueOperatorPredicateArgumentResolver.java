@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental;
+
+import com.querydsl.core.types.Predicate;
+import org.apache.commons.lang3.Validate;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProviderFactory;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ValueOperatorsConfiguration;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
+import org.springframework.data.querydsl.binding.QuerydslBindingsFactory;
+import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.data.querydsl.binding.QuerydslPredicateBuilder;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.data.web.querydsl.QuerydslPredicateArgumentResolver;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link HandlerMethodArgumentResolver} resolving {@link Predicate} arguments
+ * of handler methods (optionally annotated with {@link QuerydslPredicate}) from
+ * raw request parameters decorated with value operators, in a single pass.
+ *
+ * <p>
+ * Values reach {@link ExpressionProviderFactory} as supplied by client
+ * (type-conversion is only performed for explicitly delegated types, for e.g.
+ * Date) hence full range of value operators is available on non-String paths
+ * without {@link QuerydslHttpRequestContextAwareServletFilter}, the
+ * {@link QuerydslHttpRequestContext} or a request wrapper.
+ * </p>
+ *
+ * <p>
+ * Untyped values are supported by providers only while this resolver builds
+ * the predicate and the published {@link ValueOperatorsConfiguration} isn't
+ * modified. Bindings look providers up statically, so unless the published
+ * configuration already supports untyped values (and otherwise equals the one
+ * of this resolver), the configuration of this resolver is handed to them
+ * through a {@link ThreadLocal}, see
+ * {@link ExpressionProviderFactory#callWithConfiguration}.
+ * </p>
+ *
+ * <p>
+ * Spring data registers its own {@link QuerydslPredicateArgumentResolver} ahead
+ * of other custom resolvers, hence this resolver extends it so that it can be
+ * put in it's place by
+ * {@link QuerydslPredicateArgumentResolverBeanPostProcessor}. It can also be
+ * registered directly where Spring data's web support isn't enabled.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public class ValueOperatorPredicateArgumentResolver extends QuerydslPredicateArgumentResolver {
+
+	private final QuerydslBindingsFactory bindingsFactory;
+
+	private final QuerydslPredicateBuilder predicateBuilder;
+
+	/*
+	 * In effect only while this resolver builds a predicate, the published
+	 * configuration isn't modified.
+	 */
+	private final ValueOperatorsConfiguration configuration;
+
+	/**
+	 * Constructor: No type-conversion is performed on request values.
+	 *
+	 * @param bindingsFactory
+	 *            {@link QuerydslBindingsFactory} to lookup bindings for domain
+	 *            type.
+	 */
+	public ValueOperatorPredicateArgumentResolver(QuerydslBindingsFactory bindingsFactory) {
+		this(bindingsFactory, null, new Class[] {});
+	}
+
+	/**
+	 * Constructor: No type-conversion is performed on request values with the
+	 * exception of following types conversion that would be handed over to
+	 * provided delegated service - {@link Date}, {@link LocalDate},
+	 * {@link Timestamp}
+	 *
+	 * @param bindingsFactory
+	 *            {@link QuerydslBindingsFactory} to lookup bindings for domain
+	 *            type.
+	 * @param conversionServiceDelegate
+	 *            delegate {@link ConversionService}
+	 */
+	public ValueOperatorPredicateArgumentResolver(QuerydslBindingsFactory bindingsFactory,
+			ConversionService conversionServiceDelegate) {
+		this(bindingsFactory, conversionServiceDelegate, new Class[] { Date.class, LocalDate.class, Timestamp.class });
+	}
+
+	/**
+	 * Constructor: No type-conversion is performed on request values with the
+	 * exception of supplied types conversion that would be handed over to
+	 * provided delegated service.
+	 *
+	 * @param bindingsFactory
+	 *            {@link QuerydslBindingsFactory} to lookup bindings for domain
+	 *            type.
+	 * @param conversionServiceDelegate
+	 *            delegate {@link ConversionService}
+	 * @param delegatedConversions
+	 *            types whose conversion is handed over to delegate
+	 */
+	public ValueOperatorPredicateArgumentResolver(QuerydslBindingsFactory bindingsFactory,
+			ConversionService conversionServiceDelegate, Class[] delegatedConversions) {
+		this(bindingsFactory, conversionServiceDelegate, delegatedConversions,
+				ExpressionProviderFactory.getConfiguration());
+	}
+
+	/**
+	 * Constructor: No type-conversion is performed on request values with the
+	 * exception of supplied types conversion that would be handed over to
+	 * provided delegated service.
+	 *
+	 * @param bindingsFactory
+	 *            {@link QuerydslBindingsFactory} to lookup bindings for domain
+	 *            type.
+	 * @param conversionServiceDelegate
+	 *            delegate {@link ConversionService}
+	 * @param delegatedConversions
+	 *            types whose conversion is handed over to delegate
+	 * @param configuration
+	 *            {@link ValueOperatorsConfiguration} in effect while this
+	 *            resolver builds a predicate, with support of untyped values
+	 *            turned on.
+	 */
+	public ValueOperatorPredicateArgumentResolver(QuerydslBindingsFactory bindingsFactory,
+			ConversionService conversionServiceDelegate, Class[] delegatedConversions,
+			ValueOperatorsConfiguration configuration) {
+		this(validate(bindingsFactory), new UnTypedConversionService(conversionServiceDelegate,
+				delegatedConversions), configuration);
+	}
+
+	private ValueOperatorPredicateArgumentResolver(QuerydslBindingsFactory bindingsFactory,
+			UnTypedConversionService conversionService, ValueOperatorsConfiguration configuration) {
+		super(bindingsFactory, Optional.of(conversionService));
+		Validate.notNull(configuration, "ValueOperatorsConfiguration must not be null");
+		this.bindingsFactory = bindingsFactory;
+		this.predicateBuilder = new QuerydslPredicateBuilder(conversionService,
+				bindingsFactory.getEntityPathResolver());
+		this.configuration = configuration.withSupportsUnTypedValues(true);
+	}
+
+	private static QuerydslBindingsFactory validate(QuerydslBindingsFactory bindingsFactory) {
+		Validate.notNull(bindingsFactory, "QuerydslBindingsFactory must not be null");
+		return bindingsFactory;
+	}
+
+	@Override
+	public boolean supportsParameter(MethodParameter parameter) {
+		return QuerydslPredicateParameterSupport.isPredicate(parameter);
+	}
+
+	@Override
+	public Predicate resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+			NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+		final Map<String, String[]> parameterMap = webRequest.getParameterMap();
+		final MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>(parameterMap.size());
+		for (Map.Entry<String, String[]> entry : parameterMap.entrySet()) {
+			parameters.put(entry.getKey(), Arrays.asList(entry.getValue()));
+		}
+
+		final TypeInformation<?> domainType = QuerydslPredicateParameterSupport.getDomainType(parameter);
+		final QuerydslBindings bindings = QuerydslPredicateParameterSupport.getBindings(bindingsFactory, parameter,
+				domainType);
+		return ExpressionProviderFactory.callWithConfiguration(configuration,
+				() -> predicateBuilder.getPredicate(domainType, parameters, bindings));
+	}
+}
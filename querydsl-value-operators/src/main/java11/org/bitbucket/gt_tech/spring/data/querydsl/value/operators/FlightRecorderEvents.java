@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators;
+
+import com.querydsl.core.types.Path;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Collection;
+
+/**
+ * Emits JDK Flight Recorder events of value operator processing so slow
+ * searches can be correlated with GC, lock and I/O events of the same
+ * recording.
+ *
+ * <p>
+ * JDK 11+ version of this class packaged under
+ * <code>META-INF/versions/11</code> of the multi-release JAR. Events are
+ * {@link Enabled disabled} by default, when not enabled by settings of a
+ * running recording <code>begin*</code> methods return <code>null</code> and
+ * the allocation of the probe event is eliminated by JIT.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public final class FlightRecorderEvents {
+
+    private static final String CATEGORY = "Querydsl Value Operators";
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * @return <code>true</code> if events are emitted on current JDK, <code>false</code> otherwise.
+     */
+    public static boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * @return event to be committed with {@link #commitParse(Object, ParsedOperatorValue)}, <code>null</code> if not
+     * enabled
+     */
+    public static Object beginParse() {
+        final ValueOperatorParseEvent event = new ValueOperatorParseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param event  event returned by {@link #beginParse()}
+     * @param parsed parsed value
+     */
+    public static void commitParse(Object event, ParsedOperatorValue parsed) {
+        if (event != null) {
+            final ValueOperatorParseEvent e = (ValueOperatorParseEvent) event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.operator = parsed.getOperator() != null ? parsed.getOperator()
+                                                                  .name() : null;
+                e.operatorDepth = depth(parsed);
+                e.length = parsed.getText()
+                                 .length();
+                e.commit();
+            }
+        }
+    }
+
+    /**
+     * @return event to be committed with {@link #commitBuild(Object, Class, Path, Collection)}, <code>null</code> if
+     * not enabled
+     */
+    public static Object beginBuild() {
+        final PredicateBuildEvent event = new PredicateBuildEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param event        event returned by {@link #beginBuild()}
+     * @param providerType type of {@link ExpressionProvider}
+     * @param path         path for which expression is built
+     * @param values       parsed values of path
+     */
+    public static void commitBuild(Object event, Class<?> providerType, Path<?> path,
+                                   Collection<ParsedOperatorValue> values) {
+        if (event != null) {
+            final PredicateBuildEvent e = (PredicateBuildEvent) event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.path = path.toString();
+                e.provider = providerType.getName();
+                e.valueCount = values.size();
+                int maxDepth = 0;
+                for (ParsedOperatorValue value : values) {
+                    maxDepth = Math.max(maxDepth, depth(value));
+                }
+                e.operatorDepth = maxDepth;
+                e.commit();
+            }
+        }
+    }
+
+    /**
+     * @return event to be committed with {@link #commitContextFilter(Object, String, Class, int)}, <code>null</code>
+     * if not enabled
+     */
+    public static Object beginContextFilter() {
+        final ContextFilterEvent event = new ContextFilterEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param event          event returned by {@link #beginContextFilter()}
+     * @param uri            request URI
+     * @param resourceType   type of search resource mapped to URI
+     * @param parameterCount number of request parameters
+     */
+    public static void commitContextFilter(Object event, String uri, Class<?> resourceType, int parameterCount) {
+        if (event != null) {
+            final ContextFilterEvent e = (ContextFilterEvent) event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.uri = uri;
+                e.resourceType = resourceType != null ? resourceType.getName() : null;
+                e.parameterCount = parameterCount;
+                e.commit();
+            }
+        }
+    }
+
+    /*
+     * Number of operators in chain of supplied value
+     */
+    private static int depth(ParsedOperatorValue value) {
+        int depth = 0;
+        for (ParsedOperatorValue v = value; v != null && v.getOperator() != null; v = v.getOperand()) {
+            depth++;
+        }
+        return depth;
+    }
+
+    @Name("org.bitbucket.gt_tech.querydsl.ValueOperatorParse")
+    @Label("Value Operator Parse")
+    @Description("Parsing of a search value into its operator chain")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ValueOperatorParseEvent extends Event {
+
+        @Label("Operator")
+        @Description("Outermost operator, null if value has none")
+        String operator;
+
+        @Label("Operator Depth")
+        int operatorDepth;
+
+        @Label("Length")
+        @Description("Length of parsed text")
+        int length;
+    }
+
+    @Name("org.bitbucket.gt_tech.querydsl.PredicateBuild")
+    @Label("Predicate Build")
+    @Description("Building of a path's expression from parsed values")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    static final class PredicateBuildEvent extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Expression Provider")
+        String provider;
+
+        @Label("Value Count")
+        int valueCount;
+
+        @Label("Operator Depth")
+        @Description("Deepest operator chain among values")
+        int operatorDepth;
+    }
+
+    @Name("org.bitbucket.gt_tech.querydsl.ContextFilter")
+    @Label("Querydsl Context Filter")
+    @Description("Search request processed with a QuerydslHttpRequestContext")
+    @Category(CATEGORY)
+    @Enabled(false)
+    static final class ContextFilterEvent extends Event {
+
+        @Label("Request URI")
+        String uri;
+
+        @Label("Resource Type")
+        String resourceType;
+
+        @Label("Parameter Count")
+        int parameterCount;
+    }
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators
+
+import com.querydsl.core.types.Path
+import com.querydsl.core.types.dsl.Expressions
+import groovy.transform.CompileStatic
+import spock.lang.Requires
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.function.Supplier
+
+/**
+ * Specification guards per-call allocation of hot paths against regressions,
+ * see {@link AllocationMeter}.
+ *
+ * @author gt_tech
+ */
+@Requires({ AllocationMeter.isSupported() && AllocationMeter.isCalibrated() })
+class AllocationBudgetSpecs extends Specification {
+
+    static final List<Operator> OPERATORS = Arrays.asList(Operator.values())
+
+    ValueOperatorsConfiguration previous
+
+    def setup() {
+        previous = ExpressionProviderFactory.getConfiguration()
+        ExpressionProviderFactory.configure(ValueOperatorsConfiguration.DEFAULT.withSupportsUnTypedValues(true))
+    }
+
+    def cleanup() {
+        ExpressionProviderFactory.configure(previous)
+    }
+
+    @Unroll
+    def "getPredicate should allocate within budget for #budget"() {
+        when:
+        long allocated = AllocationMeter.bytesPerCall(new GetPredicate(path, value))
+
+        then:
+        assert allocated <= AllocationMeter.budget(budget), "allocation $budget: $allocated bytes/call"
+
+        where:
+        budget                         | path                                                   | value
+        'getPredicate.string.single'   | Expressions.stringPath('user.userName')                | 'ci(startsWith(John))'
+        'getPredicate.string.multi'    | Expressions.stringPath('user.userName')                | (1..10).collect { "eq(user$it)" as String }
+        'getPredicate.number.single'   | Expressions.numberPath(Integer, 'user.age')            | 'gte(35)'
+        'getPredicate.number.nested'   | Expressions.numberPath(Integer, 'user.age')            | 'and(not(lt(35)))'
+        'getPredicate.enum.single'     | Expressions.enumPath(Status, 'user.status')            | 'ne(LOCKED)'
+        'getPredicate.enum.untyped'    | Expressions.enumPath(Status, 'user.status')            | 'ci(startsWith(act))'
+        'getPredicate.datetime.single' | Expressions.dateTimePath(Date, 'user.createdAt')       | 'gte(Wed, 31 Jan 2018 10:00:00 GMT)'
+    }
+
+    @Unroll
+    def "OperatorAndValue should allocate within budget for #budget"() {
+        when:
+        long allocated = AllocationMeter.bytesPerCall(new NewOperatorAndValue(value))
+
+        then:
+        assert allocated <= AllocationMeter.budget(budget), "allocation $budget: $allocated bytes/call"
+
+        where:
+        budget                    | value
+        'operatorAndValue.plain'  | 'John'
+        'operatorAndValue.nested' | 'and(not(startsWith(John)))'
+    }
+
+    // ============== START: Test/Stub classes ==============
+    static enum Status {
+        ACTIVE, LOCKED
+    }
+
+    @CompileStatic
+    static class GetPredicate implements Supplier<Object> {
+        private final Path path
+        private final Object value
+
+        GetPredicate(Path path, Object value) {
+            this.path = path
+            this.value = value
+        }
+
+        @Override
+        Object get() {
+            return ExpressionProviderFactory.getPredicate(path, value)
+        }
+    }
+
+    @CompileStatic
+    static class NewOperatorAndValue implements Supplier<Object> {
+        private final String value
+
+        NewOperatorAndValue(String value) {
+            this.value = value
+        }
+
+        @Override
+        Object get() {
+            return new OperatorAndValue(value, OPERATORS, Operator.EQUAL)
+        }
+    }
+    // ============== STOP: Test/Stub classes ==============
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators
+
+import ch.qos.logback.classic.Level
+import ch.qos.logback.classic.Logger
+import groovy.transform.CompileStatic
+import org.slf4j.LoggerFactory
+
+import java.lang.management.ManagementFactory
+import java.util.function.Supplier
+
+/**
+ * Measures bytes allocated per call of a piece of work on the current thread
+ * using {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}
+ * and compares it with per-call budgets from
+ * <code>allocation-budgets.properties</code>. A budget can be overridden with
+ * a system property of the same name, for e.g.
+ * <code>-Dallocation.budget.getPredicate.string.single=2048</code>. Budgets
+ * only apply to the JDK they were calibrated on, see {@link #isCalibrated()}.
+ *
+ * <p>
+ * Statically compiled and work supplied as {@link Supplier} implementations
+ * (not closures) so that dynamic Groovy dispatch doesn't add to what's being
+ * measured.
+ * </p>
+ *
+ * @author gt_tech
+ */
+@CompileStatic
+class AllocationMeter {
+
+    private static final Properties BUDGETS = loadBudgets()
+
+    private static final String CALIBRATED_JDK = 'allocation.budget.calibrated.jdk'
+
+    private static final int WARMUP_ITERATIONS = 20_000
+    private static final int MEASURED_ITERATIONS = 20_000
+
+    /*
+     * Keeps results reachable so that JIT can't discard the work
+     */
+    static volatile Object sink
+
+    /**
+     * @return <code>true</code> if JVM supports measuring allocations per thread
+     */
+    static boolean isSupported() {
+        def bean = ManagementFactory.getThreadMXBean()
+        return bean instanceof com.sun.management.ThreadMXBean &&
+                ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+    }
+
+    /**
+     * Library loggers are raised to <code>WARN</code> during measurement since
+     * test logging configuration logs library at all levels, which isn't what
+     * applications run with.
+     *
+     * @param work work to measure
+     * @return average bytes allocated per call of work after warm-up
+     */
+    static long bytesPerCall(Supplier<?> work) {
+        def bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()
+        bean.setThreadAllocatedMemoryEnabled(true)
+        long threadId = Thread.currentThread().getId()
+        Logger logger = (Logger) LoggerFactory.getLogger('org.bitbucket.gt_tech')
+        Level level = logger.getLevel()
+        logger.setLevel(Level.WARN)
+        try {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                sink = work.get()
+            }
+            long before = bean.getThreadAllocatedBytes(threadId)
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                sink = work.get()
+            }
+            long after = bean.getThreadAllocatedBytes(threadId)
+            return (long) ((after - before) / MEASURED_ITERATIONS)
+        } finally {
+            logger.setLevel(level)
+        }
+    }
+
+    /**
+     * @return <code>true</code> if budgets were calibrated on the JDK
+     * specification version of current JVM, budgets measured on one JDK don't
+     * hold on another
+     */
+    static boolean isCalibrated() {
+        String calibrated = System.getProperty(CALIBRATED_JDK, BUDGETS.getProperty(CALIBRATED_JDK))
+        return calibrated != null && calibrated.trim() == System.getProperty('java.specification.version')
+    }
+
+    /**
+     * @param name name of budget (without <code>allocation.budget.</code> prefix)
+     * @return budget in bytes per call
+     */
+    static long budget(String name) {
+        String key = 'allocation.budget.' + name
+        String value = System.getProperty(key, BUDGETS.getProperty(key))
+        if (value == null) {
+            throw new IllegalArgumentException('No allocation budget configured: ' + key)
+        }
+        return Long.parseLong(value.trim())
+    }
+
+    private static Properties loadBudgets() {
+        Properties properties = new Properties()
+        InputStream is = AllocationMeter.getResourceAsStream('/allocation-budgets.properties')
+        if (is != null) {
+            try {
+                properties.load(is)
+            } finally {
+                is.close()
+            }
+        }
+        return properties
+    }
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators
+
+import com.querydsl.core.BooleanBuilder
+import com.querydsl.core.types.dsl.Expressions
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.sql.Timestamp
+
+/**
+ * Specification tests CanonicalForm
+ *
+ * @author gt_tech
+ */
+class CanonicalFormSpecs extends Specification {
+
+    @Unroll
+    def "it should canonicalize #values to #text"() {
+        expect:
+        CanonicalForm.parse(values as String[]).text == text
+
+        where:
+        values                                         | text
+        ['a']                                          | 'a'
+        [' eq( John ) ']                               | 'eq(John)'
+        ['and(not(a))']                                | 'not(a)'
+        ['starts-with(Jo)']                            | 'startsWith(Jo)'
+        ['b', 'a']                                     | 'or(a,b)'
+        ['a', 'b', 'a']                                | 'or(a,b)'
+        ['a', 'or(a)']                                 | 'a'
+        ['and(b)', 'a']                                | 'and(a,b)'
+        ['b', 'and(a)']                                | 'and(a,b)'
+        ['c', 'b', 'and(a)']                           | 'and(a,or(b,c))'
+        ['c', 'and(a)', 'b']                           | 'or(and(a,c),b)'
+        ['eq(a,b)', 'a']                               | 'or(a,eq(a\\,b))'
+        ['ci(ends-with(X))', 'not(ci(endsWith(x)))']   | 'or(ci(endsWith(X)),not(ci(endsWith(x))))'
+    }
+
+    def "it should be equal for searches that mean the same thing"() {
+        expect:
+        CanonicalForm.parse('a', 'startsWith(b)') == CanonicalForm.parse('starts-with(b)', ' a ')
+        CanonicalForm.parse('a', 'startsWith(b)').fingerprint == CanonicalForm.parse('starts-with(b)', ' a ').fingerprint
+        CanonicalForm.parse('a', 'startsWith(b)').hashCode() == CanonicalForm.parse('starts-with(b)', ' a ').hashCode()
+
+        and: 'not for different ones'
+        CanonicalForm.parse('a', 'b') != CanonicalForm.parse('a', 'and(b)')
+        CanonicalForm.parse('a', 'b').fingerprint != CanonicalForm.parse('a', 'and(b)').fingerprint
+        CanonicalForm.parse('eq(a)') != CanonicalForm.parse('eq\\(a\\)')
+    }
+
+    def "it should fingerprint shape independent of values"() {
+        given:
+        def first = CanonicalForm.parse('Jim', 'startsWith(Jo)')
+        def second = CanonicalForm.parse('startsWith(Al)', 'Bob')
+
+        expect:
+        first.shape == 'or(?,startsWith(?))'
+        second.shape == first.shape
+        second.shapeFingerprint == first.shapeFingerprint
+        second.fingerprint != first.fingerprint
+        CanonicalForm.parse('a', 'b', 'c').shapeFingerprint != first.shapeFingerprint
+    }
+
+    def "it should canonicalize a search on multiple paths independent of their order"() {
+        given:
+        def parse = { String... v -> v.collect { ParsedOperatorValue.parse(it) } }
+        def first = CanonicalForm.of(['userName': parse('b', 'a'), 'profile.age': parse('gte(21)')])
+        def second = CanonicalForm.of([' profile.age ': parse('gte( 21)'), 'userName': parse('a', 'b')])
+
+        expect:
+        first.text == 'profile.age=gte(21)&userName=or(a,b)'
+        first.shape == 'profile.age=gte(?)&userName=or(?,?)'
+        first == second
+        first.fingerprint == second.fingerprint
+    }
+
+    def "it should canonicalize a predicate independent of order of and/or operands"() {
+        given:
+        def userName = Expressions.stringPath('user.userName')
+        def age = Expressions.numberPath(Integer, 'user.age')
+        def first = new BooleanBuilder(userName.eq('b').or(userName.eq('a'))).and(age.goe(21))
+        def second = age.goe(21).and(userName.eq('a').or(userName.eq('b')).or(userName.eq('a')))
+
+        expect:
+        CanonicalForm.of(first).text == 'and(GOE(user.age,21),or(EQ(user.userName,a),EQ(user.userName,b)))'
+        CanonicalForm.of(first).shape == 'and(GOE(user.age,?),or(EQ(user.userName,?),EQ(user.userName,?)))'
+        CanonicalForm.of(first) == CanonicalForm.of(second)
+        CanonicalForm.of(first).fingerprint == CanonicalForm.of(second).fingerprint
+
+        and: 'not for different ones'
+        CanonicalForm.of(first) != CanonicalForm.of(age.goe(21).or(userName.eq('a').or(userName.eq('b'))))
+        CanonicalForm.of(userName.eq('a,b')) != CanonicalForm.of(userName.in('a', 'b'))
+        CanonicalForm.of(userName.in('b', 'a')) == CanonicalForm.of(userName.in('a', 'b'))
+
+        and: 'empty for no predicate'
+        CanonicalForm.of(new BooleanBuilder()).text == ''
+    }
+
+    def "it should canonicalize date constants of a predicate to their epoch value"() {
+        given:
+        def createdAt = Expressions.dateTimePath(Date, 'user.createdAt')
+        def timestamp = Expressions.dateTimePath(Timestamp, 'user.updatedAt')
+        def nanos = new Timestamp(1517392800123L)
+        nanos.setNanos(123000001)
+
+        expect:
+        CanonicalForm.of(createdAt.goe(new Date(1517392800123L))).text == 'GOE(user.createdAt,1517392800123)'
+        CanonicalForm.of(timestamp.goe(nanos)).text == 'GOE(user.updatedAt,1517392800123.123000001)'
+
+        and: 'not equal for dates differing only in milliseconds'
+        CanonicalForm.of(createdAt.goe(new Date(1517392800123L))) != CanonicalForm.of(createdAt.goe(new Date(1517392800456L)))
+        CanonicalForm.of(createdAt.in(new Date(1517392800123L))) != CanonicalForm.of(createdAt.in(new Date(1517392800456L)))
+        CanonicalForm.of(timestamp.goe(nanos)) != CanonicalForm.of(timestamp.goe(new Timestamp(1517392800123L)))
+    }
+
+    def "it should produce stable fingerprints"() {
+        expect: 'same value on every JVM, changes only with canonical text'
+        CanonicalForm.parse('a', 'b').text == 'or(a,b)'
+        CanonicalForm.parse('a', 'b').fingerprint == FINGERPRINT_OR_A_B
+        CanonicalForm.parse().text == ''
+    }
+
+    static final long FINGERPRINT_OR_A_B = -4698592386477102282L
+}
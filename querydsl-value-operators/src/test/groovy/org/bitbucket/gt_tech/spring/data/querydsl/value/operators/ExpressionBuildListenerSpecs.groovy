@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators
+
+import com.querydsl.core.types.Path
+import com.querydsl.core.types.dsl.BooleanExpression
+import com.querydsl.core.types.dsl.Expressions
+import spock.lang.Specification
+
+/**
+ * Specification tests ExpressionBuildListener callbacks
+ *
+ * @author gt_tech
+ */
+class ExpressionBuildListenerSpecs extends Specification {
+
+    def path = Expressions.stringPath('firstName')
+
+    def listener = new RecordingListener()
+
+    def setup() {
+        ExpressionProviderFactory.addExpressionBuildListener(listener)
+    }
+
+    def cleanup() {
+        ExpressionProviderFactory.removeExpressionBuildListener(listener)
+    }
+
+    def "it should report every value before composition and the composed expression"() {
+        when:
+        def predicate = ExpressionProviderFactory.getPredicate(path, ['startsWith(Jo)', 'and(not(Joe))']).get()
+
+        then:
+        listener.events == ['started firstName [startsWith(Jo), and(not(Joe))]',
+                            'value startsWith(Jo) -> startsWith(firstName,Jo)',
+                            'value not(Joe) -> !(firstName = Joe)',
+                            'completed firstName -> ' + predicate]
+        predicate.toString() == 'startsWith(firstName,Jo) && !(firstName = Joe)'
+    }
+
+    def "it should report failures"() {
+        when:
+        ExpressionProviderFactory.getPredicate(path, 'eq(not(or(Joe)))')
+
+        then:
+        thrown IllegalArgumentException
+        listener.events.first() == 'started firstName [eq(not(or(Joe)))]'
+        listener.events.last() == 'failed firstName IllegalArgumentException'
+    }
+
+    def "it should stop reporting once removed"() {
+        given:
+        def other = new RecordingListener()
+        ExpressionProviderFactory.addExpressionBuildListener(other)
+
+        when:
+        ExpressionProviderFactory.removeExpressionBuildListener(listener)
+        ExpressionProviderFactory.getPredicate(path, 'Joe')
+
+        then:
+        listener.events.isEmpty()
+        other.events.size() == 3
+        ExpressionProviderFactory.getExpressionBuildListeners() == [other]
+
+        cleanup:
+        ExpressionProviderFactory.removeExpressionBuildListener(other)
+    }
+
+    // ============== START: Test/Stub classes ==============
+    static class RecordingListener implements ExpressionBuildListener {
+        List<String> events = []
+
+        @Override
+        void buildStarted(Path<?> path, Collection<ParsedOperatorValue> values) {
+            events << "started ${path} ${values*.text}".toString()
+        }
+
+        @Override
+        void valueBuilt(Path<?> path, ParsedOperatorValue value, BooleanExpression expression, long nanos) {
+            assert nanos >= 0
+            events << "value ${value.text} -> ${expression}".toString()
+        }
+
+        @Override
+        void buildCompleted(Path<?> path, Collection<ParsedOperatorValue> values, BooleanExpression expression, long nanos) {
+            events << "completed ${path} -> ${expression}".toString()
+        }
+
+        @Override
+        void buildFailed(Path<?> path, Collection<ParsedOperatorValue> values, RuntimeException error) {
+            events << "failed ${path} ${error.class.simpleName}".toString()
+        }
+    }
+    // ============== STOP: Test/Stub classes ==============
+}
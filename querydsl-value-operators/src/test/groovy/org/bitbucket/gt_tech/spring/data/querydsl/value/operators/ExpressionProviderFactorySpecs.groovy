@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators
+
+import com.querydsl.core.types.dsl.Expressions
+import spock.lang.Specification
+
+/**
+ * Specification tests configuration of ExpressionProviderFactory
+ *
+ * @author gt_tech
+ */
+class ExpressionProviderFactorySpecs extends Specification {
+
+    def path = Expressions.enumPath(Status, 'status')
+
+    ValueOperatorsConfiguration previous
+
+    def setup() {
+        previous = ExpressionProviderFactory.getConfiguration()
+    }
+
+    def cleanup() {
+        ExpressionProviderFactory.configure(previous)
+    }
+
+    def "it should create providers from published configuration"() {
+        when:
+        ExpressionProviderFactory.configure(ValueOperatorsConfiguration.DEFAULT)
+
+        then: 'operator unsupported on enum, value is used as-is'
+        ExpressionProviderFactory.getPredicate(path, 'startsWith(ACT)').get().toString() == 'status = startsWith(ACT)'
+
+        when:
+        ExpressionProviderFactory.configure(ValueOperatorsConfiguration.DEFAULT.withSupportsUnTypedValues(true))
+
+        then:
+        ExpressionProviderFactory.getConfiguration().isSupportsUnTypedValues()
+        ExpressionProviderFactory.getPredicate(path, 'startsWith(ACT)').get().toString() == 'status = ACTIVE'
+    }
+
+    def "it should keep providers when configuration doesn't change"() {
+        given:
+        ExpressionProviderFactory.configure(ValueOperatorsConfiguration.DEFAULT)
+        def provider = ExpressionProviderFactory.getProvider(path).get()
+
+        when:
+        ExpressionProviderFactory.setSupportsUnTypedValues(false)
+
+        then:
+        ExpressionProviderFactory.getProvider(path).get().is(provider)
+        ValueOperatorsConfiguration.DEFAULT.withSupportsUnTypedValues(false).is(ValueOperatorsConfiguration.DEFAULT)
+    }
+
+    def "it should apply configuration only to current thread while action runs"() {
+        given:
+        ExpressionProviderFactory.configure(ValueOperatorsConfiguration.DEFAULT)
+        def untyped = ValueOperatorsConfiguration.DEFAULT.withSupportsUnTypedValues(true)
+        def other = null
+
+        when:
+        def predicate = ExpressionProviderFactory.callWithConfiguration(untyped, {
+            def thread = Thread.start { other = ExpressionProviderFactory.getConfiguration() }
+            thread.join()
+            ExpressionProviderFactory.getPredicate(path, 'startsWith(ACT)').get()
+        })
+
+        then:
+        predicate.toString() == 'status = ACTIVE'
+        other.is(ValueOperatorsConfiguration.DEFAULT)
+        ExpressionProviderFactory.getConfiguration().is(ValueOperatorsConfiguration.DEFAULT)
+        ExpressionProviderFactory.getPredicate(path, 'startsWith(ACT)').get().toString() == 'status = startsWith(ACT)'
+    }
+
+    def "it should not bind published configuration to current thread"() {
+        given:
+        def untyped = ValueOperatorsConfiguration.DEFAULT.withSupportsUnTypedValues(true)
+        ExpressionProviderFactory.configure(untyped)
+
+        when:
+        def scoped = ExpressionProviderFactory.callWithConfiguration(untyped, {
+            ExpressionProviderFactory.scoped_providers.get()
+        })
+
+        then:
+        scoped == null
+        ExpressionProviderFactory.getPredicate(path, 'startsWith(ACT)').get().toString() == 'status = ACTIVE'
+
+        cleanup:
+        ExpressionProviderFactory.configure(ValueOperatorsConfiguration.DEFAULT)
+    }
+
+    // ============== START: Test/Stub classes ==============
+    static enum Status {
+        ACTIVE, LOCKED
+    }
+    // ============== STOP: Test/Stub classes ==============
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators
+
+import com.querydsl.core.types.dsl.Expressions
+import groovy.io.FileType
+import groovy.transform.CompileStatic
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordingFile
+import spock.lang.IgnoreIf
+import spock.lang.Specification
+
+import javax.tools.ToolProvider
+
+/**
+ * Specification tests FlightRecorderEvents, baseline as well as JDK 11+
+ * version which is loaded from <code>META-INF/versions/11</code> of build
+ * output ahead of baseline classes. Builds without <code>-DmultiRelease</code>
+ * don't produce that directory, the JDK 11+ version is then compiled from
+ * <code>src/main/java11</code> by the specification itself so that it's
+ * verified by every build on JDK 11+.
+ *
+ * @author gt_tech
+ */
+class FlightRecorderEventsSpecs extends Specification {
+
+    static final String PACKAGE = FlightRecorderEvents.package.name + '.'
+
+    def "baseline must not emit events"() {
+        expect:
+        !FlightRecorderEvents.isAvailable()
+        FlightRecorderEvents.beginParse() == null
+        FlightRecorderEvents.beginBuild() == null
+        FlightRecorderEvents.beginContextFilter() == null
+    }
+
+    @IgnoreIf({ !FlightRecorderEventsSpecs.isJava11Compatible() })
+    def "it must emit events only when enabled"() {
+        given:
+        def loader = versionedClassLoader()
+        def events = loader.loadClass(PACKAGE + 'FlightRecorderEvents')
+        def factory = loader.loadClass(PACKAGE + 'ExpressionProviderFactory')
+        def path = Expressions.stringPath('firstName')
+
+        expect: 'disabled by default'
+        events.isAvailable()
+        events.beginParse() == null
+
+        when:
+        def recording = new Recording()
+        recording.enable('org.bitbucket.gt_tech.querydsl.ValueOperatorParse')
+        recording.enable('org.bitbucket.gt_tech.querydsl.PredicateBuild')
+        recording.enable('org.bitbucket.gt_tech.querydsl.ContextFilter')
+        recording.start()
+        factory.getPredicate(path, ['not(startsWith(Jo))', 'Jim'])
+        events.commitContextFilter(events.beginContextFilter(), '/users/search', String, 3)
+        recording.stop()
+        def file = File.createTempFile('value-operators', '.jfr')
+        recording.dump(file.toPath())
+        recording.close()
+        def recorded = RecordingFile.readAllEvents(file.toPath())
+        file.delete()
+        def parsed = recorded.findAll { it.eventType.name == 'org.bitbucket.gt_tech.querydsl.ValueOperatorParse' }
+        def built = recorded.findAll { it.eventType.name == 'org.bitbucket.gt_tech.querydsl.PredicateBuild' }
+        def filtered = recorded.findAll { it.eventType.name == 'org.bitbucket.gt_tech.querydsl.ContextFilter' }
+
+        then:
+        parsed.collect { [it.getString('operator'), it.getInt('operatorDepth'), it.getInt('length')] } as Set == [['NOT', 2, 19], [null, 0, 3]] as Set
+        built.size() == 1
+        built[0].getString('path') == 'firstName'
+        built[0].getString('provider') == StringPathExpressionProviderImpl.name
+        built[0].getInt('valueCount') == 2
+        built[0].getInt('operatorDepth') == 2
+        filtered.collect { [it.getString('uri'), it.getString('resourceType'), it.getInt('parameterCount')] } == [['/users/search', String.name, 3]]
+    }
+
+    static boolean isJava11Compatible() {
+        return !System.getProperty('java.specification.version').startsWith('1.')
+    }
+
+    private static ClassLoader versionedClassLoader() {
+        return new VersionedClassLoader([versionedClasses().toURI().toURL(),
+                                         new File('target/classes').toURI().toURL()] as URL[])
+    }
+
+    /*
+     * Versioned classes of multi-release build, else compiled from sources
+     */
+    private static File versionedClasses() {
+        def packaged = new File('target/classes/META-INF/versions/11')
+        if (packaged.exists()) {
+            return packaged
+        }
+        def compiler = ToolProvider.getSystemJavaCompiler()
+        assert compiler != null, 'JDK 11+ versioned classes require a JDK (not a JRE) to run tests'
+        def output = new File('target/versioned-classes/11')
+        output.mkdirs()
+        def sources = []
+        new File('src/main/java11').eachFileRecurse(FileType.FILES) {
+            if (it.name.endsWith('.java')) {
+                sources << it.path
+            }
+        }
+        def classpath = 'target/classes' + File.pathSeparator + System.getProperty('surefire.test.class.path',
+                System.getProperty('java.class.path'))
+        def errors = new ByteArrayOutputStream()
+        int status = compiler.run(null, null, errors, (['--release', '11', '-nowarn', '-d', output.path, '-cp',
+                                                        classpath] + sources) as String[])
+        assert status == 0, "Failed to compile src/main/java11: ${errors.toString()}"
+        return output
+    }
+
+    // ============== START: Test/Stub classes ==============
+    /*
+     * Loads classes of this library from versioned directory first, then
+     * from baseline directory, others from test class loader
+     */
+    @CompileStatic
+    static class VersionedClassLoader extends URLClassLoader {
+
+        VersionedClassLoader(URL[] urls) {
+            super(urls, FlightRecorderEventsSpecs.classLoader)
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.startsWith(PACKAGE)) {
+                synchronized (getClassLoadingLock(name)) {
+                    Class<?> c = findLoadedClass(name)
+                    return c != null ? c : findClass(name)
+                }
+            }
+            return super.loadClass(name, resolve)
+        }
+    }
+    // ============== STOP: Test/Stub classes ==============
+}
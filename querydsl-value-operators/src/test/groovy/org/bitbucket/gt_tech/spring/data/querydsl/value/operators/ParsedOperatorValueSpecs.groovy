@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static org.bitbucket.gt_tech.spring.data.querydsl.value.operators.Operator.*
+
+/**
+ * Specification tests ParsedOperatorValue
+ *
+ * @author gt_tech
+ */
+class ParsedOperatorValueSpecs extends Specification {
+
+    @Unroll
+    def "it should parse '#input_value' into operators #result_operators with true value '#result_value'"() {
+        given:
+        ParsedOperatorValue parsed = ParsedOperatorValue.parse(input_value)
+        def operators = []
+        for (def current = parsed; current.getOperator() != null; current = current.getOperand()) {
+            operators << current.getOperator()
+        }
+        expect:
+        operators == result_operators
+        parsed.getTrueValue() == result_value
+        where:
+        input_value                      | result_operators                   | result_value
+        "search_value"                   | []                                 | "search_value"
+        " search_value "                 | []                                 | "search_value"
+        "ne(search_value)"               | [NOT_EQUAL]                        | "search_value"
+        "starts-with(search_value)"      | [STARTSWITH]                       | "search_value"
+        "gte(2)"                         | [GREATER_THAN_OR_EQUAL]            | "2"
+        "and(not(startsWith(john)))"     | [AND, NOT, STARTS_WITH]            | "john"
+        "or(ci(ends-with(John)))"        | [OR, CASE_IGNORE, ENDSWITH]        | "John"
+        "not( eq(abc) )"                 | [NOT, EQUAL]                       | "abc"
+        "eq()"                           | [EQUAL]                            | ""
+        "and(eq(abc)"                    | [AND]                              | "eq(abc"
+        "unknown(abc)"                   | []                                 | "unknown(abc)"
+        ""                               | []                                 | ""
+        null                             | []                                 | ""
+    }
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.sql.Timestamp
+import java.time.LocalDate
+
+/**
+ * Specification tests TypedValueConverters
+ *
+ * @author gt_tech
+ */
+class TypedValueConvertersSpecs extends Specification {
+
+    @Unroll
+    def "it should convert '#input_value' to #type.simpleName"() {
+        expect:
+        TypedValueConverters.canConvert(type)
+        TypedValueConverters.convert(input_value, type) == result
+
+        where:
+        input_value                                 | type          | result
+        " 27 "                                      | Integer.class | 27
+        "27"                                        | int.class     | 27
+        "9000000000"                                | Long.class    | 9000000000L
+        "2.5"                                       | Double.class  | 2.5d
+        "10.25"                                     | BigDecimal    | new BigDecimal("10.25")
+        "yes"                                       | Boolean.class | true
+        "0"                                         | boolean.class | false
+        "ACTIVE"                                    | Status.class  | Status.ACTIVE
+        "2d6a1d4c-4c6e-4f2a-9b3e-0b2d2f8a6c11"      | UUID.class    | UUID.fromString("2d6a1d4c-4c6e-4f2a-9b3e-0b2d2f8a6c11")
+        "2018-01-31"                                | LocalDate     | LocalDate.of(2018, 1, 31)
+        "abc"                                       | String.class  | "abc"
+    }
+
+    def "it should convert dates and timestamps"() {
+        given:
+        def date = TypedValueConverters.convert("Wed, 31 Jan 2018 10:00:00 GMT", Date.class)
+
+        expect:
+        date == new Date("Wed, 31 Jan 2018 10:00:00 GMT")
+        TypedValueConverters.convert("Wed, 31 Jan 2018 10:00:00 GMT", Timestamp.class) == new Timestamp(date.getTime())
+    }
+
+    @Unroll
+    def "it should reject '#input_value' as #type.simpleName"() {
+        when:
+        TypedValueConverters.convert(input_value, type)
+
+        then:
+        thrown IllegalArgumentException
+
+        where:
+        input_value | type
+        "abc"       | Integer.class
+        "maybe"     | Boolean.class
+        "UNKNOWN"   | Status.class
+        "abc"       | Date.class
+        "abc"       | Locale.class
+    }
+
+    def "it should not support unknown types"() {
+        expect:
+        !TypedValueConverters.canConvert(Locale.class)
+    }
+
+    def "it should convert operand of parsed value once per type"() {
+        given:
+        def operand = ParsedOperatorValue.parse("gte(27)").getOperand()
+
+        when:
+        def value = operand.getTypedValue(Long.class)
+
+        then:
+        value == 27L
+        operand.getTypedValue(Long.class).is(value)
+        operand.getTypedValue(Integer.class) == 27
+    }
+
+    // ============== START: Test/Stub classes ==============
+    static enum Status {
+        ACTIVE, LOCKED
+    }
+    // ============== STOP: Test/Stub classes ==============
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators
+
+import com.querydsl.core.types.dsl.Expressions
+import spock.lang.Specification
+
+/**
+ * Specification tests ValueOperatorsMetrics callbacks
+ *
+ * @author gt_tech
+ */
+class ValueOperatorsMetricsSpecs extends Specification {
+
+    def path = Expressions.stringPath('firstName')
+
+    def metrics = new RecordingMetrics()
+
+    def setup() {
+        ExpressionProviderFactory.setMetrics(metrics)
+    }
+
+    def cleanup() {
+        ExpressionProviderFactory.setMetrics(null)
+    }
+
+    def "it should record parse, build and operator usage"() {
+        when:
+        ExpressionProviderFactory.getPredicate(path, ['not(startsWith(Jo))', 'or(Joe)', 'Jim'])
+
+        then:
+        metrics.parses == 3
+        metrics.builds == [[StringPathExpressionProviderImpl, 'firstName', 3]]
+        metrics.operators == [Operator.NOT, Operator.STARTS_WITH, Operator.OR]
+    }
+
+    def "it should record provider cache access"() {
+        given:
+        def uncached = Expressions.stringPath('lastName' + System.nanoTime())
+
+        when:
+        ExpressionProviderFactory.getProvider(uncached)
+        ExpressionProviderFactory.getProvider(uncached)
+
+        then:
+        metrics.cacheAccesses == [[ValueOperatorsMetrics.PROVIDER_CACHE, false], [ValueOperatorsMetrics.PROVIDER_CACHE, true]]
+    }
+
+    def "it should record nothing once metrics are turned off"() {
+        given:
+        ExpressionProviderFactory.setMetrics(null)
+
+        when:
+        ExpressionProviderFactory.getPredicate(path, 'eq(Joe)')
+
+        then:
+        ExpressionProviderFactory.getMetrics().is(ValueOperatorsMetrics.NOOP)
+        metrics.parses == 0
+        metrics.builds.isEmpty()
+    }
+
+    // ============== START: Test/Stub classes ==============
+    static class RecordingMetrics implements ValueOperatorsMetrics {
+        int parses
+        List builds = []
+        List operators = []
+        List cacheAccesses = []
+
+        @Override
+        void recordParse(long nanos) {
+            assert nanos >= 0
+            parses++
+        }
+
+        @Override
+        void recordBuild(Class<?> providerType, String path, int valueCount, long nanos) {
+            builds << [providerType, path, valueCount]
+        }
+
+        @Override
+        void recordOperator(String path, Operator operator) {
+            operators << operator
+        }
+
+        @Override
+        void recordCacheAccess(String cache, boolean hit) {
+            cacheAccesses << [cache, hit]
+        }
+    }
+    // ============== STOP: Test/Stub classes ==============
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
+
+import com.querydsl.core.types.dsl.Expressions
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProviderFactory
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ValueOperatorsMetrics
+import org.springframework.dao.QueryTimeoutException
+import org.springframework.data.domain.Page
+import org.springframework.data.domain.PageImpl
+import org.springframework.data.domain.PageRequest
+import org.springframework.data.querydsl.QuerydslPredicateExecutor
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Specification tests CoalescingSearchExecutor
+ *
+ * @author gt_tech
+ */
+class CoalescingSearchExecutorSpecs extends Specification {
+
+    def userName = Expressions.stringPath('user.userName')
+    def executor = Mock(QuerydslPredicateExecutor)
+    def joined = new AtomicInteger()
+    def started = new CountDownLatch(1)
+    def release = new CountDownLatch(1)
+
+    def setup() {
+        ExpressionProviderFactory.setMetrics(new ValueOperatorsMetrics() {
+            @Override
+            void recordCacheAccess(String cache, boolean hit) {
+                if (cache == ValueOperatorsMetrics.SEARCH_FLIGHTS && hit) {
+                    joined.incrementAndGet()
+                }
+            }
+        })
+    }
+
+    def cleanup() {
+        release.countDown()
+        ExpressionProviderFactory.setMetrics(null)
+    }
+
+    def "it should execute identical concurrent searches once and share the result"() {
+        given:
+        def coalescer = new CoalescingSearchExecutor(Duration.ofSeconds(10), CoalescingSearchExecutor.FailurePolicy.PROPAGATE)
+        def page = new PageImpl(['a', 'b'])
+        def results = new ConcurrentLinkedQueue()
+
+        when:
+        def callers = (0..<5).collect { i ->
+            // same search with values in different order
+            def predicate = i % 2 ? userName.eq('a').or(userName.eq('b')) : userName.eq('b').or(userName.eq('a'))
+            Thread.start { results << coalescer.findAll(executor, String, predicate, PageRequest.of(0, 20)) }
+        }
+        awaitJoined(4)
+        release.countDown()
+        callers*.join()
+
+        then:
+        1 * executor.findAll(_, _) >> {
+            started.countDown()
+            release.await(10, TimeUnit.SECONDS)
+            page
+        }
+        results.size() == 5
+        results.every { it.is(page) }
+        coalescer.inFlightCount == 0
+    }
+
+    def "it should not coalesce searches of different pages"() {
+        given:
+        def coalescer = new CoalescingSearchExecutor(Duration.ofSeconds(10), CoalescingSearchExecutor.FailurePolicy.PROPAGATE)
+        def predicate = userName.eq('a')
+        def calls = new AtomicInteger()
+        def executor = blockingExecutor(calls, new PageImpl(['first']), new PageImpl(['other']))
+
+        when:
+        def leader = Thread.start { coalescer.findAll(executor, String, predicate, PageRequest.of(0, 20)) }
+        started.await(10, TimeUnit.SECONDS)
+        def other = coalescer.findAll(executor, String, predicate, PageRequest.of(1, 20))
+        release.countDown()
+        leader.join()
+
+        then:
+        calls.get() == 2
+        other.content == ['other']
+        joined.get() == 0
+    }
+
+    def "it should execute search on its own after maximum wait"() {
+        given:
+        def coalescer = new CoalescingSearchExecutor(Duration.ofMillis(50), CoalescingSearchExecutor.FailurePolicy.PROPAGATE)
+        def predicate = userName.eq('a')
+        def calls = new AtomicInteger()
+        def executor = blockingExecutor(calls, new PageImpl(['slow']), new PageImpl(['own']))
+
+        when:
+        def leader = Thread.start { coalescer.findAll(executor, String, predicate, PageRequest.of(0, 20)) }
+        started.await(10, TimeUnit.SECONDS)
+        def result = coalescer.findAll(executor, String, predicate, PageRequest.of(0, 20))
+        release.countDown()
+        leader.join()
+
+        then:
+        calls.get() == 2
+        result.content == ['own']
+        joined.get() == 1
+    }
+
+    def "it should propagate failure of search to waiting callers"() {
+        given:
+        def coalescer = new CoalescingSearchExecutor(Duration.ofSeconds(10), policy)
+        def predicate = userName.eq('a')
+        def failure = new QueryTimeoutException('timed out')
+        def error = null
+        def waiterError = null
+
+        when:
+        def leader = Thread.start {
+            try {
+                coalescer.findAll(executor, String, predicate, PageRequest.of(0, 20))
+            } catch (QueryTimeoutException e) {
+                error = e
+            }
+        }
+        started.await(10, TimeUnit.SECONDS)
+        def waiter = Thread.start {
+            try {
+                coalescer.findAll(executor, String, predicate, PageRequest.of(0, 20))
+            } catch (QueryTimeoutException e) {
+                waiterError = e
+            }
+        }
+        awaitJoined(1)
+        release.countDown()
+        leader.join()
+        waiter.join()
+
+        then:
+        1 * executor.findAll(predicate, _) >> {
+            started.countDown()
+            release.await(10, TimeUnit.SECONDS)
+            throw failure
+        }
+        retries * executor.findAll(predicate, _) >> new PageImpl(['retried'])
+        error.is(failure)
+        waiterError.is(failure) == !retries
+
+        where:
+        policy                                          | retries
+        CoalescingSearchExecutor.FailurePolicy.PROPAGATE | 0
+        CoalescingSearchExecutor.FailurePolicy.RETRY     | 1
+    }
+
+    def "it should coalesce paged searches of wrapped executor"() {
+        given:
+        def coalescer = new CoalescingSearchExecutor(Duration.ofSeconds(10), CoalescingSearchExecutor.FailurePolicy.PROPAGATE)
+        def wrapped = coalescer.wrap(executor, String)
+        def predicate = userName.eq('a')
+
+        when:
+        def callers = (0..<3).collect { Thread.start { wrapped.findAll(predicate, PageRequest.of(0, 20)) } }
+        awaitJoined(2)
+        release.countDown()
+        callers*.join()
+        wrapped.count(predicate)
+
+        then:
+        1 * executor.findAll(predicate, _) >> {
+            started.countDown()
+            release.await(10, TimeUnit.SECONDS)
+            new PageImpl([])
+        }
+        1 * executor.count(predicate) >> 0L
+        CoalescingSearchExecutor.DISABLED.wrap(executor, String).is(executor)
+    }
+
+    def "it should reject invalid configuration"() {
+        when:
+        new CoalescingSearchExecutor(maxWait, policy)
+
+        then:
+        thrown(exception)
+
+        where:
+        maxWait               | policy                                       | exception
+        null                  | CoalescingSearchExecutor.FailurePolicy.RETRY | NullPointerException
+        Duration.ofMillis(-1) | CoalescingSearchExecutor.FailurePolicy.RETRY | IllegalArgumentException
+        Duration.ofSeconds(1) | null                                         | NullPointerException
+    }
+
+    /*
+     * Spock mocks handle one invocation at a time, so searches executing
+     * concurrently use this instead. The first search blocks until released.
+     */
+    private QuerydslPredicateExecutor blockingExecutor(AtomicInteger calls, Page first, Page others) {
+        [findAll: { predicate, pageable ->
+            if (calls.getAndIncrement() == 0) {
+                started.countDown()
+                release.await(10, TimeUnit.SECONDS)
+                return first
+            }
+            others
+        }] as QuerydslPredicateExecutor
+    }
+
+    private void awaitJoined(int callers) {
+        def deadline = System.currentTimeMillis() + 10_000
+        while (joined.get() < callers && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5)
+        }
+    }
+}
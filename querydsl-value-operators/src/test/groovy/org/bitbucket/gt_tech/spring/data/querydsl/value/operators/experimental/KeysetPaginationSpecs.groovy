@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
+
+import com.querydsl.core.types.Constant
+import com.querydsl.core.types.Expression
+import com.querydsl.core.types.Operation
+import com.querydsl.core.types.PathMetadataFactory
+import com.querydsl.core.types.Predicate
+import com.querydsl.core.types.dsl.EntityPathBase
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.Profile
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.QUser
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.UserStatus
+import org.springframework.data.domain.PageImpl
+import org.springframework.data.domain.Pageable
+import org.springframework.data.domain.Sort
+import org.springframework.data.querydsl.QuerydslPredicateExecutor
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.time.DateTimeException
+import java.time.LocalDate
+
+/**
+ * Specification tests KeysetPagination
+ *
+ * @author gt_tech
+ */
+class KeysetPaginationSpecs extends Specification {
+
+    def pagination = new KeysetPagination(User, '_id')
+    def query = Mock(KeysetPagination.Query)
+    def filter = QUser.user.status.eq(UserStatus.ACTIVE)
+
+    def "it should fetch first page with one extra row and hand out cursor of last row"() {
+        given:
+        def sort = Sort.by('profile.lastName')
+
+        when:
+        def page = pagination.findAll(query, filter, sort, 2, null)
+
+        then:
+        1 * query.fetch({ it.toString() == filter.toString() }, Sort.by('profile.lastName', '_id'), 3) >> [
+                user(1, 'Adams'), user(2, 'Baker'), user(3, 'Baker')]
+        page.content*._id == [1, 2]
+        page.hasNext()
+        page.nextCursor ==~ /[A-Za-z0-9_-]+/
+    }
+
+    def "it should continue after sort values of last row of previous page"() {
+        given:
+        def sort = Sort.by(Sort.Order.asc('profile.lastName'), Sort.Order.desc('creationDate'))
+        def cursor = firstPage(sort, user(7, 'Baker', new Date(1554000000123L)))
+        Predicate seek = null
+
+        when:
+        def page = pagination.findAll(query, filter, sort, 1, cursor)
+
+        then:
+        1 * query.fetch(_, _, 2) >> { p, s, l ->
+            seek = p
+            [user(8, 'Baker')]
+        }
+        seek.toString() == filter.toString() + ' && (user.profile.lastName > Baker' +
+                ' || user.profile.lastName = Baker && user.creationDate < ' + new Date(1554000000123L) +
+                ' || user.profile.lastName = Baker && user.creationDate = ' + new Date(1554000000123L) +
+                ' && user._id > 7)'
+        constants(seek.value).findAll { it instanceof Date }*.time == [1554000000123L] * 2
+        page.content*._id == [8]
+        !page.hasNext()
+        page.nextCursor == null
+    }
+
+    def "it should page through executor without skipping rows"() {
+        given:
+        def executor = Mock(QuerydslPredicateExecutor)
+
+        when:
+        def page = pagination.findAll(executor, null, null, 1, null)
+
+        then:
+        1 * executor.findAll(_ as Predicate, { Pageable p -> p.offset == 0 && p.pageSize == 2 && p.sort == Sort.by(
+                '_id') }) >> new PageImpl([user(1, 'Adams'), user(2, 'Baker')])
+        page.content*._id == [1]
+        page.hasNext()
+    }
+
+    def "it should reject cursor of another sort or one that's malformed"() {
+        given:
+        def cursor = firstPage(Sort.by('profile.lastName'), user(1, 'Adams'))
+
+        when:
+        pagination.findAll(query, filter, Sort.by('userName'), 1, value ?: cursor)
+
+        then:
+        thrown(IllegalArgumentException)
+        0 * query.fetch(*_)
+
+        where:
+        value << [null, 'not-a-cursor', '#', 'AQ']
+    }
+
+    def "it should reject sort properties it can't seek on"() {
+        when:
+        pagination.getSort(sort)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        sort << [Sort.by('unknown'), Sort.by('emails'), Sort.by(Sort.Order.asc('userName').ignoreCase())]
+    }
+
+    def "it should refuse to create cursor from null sort value"() {
+        when:
+        pagination.findAll(query, null, Sort.by('userName'), 1, null)
+
+        then:
+        1 * query.fetch(*_) >> [user(1, 'Adams'), user(2, 'Baker')]
+        thrown(IllegalStateException)
+    }
+
+    def "it should stream all results fetching a page only when previous one is consumed"() {
+        when:
+        def stream = pagination.stream(query, filter, Sort.by('profile.lastName'), 2)
+
+        then:
+        0 * query.fetch(*_)
+
+        when:
+        def iterator = stream.iterator()
+        def first = [iterator.next(), iterator.next()]
+
+        then:
+        1 * query.fetch(_, _, 3) >> [user(1, 'Adams'), user(2, 'Baker'), user(3, 'Baker')]
+        first*._id == [1, 2]
+
+        when:
+        def rest = iterator.collect()
+
+        then:
+        1 * query.fetch({ it.toString().contains('user._id > 2') }, _, 3) >> [user(3, 'Baker')]
+        rest*._id == [3]
+    }
+
+    def "it should reject cursor with a corrupted temporal value"() {
+        given:
+        def events = new KeysetPagination(Event, 'id')
+        def sort = Sort.by('day')
+        def first = Mock(KeysetPagination.Query) {
+            fetch(*_) >> [new Event(id: 1, day: LocalDate.of(2019, 3, 31)), new Event(id: 2, day: LocalDate.of(2019, 4, 1))]
+        }
+        def cursor = events.findAll(first, null, sort, 1, null).nextCursor
+        def bytes = new String(Base64.urlDecoder.decode(cursor), StandardCharsets.ISO_8859_1)
+        def corrupted = Base64.urlEncoder.withoutPadding().encodeToString(
+                bytes.replace('2019-03-31', '2019-02-30').getBytes(StandardCharsets.ISO_8859_1))
+
+        when:
+        events.findAll(query, null, sort, 1, corrupted)
+
+        then:
+        bytes.contains('2019-03-31')
+        def e = thrown(IllegalArgumentException)
+        e.cause instanceof DateTimeException
+        0 * query.fetch(*_)
+    }
+
+    private String firstPage(Sort sort, User last) {
+        def pagination = new KeysetPagination(User, '_id')
+        def first = Mock(KeysetPagination.Query) {
+            fetch(*_) >> [last, user(last._id + 1, 'Zed')]
+        }
+        pagination.findAll(first, null, sort, 1, null).nextCursor
+    }
+
+    private static List constants(Expression expression) {
+        expression instanceof Operation ? expression.args.collectMany { constants(it) } :
+                expression instanceof Constant ? [expression.constant] : []
+    }
+
+    private static User user(int id, String lastName, Date creationDate = new Date(0)) {
+        new User(_id: id, profile: new Profile(lastName: lastName), creationDate: creationDate)
+    }
+
+    // ============== START: Test/Stub classes ==============
+    static class Event {
+        Integer id
+        LocalDate day
+    }
+    // ============== STOP: Test/Stub classes ==============
+}
+
+/*
+ * Query type of KeysetPaginationSpecs.Event as generated by querydsl-apt, resolved by its name
+ */
+class QKeysetPaginationSpecs_Event extends EntityPathBase<KeysetPaginationSpecs.Event> {
+
+    public static final QKeysetPaginationSpecs_Event event = new QKeysetPaginationSpecs_Event('event')
+
+    QKeysetPaginationSpecs_Event(String variable) {
+        super(KeysetPaginationSpecs.Event, PathMetadataFactory.forVariable(variable))
+    }
+}
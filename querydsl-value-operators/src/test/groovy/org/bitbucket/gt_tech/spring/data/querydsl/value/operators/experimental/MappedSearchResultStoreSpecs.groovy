@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
+
+import org.springframework.data.domain.PageImpl
+import org.springframework.data.domain.PageRequest
+import org.springframework.data.domain.Sort
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * Specification tests MappedSearchResultStore
+ *
+ * @author gt_tech
+ */
+class MappedSearchResultStoreSpecs extends Specification {
+
+    Path directory = Files.createTempDirectory('search-results')
+
+    List<MappedSearchResultStore> stores = []
+
+    def cleanup() {
+        stores.each { it.close() }
+        directory.toFile().deleteDir()
+    }
+
+    def "it should store and read back pages"() {
+        given:
+        def store = open()
+        def page = new PageImpl(['a', 'b'], PageRequest.of(1, 2, Sort.by('userName')), 10)
+
+        when:
+        store.put('users|a', page, 1000)
+        def result = store.get(String, 'users|a', 0)
+
+        then:
+        result.content == ['a', 'b']
+        result.pageable == PageRequest.of(1, 2, Sort.by('userName'))
+        result.totalElements == 10
+
+        and: 'nothing for other keys'
+        store.get(String, 'users|b', 0) == null
+    }
+
+    def "it should replace page stored under same key"() {
+        given:
+        def store = open()
+
+        when:
+        store.put('k', new PageImpl(['old']), 1000)
+        store.put('k', new PageImpl(['new']), 1001)
+
+        then:
+        store.get(String, 'k', 0).content == ['new']
+    }
+
+    def "it should ignore pages written before supplied time"() {
+        given:
+        def store = open()
+        store.put('k', new PageImpl(['a']), 1000)
+
+        expect:
+        store.get(String, 'k', 1000) != null
+        store.get(String, 'k', 1001) == null
+    }
+
+    def "it should serve stored pages after restart"() {
+        given:
+        def store = open()
+        store.put('k', new PageImpl(['a']), 1000)
+        store.close()
+
+        when:
+        store = open()
+
+        then:
+        store.get(String, 'k', 0).content == ['a']
+    }
+
+    def "it should invalidate pages persistently"() {
+        given:
+        def store = open()
+        def now = System.currentTimeMillis()
+        store.put('k', new PageImpl(['a']), now - 1)
+        store.invalidateAll()
+
+        expect:
+        store.get(String, 'k', 0) == null
+
+        when: 'page of a search started before invalidation is stored'
+        store.put('k', new PageImpl(['b']), now - 1)
+        store.close()
+        store = open()
+
+        then:
+        store.get(String, 'k', 0) == null
+    }
+
+    def "it should overwrite oldest pages once full"() {
+        given:
+        def store = open(4096, 64)
+
+        when:
+        (0..<100).each { store.put("k$it" as String, new PageImpl(["value-$it" as String]), 1000) }
+
+        then:
+        store.get(String, 'k0', 0) == null
+        store.get(String, 'k99', 0).content == ['value-99']
+        (0..<100).count { store.get(String, "k$it" as String, 0) != null } < 100
+    }
+
+    def "it should not store pages that can't be encoded or exceed capacity"() {
+        given:
+        def store = open(1024, 16)
+
+        when:
+        store.put('k1', new PageImpl([new Object()]), 1000)
+        store.put('k2', new PageImpl(['x' * 2048]), 1000)
+
+        then:
+        store.get(Object, 'k1', 0) == null
+        store.get(String, 'k2', 0) == null
+    }
+
+    def "it should only decode classes expected in search results of domain type"() {
+        given:
+        def store = open()
+        def uri = new URI('http://localhost/users')
+        store.put('k', new PageImpl([uri], PageRequest.of(0, 1, Sort.by('userName')), 1), 1000)
+
+        expect:
+        store.get(URI, 'k', 0).content == [uri]
+        store.get(Object, 'k', 0) == null
+        store.get(String, 'k', 0) == null
+    }
+
+    def "it should ignore corrupted pages"() {
+        given:
+        def store = open()
+        store.put('k', new PageImpl(['abcdef']), 1000)
+        store.close()
+        def file = directory.resolve(MappedSearchResultStore.DATA_FILE)
+        def bytes = Files.readAllBytes(file)
+        def offset = new String(bytes, 'ISO-8859-1').indexOf('abcdef')
+        bytes[offset] = (byte) 'x'
+        Files.write(file, bytes)
+
+        expect:
+        open().get(String, 'k', 0) == null
+    }
+
+    def "it should re-create files of a different configuration"() {
+        given:
+        def store = open()
+        store.put('k', new PageImpl(['a']), 1000)
+        store.close()
+
+        expect:
+        open(1 << 16, 64).get(String, 'k', 0) == null
+    }
+
+    def "it should not open a directory in use"() {
+        given:
+        open()
+
+        when:
+        open()
+
+        then:
+        thrown(IOException)
+    }
+
+    private MappedSearchResultStore open(int capacity = 1 << 20, int slots = 1024) {
+        def store = new MappedSearchResultStore(directory, capacity, slots, SearchResultCodec.SERIALIZATION)
+        stores << store
+        store
+    }
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.SerializationFeature
+import spock.lang.Specification
+
+import java.util.stream.Stream
+
+/**
+ * Specification tests NdjsonSearchExport
+ *
+ * @author gt_tech
+ */
+class NdjsonSearchExportSpecs extends Specification {
+
+    def mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+
+    def "it should write one JSON document per line and close the stream"() {
+        given:
+        def closed = false
+        def results = Stream.of([id: 1, name: 'a'], [id: 2, tags: ['x', 'y']]).onClose { closed = true }
+        def out = new ByteArrayOutputStream()
+
+        when:
+        def count = new NdjsonSearchExport(mapper, 10).write(results, out)
+
+        then:
+        count == 2
+        out.toString('UTF-8') == '{"id":1,"name":"a"}\n{"id":2,"tags":["x","y"]}\n'
+        closed
+    }
+
+    def "it should flush every flush interval results and leave output open"() {
+        given:
+        def out = Spy(ByteArrayOutputStream)
+
+        when:
+        def count = new NdjsonSearchExport(mapper, 2).write(Stream.of(1, 2, 3, 4, 5), out)
+
+        then:
+        count == 5
+        (3.._) * out.flush()
+        0 * out.close()
+        out.toString('UTF-8').readLines() == ['1', '2', '3', '4', '5']
+    }
+
+    def "it should close the stream when writing fails"() {
+        given:
+        def closed = false
+        def results = Stream.of(1, 2).onClose { closed = true }
+        def out = Mock(OutputStream) {
+            write(*_) >> { throw new IOException('Broken pipe') }
+        }
+
+        when:
+        new NdjsonSearchExport(mapper, 1).write(results, out)
+
+        then:
+        thrown(IOException)
+        closed
+    }
+
+    def "it should write nothing for no results"() {
+        given:
+        def out = new ByteArrayOutputStream()
+
+        expect:
+        new NdjsonSearchExport(mapper, 1).write(Stream.empty(), out) == 0
+        out.size() == 0
+    }
+}
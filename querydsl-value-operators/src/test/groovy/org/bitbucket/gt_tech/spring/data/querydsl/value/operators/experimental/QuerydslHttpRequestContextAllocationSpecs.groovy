@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
+
+import com.querydsl.core.types.EntityPath
+import com.querydsl.core.types.dsl.Expressions
+import groovy.transform.CompileStatic
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.AllocationMeter
+import org.springframework.mock.web.MockHttpServletRequest
+import spock.lang.Requires
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+/**
+ * Specification guards per-call allocation of creating a
+ * QuerydslHttpRequestContext and transforming all request parameters through
+ * it, as done once per search request, see {@link AllocationMeter}.
+ *
+ * @author gt_tech
+ */
+@Requires({ AllocationMeter.isSupported() && AllocationMeter.isCalibrated() })
+class QuerydslHttpRequestContextAllocationSpecs extends Specification {
+
+    static final EntityPath<?> ROOT = Expressions.path(User, 'user') as EntityPath<?>
+
+    static final Map<String, String[]> PARAMETERS = [
+            'userName'         : ['dgayle', 'ci(eq(SsmiTh))'] as String[],
+            'profile.firstName': ['and(not(startsWith(Harr)))'] as String[],
+            'profile.age'      : ['gte(27)'] as String[],
+            'status'           : ['ne(LOCKED)'] as String[]
+    ]
+
+    def "context creation from parameters should allocate within budget"() {
+        when:
+        long allocated = AllocationMeter.bytesPerCall(new TransformAll(PARAMETERS, null))
+
+        then:
+        assert allocated <= AllocationMeter.budget('context.parameters'), "allocation context.parameters: $allocated bytes/call"
+    }
+
+    def "context creation from servlet request should allocate within budget"() {
+        given:
+        def request = new MockHttpServletRequest()
+        request.addParameters(PARAMETERS)
+
+        when:
+        long allocated = AllocationMeter.bytesPerCall(new TransformAll(null, request))
+
+        then:
+        assert allocated <= AllocationMeter.budget('context.servletRequest'), "allocation context.servletRequest: $allocated bytes/call"
+    }
+
+    // ============== START: Test/Stub classes ==============
+    static class User {}
+
+    @CompileStatic
+    static class TransformAll implements Supplier<Object> {
+        private final Map<String, String[]> parameters
+        private final MockHttpServletRequest request
+
+        TransformAll(Map<String, String[]> parameters, MockHttpServletRequest request) {
+            this.parameters = parameters
+            this.request = request
+        }
+
+        @Override
+        Object get() {
+            QuerydslHttpRequestContext context = request != null ? new QuerydslHttpRequestContext(ROOT, request)
+                    : new QuerydslHttpRequestContext(ROOT, parameters)
+            Object last = null
+            for (String name : context.getParameterNames()) {
+                last = context.getTransformedValues(name)
+            }
+            return last
+        }
+    }
+    // ============== STOP: Test/Stub classes ==============
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.QUser
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest
+import org.springframework.mock.web.server.MockServerWebExchange
+import org.springframework.web.server.WebFilterChain
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+/**
+ * Specification tests QuerydslHttpRequestContextAwareWebFilter
+ *
+ * @author gt_tech
+ */
+class QuerydslHttpRequestContextAwareWebFilterSpecs extends Specification {
+
+    def filter = new QuerydslHttpRequestContextAwareWebFilter(['/users/search': User.class])
+
+    /*
+     * Chain capturing the QuerydslHttpRequestContext from Reactor context it's
+     * subscribed with.
+     */
+    def captured = []
+    def chain = { exchange ->
+        Mono.subscriberContext().doOnNext { ctx ->
+            captured << ctx.getOrDefault(QuerydslHttpRequestContext.class, null)
+        }.then()
+    } as WebFilterChain
+
+    def "it must put context in Reactor context for mapped URI"() {
+        given:
+        def exchange = MockServerWebExchange.from(MockServerHttpRequest.get('/Users/search')
+                .queryParam('profile.age', 'gte(27)')
+                .queryParam('profile.firstName', 'eq(John)', 'and(not(startsWith(Harr)))'))
+
+        when:
+        filter.filter(exchange, chain).block()
+
+        then:
+        captured.size() == 1
+        def context = captured[0] as QuerydslHttpRequestContext
+        context.getRoot() == QUser.user
+        context.getParameterNames() == ['profile.age', 'profile.firstName'] as Set
+        context.getTransformedValues('profile.age') == ['27'] as String[]
+        context.getSingleValue(QUser.user.profile.firstName) == 'eq(John)'
+        context.getAllValues(QUser.user.profile.firstName).size() == 2
+    }
+
+    def "it must be a no-op for URI not mapped"() {
+        given:
+        def exchange = MockServerWebExchange.from(MockServerHttpRequest.get('/accounts/search')
+                .queryParam('profile.age', 'gte(27)'))
+
+        when:
+        filter.filter(exchange, chain).block()
+
+        then:
+        captured == [null]
+    }
+}
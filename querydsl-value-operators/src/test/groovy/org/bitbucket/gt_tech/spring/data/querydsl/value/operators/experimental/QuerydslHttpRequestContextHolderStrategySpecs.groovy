@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.QUser
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User
+import org.springframework.mock.web.MockFilterChain
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+
+import javax.servlet.DispatcherType
+import javax.servlet.ServletRequest
+import javax.servlet.ServletResponse
+import javax.servlet.http.HttpServlet
+
+/**
+ * Specification tests scoped binding of QuerydslHttpRequestContext by
+ * QuerydslHttpRequestContextHolderStrategy(s)
+ *
+ * @author gt_tech
+ */
+class QuerydslHttpRequestContextHolderStrategySpecs extends Specification {
+
+    def context = new QuerydslHttpRequestContext(QUser.user, ['profile.age': ['gte(27)'] as String[]])
+
+    def other = new QuerydslHttpRequestContext(QUser.user, ['profile.age': ['lt(27)'] as String[]])
+
+    @Unroll
+    def "it must bind context only for the duration of call with #strategy.class.simpleName"() {
+        when:
+        def bound = strategy.callWithContext(context, { strategy.getContext() })
+
+        then:
+        bound.is(context)
+        strategy.getContext() == null
+
+        when:
+        strategy.setContext(other)
+        bound = strategy.callWithContext(context, { strategy.getContext() })
+
+        then: 'previous context is restored'
+        bound.is(context)
+        strategy.getContext().is(other)
+
+        cleanup:
+        strategy.clearContext()
+
+        where:
+        strategy << [new ThreadLocalQuerydslHttpRequestContextHolderStrategy(false),
+                     new ThreadLocalQuerydslHttpRequestContextHolderStrategy(true),
+                     new ScopedValueQuerydslHttpRequestContextHolderStrategy()]
+    }
+
+    def "it must propagate exception thrown by call and unbind context"() {
+        given:
+        def strategy = new ScopedValueQuerydslHttpRequestContextHolderStrategy()
+
+        when:
+        strategy.callWithContext(context, { throw new IOException('failed') })
+
+        then:
+        thrown IOException
+        strategy.getContext() == null
+    }
+
+    def "it must bind context for the duration of filter chain only"() {
+        given:
+        def filter = new QuerydslHttpRequestContextAwareServletFilter(['/users/search': User.class])
+        def request = new MockHttpServletRequest('GET', '/users/search')
+        request.addParameter('profile.age', 'gte(27)')
+        QuerydslHttpRequestContext bound = null
+        def servlet = new HttpServlet() {
+            @Override
+            void service(ServletRequest req, ServletResponse res) {
+                bound = QuerydslHttpRequestContextHolder.getContext()
+            }
+        }
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(servlet))
+
+        then:
+        bound != null
+        bound.getSingleValue(QUser.user.profile.age) == 'gte(27)'
+        QuerydslHttpRequestContextHolder.getContext() == null
+    }
+
+    def "it must reuse context of request on async dispatch"() {
+        given:
+        def filter = new QuerydslHttpRequestContextAwareServletFilter(['/users/search': User.class])
+        def request = new MockHttpServletRequest('GET', '/users/search')
+        request.addParameter('profile.age', 'gte(27)')
+        def bound = []
+        def servlet = new HttpServlet() {
+            @Override
+            void service(ServletRequest req, ServletResponse res) {
+                bound << QuerydslHttpRequestContextHolder.getContext()
+            }
+        }
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(servlet))
+        request.setDispatcherType(DispatcherType.ASYNC)
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(servlet))
+
+        then:
+        bound.size() == 2
+        bound[0] != null
+        bound[1].is(bound[0])
+        request.getAttribute(QuerydslHttpRequestContextAwareServletFilter.CONTEXT_ATTRIBUTE).is(bound[0])
+    }
+
+    def "it must propagate context to tasks executed on other threads"() {
+        given:
+        def pool = Executors.newSingleThreadExecutor()
+        def executor = new QuerydslHttpRequestContextAwareExecutor(pool)
+
+        when: 'task is submitted while context is bound'
+        def propagated = QuerydslHttpRequestContextHolder.callWithContext(context, {
+            CompletableFuture.supplyAsync({ QuerydslHttpRequestContextHolder.getContext() }, executor)
+        }).get()
+
+        then:
+        propagated.is(context)
+
+        and: 'pooled thread does not retain it'
+        CompletableFuture.supplyAsync({ QuerydslHttpRequestContextHolder.getContext() }, pool).get() == null
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "it must propagate context to tasks running after request is recycled"() {
+        given:
+        def filter = new QuerydslHttpRequestContextAwareServletFilter(['/users/search': User.class])
+        def request = new MockHttpServletRequest('GET', '/users/search')
+        request.addParameter('profile.age', 'gte(27)')
+        Runnable task = null
+        String value = null
+        def servlet = new HttpServlet() {
+            @Override
+            void service(ServletRequest req, ServletResponse res) {
+                task = new QuerydslHttpRequestContextTaskDecorator().decorate({
+                    value = QuerydslHttpRequestContextHolder.getContext().getSingleValue(QUser.user.profile.age)
+                } as Runnable)
+            }
+        }
+
+        when: 'task runs once request completed and container cleared it\'s parameters'
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(servlet))
+        request.removeAllParameters()
+        def thread = Thread.start { task.run() }
+        thread.join()
+
+        then:
+        value == 'gte(27)'
+    }
+
+    def "it must not decorate task when no context is bound"() {
+        given:
+        def task = {} as Runnable
+
+        expect:
+        new QuerydslHttpRequestContextTaskDecorator().decorate(task).is(task)
+    }
+}
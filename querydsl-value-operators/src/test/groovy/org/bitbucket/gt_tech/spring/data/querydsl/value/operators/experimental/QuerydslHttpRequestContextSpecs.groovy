@@ -17,10 +17,15 @@ package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
 
 import com.querydsl.core.types.EntityPath
 import com.querydsl.core.types.Path
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.Operator
 import org.springframework.mock.web.MockHttpServletRequest
 import spock.lang.Specification
 
 import javax.servlet.http.HttpServletRequest
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 
 /**
  * Specification tests QuerydslHttpRequestContext
@@ -46,13 +51,26 @@ class QuerydslHttpRequestContextSpecs extends Specification {
         mockHttpServletRequest.addParameters(parameters)
 
         context = new QuerydslHttpRequestContext(rootPath, mockHttpServletRequest)
-        wrappedRequest = context.getWrappedHttpServletRequest()
+        wrappedRequest = context.getWrappedHttpServletRequest(mockHttpServletRequest)
     }
 
     def "it must return a wrapped request"() {
         expect:
         !(wrappedRequest.is(mockHttpServletRequest))
-        context.getOriginalHttpServletRequest().is(mockHttpServletRequest)
+        wrappedRequest.getRequest().is(mockHttpServletRequest)
+    }
+
+    def "it must not retain request or it's parameters"() {
+        expect:
+        !QuerydslHttpRequestContext.declaredFields.any { HttpServletRequest.isAssignableFrom(it.type) }
+
+        when: 'request is recycled by container'
+        mockHttpServletRequest.removeAllParameters()
+
+        then:
+        context.getAllValues(agePath) == ['gte(27)'] as String[]
+        context.getParsedValues(firstNamePath)*.getTrueValue() == ['John', 'Harr']
+        wrappedRequest.getParameter('profile.age') == '27'
     }
 
     def "it must return transformed parameter values"() {
@@ -60,6 +78,51 @@ class QuerydslHttpRequestContextSpecs extends Specification {
         wrappedRequest.getParameter('profile.age') == '27'
         wrappedRequest.getParameter('profile.lastName') == 'Doe'
         wrappedRequest.getParameterValues('profile.firstName')[0..1] == ['John', 'Harr'] as String[]
+
+        and: 'nothing for absent parameters'
+        wrappedRequest.getParameter('cursor') == null
+        wrappedRequest.getParameterValues('cursor') == null
+    }
+
+    def "it must transform parameter values only when requested"() {
+        expect:
+        context.transformed_parameters.isEmpty()
+
+        when:
+        wrappedRequest.getParameter('profile.age')
+
+        then:
+        context.transformed_parameters.keySet() == ['profile.age'] as Set
+    }
+
+    def "it must return the same unmodifiable parameter map on every call"() {
+        when:
+        def parameterMap = wrappedRequest.getParameterMap()
+
+        then:
+        parameterMap.is(wrappedRequest.getParameterMap())
+        parameterMap['profile.age'].is(wrappedRequest.getParameterValues('profile.age'))
+        parameterMap['profile.firstName'] == ['John', 'Harr'] as String[]
+
+        when:
+        parameterMap.put('profile.age', ['28'] as String[])
+
+        then:
+        thrown UnsupportedOperationException
+    }
+
+    def "it must return parsed parameter values for firstName"() {
+        when:
+        def parsed = context.getParsedValues(firstNamePath)
+
+        then:
+        parsed.size() == 2
+        parsed[0].getOperator() == Operator.EQUAL
+        parsed[1].getOperator() == Operator.AND
+        parsed*.getTrueValue() == ['John', 'Harr']
+        // parsed once and shared with subsequent lookups
+        parsed.is(context.getParsedValues(firstNamePath))
+        context.getParsedValues(agePath)[0].getOperator() == Operator.GREATER_THAN_OR_EQUAL
     }
 
     def "it must return original parameter values for agePath"() {
@@ -83,6 +146,36 @@ class QuerydslHttpRequestContextSpecs extends Specification {
         context.getAllValues(lastNamePath)[0] == 'Doe'
     }
 
+    def "it must memoize each parameter exactly once when shared by concurrent threads"() {
+        given:
+        def parameters = (0..<200).collectEntries { ["profile.p$it".toString(), ["gte($it)"] as String[]] }
+        def shared = new QuerydslHttpRequestContext(rootPath, parameters)
+        def paths = parameters.keySet().collect { name -> [toString: { "user.$name".toString() }, getRoot: { rootPath }] as Path }
+        def threads = 8
+        def start = new CountDownLatch(1)
+        def pool = Executors.newFixedThreadPool(threads)
+
+        when:
+        def futures = (0..<threads).collect {
+            pool.submit({
+                start.await()
+                paths.collect { [shared.getParsedValues(it), shared.getTransformedValues(it.toString() - 'user.')] }
+            } as Callable)
+        }
+        start.countDown()
+        def results = futures*.get(10, TimeUnit.SECONDS)
+        pool.shutdown()
+
+        then:
+        shared.parsed_path_values.size() == 200
+        shared.parsed_parameters.size() == 200
+        shared.transformed_parameters.size() == 200
+        (0..<200).every { i ->
+            results.every { it[i][0].is(results[0][i][0]) && it[i][1].is(results[0][i][1]) } &&
+                    results[0][i][1] == [String.valueOf(i)] as String[]
+        }
+    }
+
     // ============== START: Test/Stub classes ==============
     static class User {}
     // ============== STOP: Test/Stub classes ==============
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
+
+import com.querydsl.core.BooleanBuilder
+import com.querydsl.core.types.Predicate
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProviderFactory
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.QUser
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User
+import org.springframework.core.MethodParameter
+import org.springframework.data.querydsl.SimpleEntityPathResolver
+import org.springframework.data.querydsl.binding.QuerydslBinderCustomizer
+import org.springframework.data.querydsl.binding.QuerydslBindings
+import org.springframework.data.querydsl.binding.QuerydslBindingsFactory
+import org.springframework.data.querydsl.binding.QuerydslPredicate
+import org.springframework.format.support.DefaultFormattingConversionService
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest
+import org.springframework.mock.web.server.MockServerWebExchange
+import org.springframework.web.reactive.BindingContext
+import spock.lang.Specification
+
+/**
+ * Specification tests ReactiveQuerydslPredicateArgumentResolver
+ *
+ * @author gt_tech
+ */
+class ReactiveQuerydslPredicateArgumentResolverSpecs extends Specification {
+
+    def resolver = new ReactiveQuerydslPredicateArgumentResolver(new QuerydslBindingsFactory(
+            SimpleEntityPathResolver.INSTANCE), new DefaultFormattingConversionService())
+
+    def parameter = new MethodParameter(UserSearchController.getMethod('search', Predicate), 0)
+
+    def "it must build predicate from request when Reactor context has none"() {
+        given:
+        def exchange = MockServerWebExchange.from(MockServerHttpRequest.get('/users/search')
+                .queryParam('status', 'ne(LOCKED)')
+                .queryParam('profile.age', 'gte(35)'))
+
+        when:
+        def predicate = resolver.resolveArgument(parameter, new BindingContext(), exchange).block()
+
+        then:
+        resolver.supportsParameter(parameter)
+        predicate.toString().contains('user.status != LOCKED')
+        predicate.toString().contains('user.profile.age >= 35')
+        QuerydslHttpRequestContextHolder.getContext() == null
+    }
+
+    def "it must build predicate using context from Reactor context"() {
+        given:
+        def exchange = MockServerWebExchange.from(MockServerHttpRequest.get('/users/search')
+                .queryParam('profile.age', '35'))
+        def context = new QuerydslHttpRequestContext(QUser.user, ['profile.age': ['lt(35)'] as String[]])
+
+        when:
+        def predicate = resolver.resolveArgument(parameter, new BindingContext(), exchange)
+                .subscriberContext { it.put(QuerydslHttpRequestContext, context) }
+                .block()
+
+        then:
+        predicate.toString() == 'user.profile.age < 35'
+    }
+
+    def "it must resolve empty predicate when no parameter is bound"() {
+        given:
+        def exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri))
+
+        when:
+        def predicate = resolver.resolveArgument(parameter, new BindingContext(), exchange).block()
+
+        then:
+        predicate instanceof BooleanBuilder
+        !predicate.hasValue()
+
+        where:
+        uri << ['/users/search', '/users/search?page=1&size=20']
+    }
+
+    // ============== START: Test/Stub classes ==============
+    static class UserSearchController {
+        List<User> search(@QuerydslPredicate(root = User, bindings = UserBindings) Predicate predicate) {
+            []
+        }
+    }
+
+    static class UserBindings implements QuerydslBinderCustomizer<QUser> {
+        @Override
+        void customize(QuerydslBindings bindings, QUser root) {
+            bindings.bind(root.status).all({ path, values -> ExpressionProviderFactory.getPredicate(path, values) })
+            bindings.bind(root.profile.age).all({ path, values -> ExpressionProviderFactory.getPredicate(path, values) })
+        }
+    }
+    // ============== STOP: Test/Stub classes ==============
+}
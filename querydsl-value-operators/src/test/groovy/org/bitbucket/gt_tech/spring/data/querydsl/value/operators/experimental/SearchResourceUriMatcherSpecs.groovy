@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * Specification tests SearchResourceUriMatcher
+ *
+ * @author gt_tech
+ */
+class SearchResourceUriMatcherSpecs extends Specification {
+
+    def matcher = new SearchResourceUriMatcher<String>([
+            '/users/search'                   : 'users',
+            '/tenants/{id}/employees/search'  : 'tenant-employees',
+            '/tenants/main/employees/search'  : 'main-employees',
+            '/tenants/*/departments/search'   : 'tenant-departments',
+            '/archive/**'                     : 'archive'
+    ])
+
+    @Unroll
+    def "it should match uri '#uri' to '#resource'"() {
+        expect:
+        matcher.match(uri) == resource
+        where:
+        uri                                  | resource
+        '/users/search'                      | 'users'
+        '/USERS/Search'                      | 'users'
+        '/tenants/42/employees/search'       | 'tenant-employees'
+        '/tenants/MAIN/employees/search'     | 'main-employees'
+        '/tenants/42/departments/search'     | 'tenant-departments'
+        '/archive'                           | 'archive'
+        '/archive/2018/users/search'         | 'archive'
+        '/users/search/'                     | null
+        '/users'                             | null
+        '/tenants//employees/search'         | null
+        '/tenants/42/employees'              | null
+        null                                 | null
+    }
+
+    def "it should reject multi segment wildcard in the middle of uri"() {
+        when:
+        new SearchResourceUriMatcher<String>(['/archive/**/search': 'archive'])
+        then:
+        thrown IllegalArgumentException
+    }
+}
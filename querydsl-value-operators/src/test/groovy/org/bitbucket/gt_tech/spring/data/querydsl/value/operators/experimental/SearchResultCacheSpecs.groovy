@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
+
+import com.querydsl.core.types.Predicate
+import com.querydsl.core.types.dsl.Expressions
+import org.springframework.data.domain.PageImpl
+import org.springframework.data.domain.PageRequest
+import org.springframework.data.domain.Pageable
+import org.springframework.data.domain.Sort
+import org.springframework.data.querydsl.QuerydslPredicateExecutor
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.time.Duration
+
+/**
+ * Specification tests SearchResultCache
+ *
+ * @author gt_tech
+ */
+class SearchResultCacheSpecs extends Specification {
+
+    def userName = Expressions.stringPath('user.userName')
+    def executor = Mock(QuerydslPredicateExecutor)
+
+    def "it should serve the same search from cache regardless of order of values"() {
+        given:
+        def cache = new SearchResultCache(10, Duration.ofMinutes(1))
+        def page = new PageImpl(['a', 'b'])
+
+        when:
+        def first = cache.findAll(executor, String, userName.eq('a').or(userName.eq('b')), PageRequest.of(0, 20))
+        def second = cache.findAll(executor, String, userName.eq('b').or(userName.eq('a')), PageRequest.of(0, 20))
+
+        then:
+        1 * executor.findAll(_ as Predicate, _ as Pageable) >> page
+        first.is(page)
+        second.is(page)
+        cache.stats.hitCount() == 1
+        cache.stats.missCount() == 1
+    }
+
+    def "it should key results by page, size and sort"() {
+        given:
+        def cache = new SearchResultCache(10, Duration.ofMinutes(1))
+        def predicate = userName.eq('a')
+
+        when:
+        cache.findAll(executor, String, predicate, PageRequest.of(0, 20))
+        cache.findAll(executor, String, predicate, PageRequest.of(1, 20))
+        cache.findAll(executor, String, predicate, PageRequest.of(0, 10))
+        cache.findAll(executor, String, predicate, PageRequest.of(0, 20, Sort.by('userName')))
+        cache.findAll(executor, String, predicate, PageRequest.of(1, 20))
+
+        then:
+        4 * executor.findAll(predicate, _ as Pageable) >> new PageImpl([])
+    }
+
+    def "it should invalidate results of changed type and its super-types"() {
+        given:
+        def cache = new SearchResultCache(10, Duration.ofMinutes(1))
+        def predicate = userName.eq('a')
+        def other = Mock(QuerydslPredicateExecutor)
+
+        when:
+        cache.findAll(executor, CharSequence, predicate, PageRequest.of(0, 100))
+        cache.findAll(other, Integer, predicate, PageRequest.of(0, 100))
+        cache.invalidate(String)
+        cache.findAll(executor, CharSequence, predicate, PageRequest.of(0, 100))
+        cache.findAll(other, Integer, predicate, PageRequest.of(0, 100))
+
+        then:
+        2 * executor.findAll(predicate, _) >> new PageImpl([])
+        1 * other.findAll(predicate, _) >> new PageImpl([])
+    }
+
+    def "it should not cache result of a search racing with invalidation"() {
+        given:
+        def cache = new SearchResultCache(10, Duration.ofMinutes(1))
+        def predicate = userName.eq('a')
+        cache.findAll(executor, String, userName.eq('b'), PageRequest.of(0, 100))
+
+        when:
+        cache.findAll(executor, String, predicate, PageRequest.of(0, 100))
+        cache.findAll(executor, String, predicate, PageRequest.of(0, 100))
+
+        then:
+        1 * executor.findAll(predicate, _) >> {
+            cache.invalidate(String)
+            new PageImpl(['stale'])
+        }
+        1 * executor.findAll(predicate, _) >> new PageImpl(['fresh'])
+    }
+
+    def "it should evict least recently used results beyond maximum size"() {
+        given:
+        def cache = new SearchResultCache(2, Duration.ofMinutes(1))
+        def a = userName.eq('a'), b = userName.eq('b'), c = userName.eq('c')
+
+        when:
+        cache.findAll(executor, String, a, PageRequest.of(0, 100))
+        cache.findAll(executor, String, b, PageRequest.of(0, 100))
+        cache.findAll(executor, String, a, PageRequest.of(0, 100))
+        cache.findAll(executor, String, c, PageRequest.of(0, 100))
+        cache.findAll(executor, String, a, PageRequest.of(0, 100))
+        cache.findAll(executor, String, b, PageRequest.of(0, 100))
+
+        then:
+        1 * executor.findAll(a, _) >> new PageImpl([])
+        2 * executor.findAll(b, _) >> new PageImpl([])
+        1 * executor.findAll(c, _) >> new PageImpl([])
+        cache.size() == 2
+    }
+
+    def "it should read back results evicted from heap from disk tier"() {
+        given:
+        def directory = Files.createTempDirectory('search-results')
+        def store = new MappedSearchResultStore(directory, 1 << 20, 64, SearchResultCodec.SERIALIZATION)
+        def cache = new SearchResultCache(1, Duration.ofMinutes(1), store)
+        def a = userName.eq('a'), b = userName.eq('b')
+
+        when:
+        cache.findAll(executor, String, a, PageRequest.of(0, 100))
+        cache.findAll(executor, String, b, PageRequest.of(0, 100))
+        def result = cache.findAll(executor, String, a, PageRequest.of(0, 100))
+
+        then:
+        1 * executor.findAll(a, _) >> new PageImpl(['a'])
+        1 * executor.findAll(b, _) >> new PageImpl(['b'])
+        result.content == ['a']
+
+        when: 'a type is invalidated'
+        cache.invalidate(String)
+        cache.findAll(executor, String, b, PageRequest.of(0, 100))
+
+        then:
+        1 * executor.findAll(b, _) >> new PageImpl(['b'])
+
+        cleanup:
+        store?.close()
+        directory?.toFile()?.deleteDir()
+    }
+
+    def "it should derive entity tag from search and generation of domain type"() {
+        given: 'time-to-live window not ending during the test'
+        def cache = new SearchResultCache(10, Duration.ofDays(1))
+        def page = PageRequest.of(0, 20)
+        def eTag = cache.getETag(String, userName.eq('a').or(userName.eq('b')), page)
+
+        expect: 'equal for same search'
+        eTag ==~ /W\/"[0-9a-f]+-[0-9a-f]+-0"/
+        cache.getETag(String, userName.eq('b').or(userName.eq('a')), page) == eTag
+
+        and: 'not for others'
+        cache.getETag(String, userName.eq('a'), page) != eTag
+        cache.getETag(String, userName.eq('a').or(userName.eq('b')), PageRequest.of(1, 20)) != eTag
+        cache.getETag(Integer, userName.eq('a').or(userName.eq('b')), page) != eTag
+        new SearchResultCache(10, Duration.ofMinutes(1)).getETag(String, userName.eq('a').or(userName.eq('b')),
+                page) != eTag
+
+        when:
+        cache.invalidate(Integer)
+
+        then:
+        cache.getETag(String, userName.eq('a').or(userName.eq('b')), page) == eTag
+
+        when:
+        cache.invalidate(String)
+
+        then:
+        cache.getETag(String, userName.eq('a').or(userName.eq('b')), page) != eTag
+    }
+
+    def "it should change entity tag with every time-to-live window"() {
+        given: 'writes not invalidating the cache, for e.g. on other nodes'
+        def cache = new SearchResultCache(10, Duration.ofMillis(50))
+        def page = PageRequest.of(0, 20)
+        def eTag = cache.getETag(String, userName.eq('a'), page)
+
+        when:
+        Thread.sleep(100)
+
+        then:
+        cache.getETag(String, userName.eq('a'), page) != eTag
+    }
+
+    def "it should always execute search when disabled"() {
+        given:
+        def predicate = userName.eq('a')
+
+        when:
+        SearchResultCache.DISABLED.findAll(executor, String, predicate, PageRequest.of(0, 100))
+        SearchResultCache.DISABLED.findAll(executor, String, predicate, PageRequest.of(0, 100))
+        new SearchResultCache(10, Duration.ZERO).findAll(executor, String, predicate, PageRequest.of(0, 100))
+
+        then:
+        3 * executor.findAll(predicate, _) >> new PageImpl([])
+        !SearchResultCache.DISABLED.enabled
+    }
+
+    def "it should reject invalid configuration"() {
+        when:
+        new SearchResultCache(size, ttl)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        size | ttl
+        -1   | Duration.ofMinutes(1)
+        10   | Duration.ofMinutes(-1)
+    }
+}
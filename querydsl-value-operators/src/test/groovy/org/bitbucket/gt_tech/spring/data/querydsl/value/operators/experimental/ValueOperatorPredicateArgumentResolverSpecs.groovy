@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
+
+import com.querydsl.core.types.Predicate
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProviderFactory
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.QUser
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User
+import org.springframework.core.MethodParameter
+import org.springframework.data.querydsl.SimpleEntityPathResolver
+import org.springframework.data.querydsl.binding.QuerydslBinderCustomizer
+import org.springframework.data.querydsl.binding.QuerydslBindings
+import org.springframework.data.querydsl.binding.QuerydslBindingsFactory
+import org.springframework.data.querydsl.binding.QuerydslPredicate
+import org.springframework.data.web.querydsl.QuerydslPredicateArgumentResolver
+import org.springframework.format.support.DefaultFormattingConversionService
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.web.context.request.ServletWebRequest
+import spock.lang.Specification
+
+/**
+ * Specification tests ValueOperatorPredicateArgumentResolver
+ *
+ * @author gt_tech
+ */
+class ValueOperatorPredicateArgumentResolverSpecs extends Specification {
+
+    def factory = new QuerydslBindingsFactory(SimpleEntityPathResolver.INSTANCE)
+
+    def resolver = new ValueOperatorPredicateArgumentResolver(factory, new DefaultFormattingConversionService())
+
+    def parameter = new MethodParameter(UserSearchController.getMethod('search', Predicate), 0)
+
+    def "it must build predicate from raw parameter values"() {
+        given:
+        def request = new MockHttpServletRequest('GET', '/users/search')
+        request.addParameter('status', 'ne(LOCKED)')
+        request.addParameter('profile.age', 'gte(35)')
+
+        when:
+        def predicate = resolver.resolveArgument(parameter, null, new ServletWebRequest(request), null)
+
+        then:
+        resolver.supportsParameter(parameter)
+        predicate.toString().contains('user.status != LOCKED')
+        predicate.toString().contains('user.profile.age >= 35')
+        QuerydslHttpRequestContextHolder.getContext() == null
+    }
+
+    def "it must support untyped values without modifying published configuration"() {
+        given:
+        def published = ExpressionProviderFactory.getConfiguration()
+        def request = new MockHttpServletRequest('GET', '/users/search')
+        request.addParameter('status', 'startsWith(LOCK)')
+
+        when:
+        def predicate = resolver.resolveArgument(parameter, null, new ServletWebRequest(request), null)
+
+        then:
+        predicate.toString() == 'user.status = LOCKED'
+        ExpressionProviderFactory.getConfiguration().is(published)
+        !published.isSupportsUnTypedValues()
+
+        when:
+        new QuerydslPredicateArgumentResolverBeanPostProcessor(factory).postProcessAfterInitialization(
+                new QuerydslPredicateArgumentResolver(factory, Optional.empty()), 'resolver')
+
+        then:
+        ExpressionProviderFactory.getConfiguration().is(published)
+    }
+
+    def "it must replace QuerydslPredicateArgumentResolver in post-processor"() {
+        given:
+        def processor = new QuerydslPredicateArgumentResolverBeanPostProcessor(factory)
+
+        when:
+        def processed = processor.postProcessAfterInitialization(
+                new QuerydslPredicateArgumentResolver(factory, Optional.empty()), 'resolver')
+
+        then:
+        processed instanceof ValueOperatorPredicateArgumentResolver
+        processor.postProcessAfterInitialization(processed, 'resolver').is(processed)
+    }
+
+    // ============== START: Test/Stub classes ==============
+    static class UserSearchController {
+        List<User> search(@QuerydslPredicate(root = User, bindings = UserBindings) Predicate predicate) {
+            []
+        }
+    }
+
+    static class UserBindings implements QuerydslBinderCustomizer<QUser> {
+        @Override
+        void customize(QuerydslBindings bindings, QUser root) {
+            bindings.bind(root.status).all({ path, values -> ExpressionProviderFactory.getPredicate(path, values) })
+            bindings.bind(root.profile.age).all({ path, values -> ExpressionProviderFactory.getPredicate(path, values) })
+        }
+    }
+    // ============== STOP: Test/Stub classes ==============
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.data
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.UserStatus
+import spock.lang.Specification
+
+/**
+ * Specification tests UserDataGenerator
+ *
+ * @author gt_tech
+ */
+class UserDataGeneratorSpecs extends Specification {
+
+    def "it should generate the same users for the same seed regardless of order"() {
+        given:
+        def generator = new UserDataGenerator(42)
+
+        expect:
+        generator.stream(100).collect { it.userName } == new UserDataGenerator(42).stream(100).parallel().collect { it.userName }
+        generator.generate(57).emails*.address == new UserDataGenerator(42).generate(57).emails*.address
+        generator.generate(57).profile.age == new UserDataGenerator(42).generate(57).profile.age
+        generator.generate(57).userName != new UserDataGenerator(43).generate(57).userName
+    }
+
+    def "it should generate unique user names, e-mails and employee ids with skewed cardinalities"() {
+        when:
+        def users = new UserDataGenerator(42).stream(20_000).collect()
+
+        then:
+        users*.userName.toSet().size() == users.size()
+        users*.employeeId.toSet().size() == users.size()
+        users.collectMany { it.emails*.address }.toSet().size() == users.collect { it.emails.size() }.sum()
+        users.every { it.emails.size() in 1..3 && it.profile.age in 21..70 }
+
+        and: 'most users are active'
+        def locked = users.count { it.status == UserStatus.LOCKED } / users.size()
+        locked > 0.05 && locked < 0.11
+
+        and: 'locations and names are skewed'
+        def byLocation = users.countBy { it.jobData.location }
+        byLocation.size() == UserDataGenerator.LOCATIONS.length
+        byLocation['NY'] > 10 * byLocation['WIC']
+        users*.profile*.lastName.toSet().size() == UserDataGenerator.LAST_NAMES.length
+    }
+}
@@ -16,9 +16,13 @@
 package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.SearchResultCache;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.dao.UserRepository;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.data.UserBulkLoader;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.data.UserDataGenerator;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
@@ -26,6 +30,7 @@ import org.springframework.core.io.support.ResourcePatternUtils;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
@@ -47,6 +52,22 @@ public class UserDataBootstrap implements ResourceLoaderAware {
     @Autowired
     UserRepository repository;
 
+    @Autowired
+    DataSource dataSource;
+
+    /*
+     * Number of synthetic users to bulk-load in addition to JSON fixtures, for
+     * performance testing at realistic data sizes.
+     */
+    @Value("${querydsl.value.operators.dataset.users:0}")
+    long syntheticUsers;
+
+    @Value("${querydsl.value.operators.dataset.seed:20180101}")
+    long syntheticUsersSeed;
+
+    @Value("${querydsl.value.operators.dataset.batch-size:5000}")
+    int syntheticUsersBatchSize;
+
     @PostConstruct
     public void bootstrap() throws Exception {
         Resource[] usersResources = loadResources(pattern);
@@ -62,6 +83,15 @@ public class UserDataBootstrap implements ResourceLoaderAware {
                       }
                   });
         }
+
+        if (syntheticUsers > 0) {
+            new UserBulkLoader(dataSource, syntheticUsersBatchSize).load(
+                    new UserDataGenerator(syntheticUsersSeed).stream(syntheticUsers)
+                                                             .iterator());
+            // JDBC batch inserts bypass entity listeners
+            SearchResultCache.getDefault()
+                             .invalidate(User.class);
+        }
     }
 
     @Override
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.dao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.NdjsonSearchExport;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.QUser;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streaming export of {@link User} search results as newline delimited JSON.
+ *
+ * <p>
+ * The search is executed once as a forward-only cursor (Hibernate scroll
+ * with a fetch size) inside a read-only transaction that lives as long as the
+ * response is written. Users are detached from persistence context once
+ * written so memory doesn't grow with the number of results.
+ * </p>
+ *
+ * @author gt_tech
+ */
+@RestController
+@RequestMapping(value = "/users")
+public class UserExportController {
+
+    private static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final NdjsonSearchExport export;
+
+    private final int fetchSize;
+
+    public UserExportController(PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                @Value("${querydsl.value.operators.export.fetch-size:500}") int fetchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.export = new NdjsonSearchExport(objectMapper, fetchSize);
+        this.fetchSize = fetchSize;
+    }
+
+    @GetMapping(path = {"/export"}, produces = {NdjsonSearchExport.MEDIA_TYPE})
+    public ResponseEntity<StreamingResponseBody> exportUsers(@QuerydslPredicate(root = User.class) Predicate
+                                                                     predicate) {
+        final StreamingResponseBody body = out -> {
+            try {
+                transactionTemplate.execute(status -> {
+                    try {
+                        return export.write(stream(predicate), out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                             .contentType(MediaType.parseMediaType(NdjsonSearchExport.MEDIA_TYPE))
+                             .body(body);
+    }
+
+    /*
+     * Lazy stream over a scrollable cursor, closing the stream closes the cursor
+     */
+    private Stream<User> stream(Predicate predicate) {
+        final CloseableIterator<User> cursor = new JPAQuery<User>(entityManager).select(QUser.user)
+                                                                                .from(QUser.user)
+                                                                                .where(predicate)
+                                                                                .orderBy(QUser.user._id.asc())
+                                                                                .setHint(FETCH_SIZE_HINT, fetchSize)
+                                                                                .iterate();
+        final Iterator<User> detaching = new Iterator<User>() {
+            private User previous;
+
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public User next() {
+                // previous user has been written by now
+                if (previous != null) {
+                    entityManager.detach(previous);
+                }
+                previous = cursor.next();
+                return previous;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(detaching, Spliterator.ORDERED
+                | Spliterator.NONNULL), false)
+                            .onClose(cursor::close);
+    }
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.dao;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.KeysetPage;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.KeysetPagination;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.QUser;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * Keyset paginated search of {@link User}, next page is requested with cursor
+ * of previous one.
+ *
+ * <p>
+ * Pages are fetched by a {@link JPAQuery} limited to the size of page rather
+ * than through {@link org.springframework.data.querydsl.QuerydslPredicateExecutor}
+ * of {@link UserRepository}, which would execute a count query along with
+ * every page but the last.
+ * </p>
+ *
+ * @author gt_tech
+ */
+@RestController
+@RequestMapping(value = "/users")
+public class UserKeysetSearchController {
+
+    private static final KeysetPagination<User> KEYSET = new KeysetPagination<>(User.class, "_id");
+
+    private static final PathBuilder<User> ROOT = new PathBuilder<>(User.class, QUser.user.getMetadata());
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @RequestMapping(path = {"/search/keyset"}, produces = {MediaType.APPLICATION_JSON_VALUE}, method = {
+            RequestMethod.GET,
+            RequestMethod.POST
+    })
+    @Transactional(readOnly = true)
+    public ResponseEntity<KeysetPage<User>> searchUserKeyset(@QuerydslPredicate(root = User.class) Predicate
+                                                                     predicate, Sort sort,
+                                                             @RequestParam(defaultValue = "20") int size,
+                                                             @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(KEYSET.findAll(this::fetch, predicate, sort, size, cursor));
+        } catch (IllegalArgumentException e) {
+            // invalid cursor, size or sort
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private List<User> fetch(Predicate predicate, Sort sort, int limit) {
+        final Querydsl querydsl = new Querydsl(entityManager, ROOT);
+        return querydsl.applySorting(sort, new JPAQuery<User>(entityManager).select(QUser.user)
+                                                                              .from(QUser.user)
+                                                                              .where(predicate))
+                       .limit(limit)
+                       .fetch();
+    }
+}
@@ -19,8 +19,11 @@ import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import org.apache.commons.lang3.StringUtils;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.ExpressionProviderFactory;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.CoalescingSearchExecutor;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.SearchResultCache;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.QUser;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.querydsl.binding.QuerydslBinderCustomizer;
@@ -33,6 +36,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.transaction.Transactional;
 
@@ -56,12 +60,24 @@ public interface UserRepository extends JpaRepository<User, String>, QuerydslPre
             RequestMethod.POST
     })
     default ResponseEntity<Iterable<User>> searchUser(@QuerydslPredicate(root = User.class) Predicate
-                                                              predicate) {
+                                                              predicate, WebRequest request) {
         if (predicate == null || (BooleanBuilder.class.isAssignableFrom(predicate.getClass())
                 && !((BooleanBuilder) predicate).hasValue())) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } else {
-            return ResponseEntity.ok(this.findAll(predicate));
+            // conditional request, search isn't executed when nothing has changed since If-None-Match
+            final SearchResultCache cache = SearchResultCache.getDefault();
+            final String eTag = cache.getETag(User.class, predicate, Pageable.unpaged());
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+            // served from SearchResultCache when enabled, misses are coalesced - see QueryDslValueOperatorsConfig
+            final QuerydslPredicateExecutor<User> executor = CoalescingSearchExecutor.getDefault()
+                                                                                     .wrap(this, User.class);
+            return ResponseEntity.ok()
+                                 .eTag(eTag)
+                                 .body(cache.findAll(executor, User.class, predicate, Pageable.unpaged())
+                                            .getContent());
         }
     }
 
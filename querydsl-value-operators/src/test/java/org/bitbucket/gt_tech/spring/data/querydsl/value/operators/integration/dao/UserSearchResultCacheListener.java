@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.dao;
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.SearchResultCache;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener invalidating cached {@link User} search results (see
+ * {@link SearchResultCache}) whenever a {@link User} or an entity of its
+ * aggregate is written.
+ *
+ * <p>
+ * Callbacks run on flush, before the transaction commits, so results are
+ * invalidated once more after commit. Otherwise a search running between
+ * flush and commit could cache data which is about to change.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public class UserSearchResultCacheListener {
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Object entity) {
+        SearchResultCache.getDefault()
+                         .invalidate(User.class);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    SearchResultCache.getDefault()
+                                     .invalidate(User.class);
+                }
+            });
+        }
+    }
+}
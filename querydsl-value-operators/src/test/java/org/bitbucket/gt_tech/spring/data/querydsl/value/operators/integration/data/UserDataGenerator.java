@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.data;
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.Department;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.Email;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.JobData;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.Profile;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.UserStatus;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic generator of synthetic {@link User}s for performance testing
+ * at production-like data sizes.
+ *
+ * <p>
+ * The user at a given index is a pure function of seed and index, so a
+ * dataset can be generated in any order or in parallel and the same seed
+ * always yields the same data. Cardinalities are skewed the way real data
+ * is: most users are active, departments and locations follow a Zipf-like
+ * distribution, names repeat (while user names, e-mail addresses and
+ * employee ids are unique) and 1-3 e-mails are attached to each user.
+ * Generated e-mail domains don't overlap with fixture users in
+ * <code>classpath:users/*.json</code>.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public final class UserDataGenerator {
+
+    static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+            "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+            "Sarah", "Charles", "Karen", "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Betty", "Anthony",
+            "Margaret", "Mark", "Sandra", "Donald", "Ashley", "Steven", "Kimberly", "Paul", "Emily", "Andrew",
+            "Donna", "Joshua", "Michelle", "Kenneth", "Dorothy", "Kevin", "Carol", "Brian", "Amanda", "George",
+            "Melissa", "Edward", "Deborah", "Ronald", "Stephanie", "Timothy", "Rebecca", "Jason", "Sharon",
+            "Jeffrey", "Laura", "Ryan", "Cynthia", "Jacob", "Kathleen", "Gary", "Amy"};
+
+    static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+            "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez",
+            "Clark", "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott",
+            "Torres", "Nguyen", "Hill", "Flores", "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell",
+            "Mitchell", "Carter", "Roberts", "Gomez", "Phillips", "Evans", "Turner", "Diaz", "Parker", "Cruz",
+            "Edwards", "Collins", "Reyes", "Stewart", "Morris", "Morales", "Murphy"};
+
+    static final String[] LOCATIONS = {"NY", "SF", "LA", "CHI", "HOU", "PHX", "PHL", "SAT", "SD", "DAL", "SJ",
+            "AUS", "JAX", "FW", "COL", "CLT", "IND", "SEA", "DEN", "DC", "BOS", "ELP", "NSH", "DET", "OKC",
+            "PDX", "LV", "MEM", "LOU", "BAL", "MKE", "ABQ", "TUC", "FRE", "SAC", "KC", "MES", "ATL", "OMA", "RAL",
+            "MIA", "LB", "VB", "OAK", "MIN", "TUL", "TPA", "ARL", "NO", "WIC"};
+
+    private static final String PRIMARY_DOMAIN = "@acme.com";
+    private static final String[] PERSONAL_DOMAINS = {"@gmail.com", "@yahoo.com", "@outlook.com", "@aol.com"};
+
+    /*
+     * Weights of departments in order of Department.values() - HR, SALES,
+     * MARKETING, FINANCE, IT
+     */
+    private static final int[] DEPARTMENT_WEIGHTS = {10, 30, 20, 15, 25};
+
+    private static final LocalDate REFERENCE_DATE = LocalDate.of(2019, 3, 31);
+    private static final long CREATION_DAYS = REFERENCE_DATE.toEpochDay() - LocalDate.of(2015, 1, 1)
+            .toEpochDay();
+
+    /**
+     * First employee id handed out to generated users, well clear of fixture
+     * users
+     */
+    public static final long EMPLOYEE_ID_OFFSET = 100_000_000L;
+
+    private final long seed;
+
+    private final double[] locationCdf = zipfCdf(LOCATIONS.length);
+    private final double[] firstNameCdf = zipfCdf(FIRST_NAMES.length);
+    private final double[] lastNameCdf = zipfCdf(LAST_NAMES.length);
+
+    /**
+     * @param seed seed of dataset, same seed always yields the same users
+     */
+    public UserDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param count number of users
+     * @return ordered stream of users at index <code>0..count-1</code>, can be
+     * made parallel
+     */
+    public Stream<User> stream(long count) {
+        return LongStream.range(0, count)
+                .mapToObj(this::generate);
+    }
+
+    /**
+     * @param index index of user in dataset
+     * @return user at supplied index, without ids
+     */
+    public User generate(long index) {
+        final SplittableRandom random = new SplittableRandom(mix(seed + index * 0x9E3779B97F4A7C15L));
+
+        final String firstName = FIRST_NAMES[pick(firstNameCdf, random)];
+        final String lastName = LAST_NAMES[pick(lastNameCdf, random)];
+        // unique: initial, last name and index in base 36
+        final String userName = (Character.toLowerCase(firstName.charAt(0)) + lastName.toLowerCase() + Long.toString(
+                index, 36));
+
+        final Profile profile = new Profile();
+        profile.setFirstName(firstName);
+        profile.setLastName(lastName);
+        if (random.nextInt(4) == 0) {
+            profile.setMiddleName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+        }
+        final int age = 21 + Math.min(49, Math.abs((int) Math.round(gaussian(random) * 11 + 17)));
+        profile.setAge(age);
+        profile.setDateOfBirth(toDate(REFERENCE_DATE.minusYears(age)
+                .minusDays(random.nextInt(365))));
+
+        final JobData jobData = new JobData();
+        jobData.setDepartment(Department.values()[weighted(DEPARTMENT_WEIGHTS, random)]);
+        jobData.setLocation(LOCATIONS[pick(locationCdf, random)]);
+
+        final List<Email> emails = new ArrayList<>(3);
+        emails.add(email("Primary", userName + PRIMARY_DOMAIN, true, true));
+        if (random.nextInt(10) < 6) {
+            emails.add(email("Secondary", userName + PERSONAL_DOMAINS[random.nextInt(PERSONAL_DOMAINS.length)],
+                    random.nextInt(10) < 8, false));
+            if (random.nextInt(4) == 0) {
+                emails.add(email("Other", lastName.toLowerCase() + Long.toString(index, 36) + PERSONAL_DOMAINS[random
+                        .nextInt(PERSONAL_DOMAINS.length)], false, false));
+            }
+        }
+
+        final User user = new User();
+        user.setUserName(userName);
+        user.setCreationDate(toDate(REFERENCE_DATE.minusDays(random.nextLong(CREATION_DAYS))));
+        user.setStatus(random.nextInt(100) < 92 ? UserStatus.ACTIVE : UserStatus.LOCKED);
+        user.setEnabled(random.nextInt(100) < 95);
+        user.setEmployeeId(EMPLOYEE_ID_OFFSET + index);
+        user.setProfile(profile);
+        user.setJobData(jobData);
+        user.setEmails(emails);
+        return user;
+    }
+
+    private static Email email(String label, String address, boolean verified, boolean _default) {
+        final Email email = new Email();
+        email.setLabel(label);
+        email.setAddress(address);
+        email.setVerified(verified);
+        email.set_default(_default);
+        return email;
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay()
+                .toInstant(ZoneOffset.UTC));
+    }
+
+    /*
+     * Cumulative distribution with weight of rank k proportional to 1/k
+     */
+    private static double[] zipfCdf(int size) {
+        final double[] cdf = new double[size];
+        double sum = 0;
+        for (int k = 0; k < size; k++) {
+            sum += 1.0 / (k + 1);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < size; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, SplittableRandom random) {
+        final double r = random.nextDouble();
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (cdf[mid] < r) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int weighted(int[] weights, SplittableRandom random) {
+        int total = 0;
+        for (int w : weights) {
+            total += w;
+        }
+        int r = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /*
+     * Box-Muller, SplittableRandom has no nextGaussian()
+     */
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    /*
+     * MurmurHash3 finalizer, decorrelates seeds of neighbouring indexes
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.load;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Weighted mix of search requests, each one a path with query parameters
+ * whose values are URL encoded when added.
+ *
+ * @author gt_tech
+ */
+public class QueryMix {
+
+    private final String path;
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * @param path path of search resource, for e.g. <code>/users/search</code>
+     */
+    public QueryMix(String path) {
+        this.path = path;
+    }
+
+    /**
+     * @param weight     relative frequency of this query in the mix
+     * @param parameters alternating parameter names and (unencoded) values
+     * @return this mix
+     */
+    public QueryMix add(int weight, String... parameters) {
+        if (weight <= 0 || parameters.length == 0 || parameters.length % 2 != 0) {
+            throw new IllegalArgumentException("Positive weight and name/value pairs are required");
+        }
+        final StringBuilder uri = new StringBuilder(path);
+        for (int i = 0; i < parameters.length; i += 2) {
+            uri.append(i == 0 ? '?' : '&')
+                    .append(parameters[i])
+                    .append('=')
+                    .append(encode(parameters[i + 1]));
+        }
+        entries.add(new Entry(uri.toString(), weight));
+        return this;
+    }
+
+    /*
+     * Request URIs repeated as per their weight so that a uniformly random
+     * pick honors the weights.
+     */
+    List<String> expand() {
+        final List<String> result = new ArrayList<>();
+        for (Entry entry : entries) {
+            result.addAll(Collections.nCopies(entry.weight, entry.uri));
+        }
+        return result;
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final String uri;
+        private final int weight;
+
+        Entry(String uri, int weight) {
+            this.uri = uri;
+            this.weight = weight;
+        }
+    }
+}
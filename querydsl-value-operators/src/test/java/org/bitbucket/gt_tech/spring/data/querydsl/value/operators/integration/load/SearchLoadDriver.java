@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives search requests against a running application from a number of
+ * concurrent clients for a fixed duration and records latency of every
+ * request. Each client picks the next query at random from a weighted mix and
+ * issues it over a keep-alive connection, reading the response fully.
+ *
+ * <p>
+ * A warm-up phase of same shape precedes measurement and its results are
+ * discarded.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public class SearchLoadDriver {
+
+    private final String baseUrl;
+    private final List<String> queries;
+    private final int clients;
+
+    /**
+     * Constructor
+     *
+     * @param baseUrl base URL of application, for e.g. <code>http://localhost:8080</code>
+     * @param mix     weighted mix of request URIs (path and encoded query string)
+     * @param clients number of concurrent clients
+     */
+    public SearchLoadDriver(String baseUrl, QueryMix mix, int clients) {
+        this.baseUrl = baseUrl;
+        this.queries = mix.expand();
+        this.clients = clients;
+    }
+
+    /**
+     * @param warmup   duration of warm-up
+     * @param duration duration of measurement
+     * @param unit     unit of durations
+     * @return report of measurement phase
+     * @throws Exception if a client fails unexpectedly
+     */
+    public SearchLoadReport run(long warmup, long duration, TimeUnit unit) throws Exception {
+        drive(unit.toNanos(warmup));
+        return drive(unit.toNanos(duration));
+    }
+
+    private SearchLoadReport drive(long durationNanos) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Client>> futures = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    final Client client = new Client();
+                    start.await();
+                    client.run(durationNanos);
+                    return client;
+                }));
+            }
+            final long begin = System.nanoTime();
+            start.countDown();
+            final SearchLoadReport.Builder report = SearchLoadReport.builder();
+            for (Future<Client> future : futures) {
+                final Client client = future.get();
+                report.add(client.latencies, client.count, client.errors);
+            }
+            return report.elapsed(System.nanoTime() - begin)
+                    .build();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /*
+     * Single client, records latencies in nanoseconds.
+     */
+    private final class Client {
+
+        private long[] latencies = new long[4096];
+        private int count;
+        private int errors;
+
+        void run(long durationNanos) {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final long end = System.nanoTime() + durationNanos;
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                final String uri = queries.get(random.nextInt(queries.size()));
+                if (!execute(uri)) {
+                    errors++;
+                }
+                record(System.nanoTime() - now);
+            }
+        }
+
+        private boolean execute(String uri) {
+            try {
+                final HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + uri).openConnection();
+                connection.setRequestProperty("Accept", "application/json");
+                final int status = connection.getResponseCode();
+                // drain so that connection is returned to keep-alive cache
+                try (InputStream is = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                    if (is != null) {
+                        final byte[] buffer = new byte[8192];
+                        while (is.read(buffer) >= 0) {
+                            // discard
+                        }
+                    }
+                }
+                return status == HttpURLConnection.HTTP_OK;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                final long[] grown = new long[latencies.length * 2];
+                System.arraycopy(latencies, 0, grown, 0, count);
+                latencies = grown;
+            }
+            latencies[count++] = latency;
+        }
+    }
+}
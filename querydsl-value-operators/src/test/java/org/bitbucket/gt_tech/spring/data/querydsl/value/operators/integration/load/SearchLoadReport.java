@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a load run: throughput, latency percentiles and number of failed
+ * requests.
+ *
+ * @author gt_tech
+ */
+public final class SearchLoadReport {
+
+    private final long requests;
+    private final long errors;
+    private final long elapsedNanos;
+    private final long[] sortedLatencies;
+
+    private SearchLoadReport(long[] sortedLatencies, long errors, long elapsedNanos) {
+        this.requests = sortedLatencies.length;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+        this.sortedLatencies = sortedLatencies;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return number of requests completed
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return number of requests which failed or didn't return HTTP 200
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return requests completed per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : requests * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * @param percentile percentile in range (0, 100], for e.g. <code>99.9</code>
+     * @return latency at supplied percentile in microseconds
+     */
+    public long getLatencyMicros(double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+        return TimeUnit.NANOSECONDS.toMicros(
+                sortedLatencies[Math.min(sortedLatencies.length - 1, Math.max(0, index))]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("requests=%d, errors=%d, throughput=%.1f req/s, p50=%dus, p99=%dus, p999=%dus",
+                requests, errors, getThroughput(), getLatencyMicros(50), getLatencyMicros(99),
+                getLatencyMicros(99.9));
+    }
+
+    static final class Builder {
+        private long[] latencies = new long[0];
+        private long errors;
+        private long elapsedNanos;
+
+        Builder add(long[] latencies, int count, long errors) {
+            final long[] merged = Arrays.copyOf(this.latencies, this.latencies.length + count);
+            System.arraycopy(latencies, 0, merged, this.latencies.length, count);
+            this.latencies = merged;
+            this.errors += errors;
+            return this;
+        }
+
+        Builder elapsed(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+            return this;
+        }
+
+        SearchLoadReport build() {
+            Arrays.sort(latencies);
+            return new SearchLoadReport(latencies, errors, elapsedNanos);
+        }
+    }
+}
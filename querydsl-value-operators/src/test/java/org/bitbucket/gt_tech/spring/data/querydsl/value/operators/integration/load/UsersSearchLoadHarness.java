@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.load;
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.TestSpringApplication;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.data.UserDataGenerator;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.Profile;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Load harness measuring end-to-end cost of a search request: servlet filter,
+ * request wrapper, argument resolution, predicate building and repository
+ * execution against H2. The test application is started in-process and
+ * driven with a mix of operator queries by concurrent clients.
+ *
+ * <p>
+ * Subclasses pick whether
+ * {@link org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.QuerydslHttpRequestContextAwareServletFilter}
+ * is enabled, each one runs in its own JVM (see <code>load-tests</code> Maven
+ * profile) so that results aren't skewed by JIT state left over from another
+ * run. Tunable with system properties <code>load.clients</code>,
+ * <code>load.warmup.seconds</code> and <code>load.duration.seconds</code>,
+ * <code>load.dataset.users</code> bulk-loads as many synthetic users (see
+ * {@link UserDataGenerator}, seeded with <code>load.dataset.seed</code>) in
+ * addition to the JSON fixtures.
+ * </p>
+ *
+ * @author gt_tech
+ */
+public abstract class UsersSearchLoadHarness {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 16);
+    private static final long WARMUP_SECONDS = Long.getLong("load.warmup.seconds", 5);
+    private static final long DURATION_SECONDS = Long.getLong("load.duration.seconds", 15);
+    private static final long DATASET_USERS = Long.getLong("load.dataset.users", 0);
+    private static final long DATASET_SEED = Long.getLong("load.dataset.seed", 20180101L);
+
+    /*
+     * Queries valid with as well as without the filter so both runs do the
+     * same work, weighted towards the common single-parameter searches.
+     */
+    private static final QueryMix FIXTURE_MIX = new QueryMix("/users/search")
+            .add(10, "userName", "dgayle", "userName", "ci(eq(SsmiTh))")
+            .add(10, "emails.address", "starts-with(ssmith)")
+            .add(8, "emails.address", "endsWith(@company.com)", "emails.address", "endsWith(@dummy.com)")
+            .add(8, "profile.age", "gte(35)")
+            .add(6, "profile.age", "lt(35)")
+            .add(5, "employeeId", "9223372036854775801")
+            .add(5, "status", "matches(^.*LOC.*$)", "department", "SALES")
+            .add(4, "profile.firstName", "not(startsWith(Sh))", "profile.age", "gt(20)")
+            .add(4, "profile.dateOfBirth", "04/29/1980 00:00:00 UTC");
+
+    /*
+     * With a synthetic dataset, the broad fixture queries above would return
+     * a sizable share of millions of users. Selective queries on sampled
+     * generated users are used instead.
+     */
+    private static QueryMix datasetMix() {
+        final UserDataGenerator generator = new UserDataGenerator(DATASET_SEED);
+        final SplittableRandom random = new SplittableRandom(DATASET_SEED);
+        final QueryMix mix = new QueryMix("/users/search");
+        for (int i = 0; i < 100; i++) {
+            final User user = generator.generate(random.nextLong(DATASET_USERS));
+            final Profile profile = user.getProfile();
+            mix.add(4, "userName", user.getUserName())
+                    .add(3, "emails.address", "startsWith(" + user.getUserName() + "@)")
+                    .add(2, "employeeId", String.valueOf(user.getEmployeeId()))
+                    .add(2, "profile.firstName", profile.getFirstName(), "profile.lastName",
+                            "ci(" + profile.getLastName() + ")", "jobData.location", user.getJobData()
+                                    .getLocation(), "profile.age", "eq(" + profile.getAge() + ")")
+                    // enum equality binds String value on JPA, matches(..) resolves enum constants
+                    .add(1, "status", "matches(^LOCKED$)", "jobData.department", "matches(^" + user.getJobData()
+                            .getDepartment()
+                            .name() + "$)", "jobData.location", user.getJobData()
+                            .getLocation(), "profile.age", "gt(66)");
+        }
+        for (int i = 0; i < 20; i++) {
+            final String[] parameters = new String[10];
+            for (int j = 0; j < parameters.length; j += 2) {
+                parameters[j] = "userName";
+                parameters[j + 1] = generator.generate(random.nextLong(DATASET_USERS))
+                        .getUserName();
+            }
+            mix.add(2, parameters);
+        }
+        return mix;
+    }
+
+    /**
+     * Starts the application, drives the load and asserts that every request
+     * succeeded.
+     *
+     * @param filterEnabled whether servlet filter is enabled
+     * @return report of measurement
+     * @throws Exception if application or load fails unexpectedly
+     */
+    protected SearchLoadReport run(boolean filterEnabled) throws Exception {
+        final String mode = filterEnabled ? "with-filter" : "without-filter";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestSpringApplication.class)
+                .properties("server.port=0", "spring.datasource.url=jdbc:h2:mem:" + mode,
+                        "querydsl.value.operators.filter.enabled=" + filterEnabled,
+                        "querydsl.value.operators.dataset.users=" + DATASET_USERS,
+                        "querydsl.value.operators.dataset.seed=" + DATASET_SEED,
+                        // measure searches, neither the result cache nor coalescing of identical ones
+                        "querydsl.value.operators.search-cache.size=0",
+                        "querydsl.value.operators.search-coalescing.max-wait-millis=0",
+                        // logback-test config logs library at all levels which would dominate the measurement
+                        "logging.level.org.bitbucket.gt_tech=WARN",
+                        "server.tomcat.max-threads=" + Math.max(CLIENTS, 10))
+                .run()) {
+            final int port = ((ServletWebServerApplicationContext) context).getWebServer()
+                    .getPort();
+            final QueryMix mix = DATASET_USERS > 0 ? datasetMix() : FIXTURE_MIX;
+            final SearchLoadReport report = new SearchLoadDriver("http://localhost:" + port, mix, CLIENTS)
+                    .run(WARMUP_SECONDS, DURATION_SECONDS, TimeUnit.SECONDS);
+
+            System.out.println(String.format("[load] /users/search %s, clients=%d, users=%d: %s", mode, CLIENTS,
+                    DATASET_USERS, report));
+            assertEquals("Failed requests during load " + mode, 0, report.getErrors());
+            assertTrue("No request completed " + mode, report.getRequests() > 0);
+            return report;
+        }
+    }
+}
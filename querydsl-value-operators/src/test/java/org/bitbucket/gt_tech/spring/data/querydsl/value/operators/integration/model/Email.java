@@ -16,11 +16,15 @@
 package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model;
 
 
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.dao.UserSearchResultCacheListener;
+
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 
 @Entity
+@EntityListeners(UserSearchResultCacheListener.class)
 public class Email {
 
 	@javax.persistence.Id
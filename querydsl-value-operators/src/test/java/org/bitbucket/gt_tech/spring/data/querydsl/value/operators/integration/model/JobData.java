@@ -15,12 +15,16 @@
  *******************************************************************************/
 package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model;
 
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.dao.UserSearchResultCacheListener;
+
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 
 @Entity
+@EntityListeners(UserSearchResultCacheListener.class)
 public class JobData {
 
     @Id
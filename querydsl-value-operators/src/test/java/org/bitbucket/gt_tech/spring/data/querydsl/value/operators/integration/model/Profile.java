@@ -15,13 +15,17 @@
  *******************************************************************************/
 package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model;
 
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.dao.UserSearchResultCacheListener;
+
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import java.util.Date;
 
 @Entity
+@EntityListeners(UserSearchResultCacheListener.class)
 public class Profile {
 
 	@Id
@@ -16,6 +16,7 @@
 package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model;
 
 import com.querydsl.core.annotations.QueryEntity;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.dao.UserSearchResultCacheListener;
 import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.Id;
 
@@ -26,6 +27,7 @@ import java.util.List;
 
 @QueryEntity
 @Entity(name = "user")
+@EntityListeners(UserSearchResultCacheListener.class)
 public class User {
 
     /*
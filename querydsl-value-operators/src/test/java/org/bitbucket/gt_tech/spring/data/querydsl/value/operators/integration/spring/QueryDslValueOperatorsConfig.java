@@ -15,12 +15,15 @@
  *******************************************************************************/
 package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.spring;
 
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.CoalescingSearchExecutor;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
         .QuerydslHttpRequestContextAwareServletFilter;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental
         .QuerydslPredicateArgumentResolverBeanPostProcessor;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.SearchResultCache;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,7 +33,9 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.data.querydsl.binding.QuerydslBindingsFactory;
 
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDate;
+import javax.servlet.DispatcherType;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
@@ -45,13 +50,19 @@ import java.util.Map;
 @Order(Ordered.LOWEST_PRECEDENCE)
 public class QueryDslValueOperatorsConfig {
 
+	/*
+	 * Filter can be turned off (for e.g. by load harness to compare cost) with
+	 * property querydsl.value.operators.filter.enabled=false
+	 */
 	@Bean
-	public FilterRegistrationBean querydslHttpRequestContextAwareServletFilter() {
+	public FilterRegistrationBean querydslHttpRequestContextAwareServletFilter(
+			@Value("${querydsl.value.operators.filter.enabled:true}") boolean enabled) {
 		FilterRegistrationBean bean = new FilterRegistrationBean();
 		bean.setFilter(new QuerydslHttpRequestContextAwareServletFilter(
 				querydslHttpRequestContextAwareServletFilterMappings()));
-		bean.setAsyncSupported(false);
-		bean.setEnabled(true);
+		bean.setAsyncSupported(true);
+		bean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+		bean.setEnabled(enabled);
 		bean.setName("querydslHttpRequestContextAwareServletFilter");
 		bean.setUrlPatterns(Arrays.asList(new String[] { "/users/*" }));
 		bean.setOrder(Ordered.LOWEST_PRECEDENCE);
@@ -61,6 +72,8 @@ public class QueryDslValueOperatorsConfig {
 	private Map<String, Class<?>> querydslHttpRequestContextAwareServletFilterMappings() {
 		Map<String, Class<?>> mappings = new HashMap<>();
 		mappings.put("/users/search", User.class);
+		mappings.put("/users/search/keyset", User.class);
+		mappings.put("/users/export", User.class);
 		return mappings;
 	}
 
@@ -70,4 +83,34 @@ public class QueryDslValueOperatorsConfig {
 		return new QuerydslPredicateArgumentResolverBeanPostProcessor(factory, conversionService,
 				new Class[]{Date.class, LocalDate.class, Timestamp.class, Boolean.class, boolean.class});
 	}
+
+	/*
+	 * Caches results of /users/search, invalidated by
+	 * UserSearchResultCacheListener. Caching can be turned off (for e.g. by
+	 * load harness measuring the cost of searches) with property
+	 * querydsl.value.operators.search-cache.size=0
+	 */
+	@Bean
+	public SearchResultCache searchResultCache(@Value("${querydsl.value.operators.search-cache.size:1000}") long size,
+			@Value("${querydsl.value.operators.search-cache.ttl-seconds:60}") long ttlSeconds) {
+		SearchResultCache cache = new SearchResultCache(size, Duration.ofSeconds(ttlSeconds));
+		SearchResultCache.setDefault(cache);
+		return cache;
+	}
+
+	/*
+	 * Coalesces identical concurrent searches missing SearchResultCache, can
+	 * be turned off with property
+	 * querydsl.value.operators.search-coalescing.max-wait-millis=0
+	 */
+	@Bean
+	public CoalescingSearchExecutor coalescingSearchExecutor(
+			@Value("${querydsl.value.operators.search-coalescing.max-wait-millis:2000}") long maxWaitMillis,
+			@Value("${querydsl.value.operators.search-coalescing.failure-policy:PROPAGATE}")
+					CoalescingSearchExecutor.FailurePolicy failurePolicy) {
+		CoalescingSearchExecutor executor = new CoalescingSearchExecutor(Duration.ofMillis(maxWaitMillis),
+				failurePolicy);
+		CoalescingSearchExecutor.setDefault(executor);
+		return executor;
+	}
 }
@@ -16,7 +16,12 @@
 package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.tests;
 
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.experimental.NdjsonSearchExport;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.TestSpringApplication;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.dao.UserRepository;
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.QUser;
 import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.model.User;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -24,19 +29,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.beans.HasPropertyWithValue.hasProperty;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Integration test starts the Test ApplicationContext and performs search-specific verification by invoking APIs
@@ -51,6 +66,9 @@ public class UsersSearchIT {
     @Autowired
     TestRestTemplate template;
 
+    @Autowired
+    UserRepository repository;
+
     @Test
     public void testUserSearchWithUserNames_ImplicitORClause() {
         ResponseEntity<List<User>> response = template.exchange("/users/search?userName=dgayle&userName=ssmith",
@@ -375,4 +393,145 @@ public class UsersSearchIT {
         assertThat(response.getBody(), contains(
                 hasProperty("userName", is("ksmith"))));
     }
+
+    /*
+     * Results of /users/search are cached, saving or deleting a user must
+     * invalidate them.
+     */
+    @Test
+    public void testUserSearch_CachedResultsInvalidatedOnSaveAndDelete() {
+        final String uri = "/users/search?userName=cachedsearch&userName=dgayle";
+        final ParameterizedTypeReference<List<User>> type = new ParameterizedTypeReference<List<User>>() {
+        };
+        assertEquals(1, template.exchange(uri, HttpMethod.GET, null, type)
+                                .getBody()
+                                .size());
+        assertEquals(1, template.exchange(uri, HttpMethod.GET, null, type)
+                                .getBody()
+                                .size());
+
+        User user = new User();
+        user.setUserName("cachedsearch");
+        user = repository.save(user);
+        try {
+            ResponseEntity<List<User>> response = template.exchange(uri, HttpMethod.GET, null, type);
+            assertThat(response.getBody(), containsInAnyOrder(
+                    hasProperty("userName", is("cachedsearch")),
+                    hasProperty("userName", is("dgayle"))));
+        } finally {
+            repository.delete(user);
+        }
+
+        assertThat(template.exchange(uri, HttpMethod.GET, null, type)
+                           .getBody(), contains(
+                hasProperty("userName", is("dgayle"))));
+    }
+
+    /*
+     * A search is answered with 304 Not Modified while its ETag matches,
+     * which changes once a user is saved.
+     */
+    @Test
+    public void testUserSearch_ConditionalRequestWithETag() {
+        final String uri = "/users/search?userName=dgayle";
+        final ParameterizedTypeReference<List<User>> type = new ParameterizedTypeReference<List<User>>() {
+        };
+        ResponseEntity<List<User>> response = template.exchange(uri, HttpMethod.GET, null, type);
+        final String eTag = response.getHeaders()
+                                    .getETag();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertThat(eTag, startsWith("W/\""));
+
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        response = template.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), type);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+
+        // middle name isn't searchable, so changing it doesn't affect other tests
+        final User user = repository.findOne(QUser.user.userName.eq("dgayle"))
+                                    .get();
+        final String middleName = user.getProfile()
+                                      .getMiddleName();
+        user.getProfile()
+            .setMiddleName("etag");
+        repository.save(user);
+        try {
+            response = template.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), type);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertNotEquals(eTag, response.getHeaders()
+                                          .getETag());
+            assertThat(response.getBody(), contains(hasProperty("userName", is("dgayle"))));
+        } finally {
+            user.getProfile()
+                .setMiddleName(middleName);
+            repository.save(user);
+        }
+    }
+
+    /*
+     * Keyset paginated search visits all results once, in order of sort
+     * followed by id, and rejects a cursor of another sort.
+     */
+    @Test
+    public void testUserSearch_KeysetPagination() {
+        final String uri = "/users/search/keyset?emails.address=endsWith(@company.com)&emails.address=endsWith" +
+                "(@dummy.com)&sort=profile.lastName&size=1";
+        final ParameterizedTypeReference<Map<String, Object>> type = new ParameterizedTypeReference<Map<String,
+                Object>>() {
+        };
+        final List<String> userNames = new ArrayList<>();
+        String cursor = null;
+        String previous = null;
+        do {
+            previous = cursor;
+            ResponseEntity<Map<String, Object>> response = template.exchange(cursor == null ? uri : uri +
+                    "&cursor=" + cursor, HttpMethod.GET, null, type);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            final List<?> content = (List<?>) response.getBody()
+                                                      .get("content");
+            assertThat(content.size(), lessThanOrEqualTo(1));
+            content.forEach(u -> userNames.add((String) ((Map<?, ?>) u).get("userName")));
+            cursor = (String) response.getBody()
+                                      .get("nextCursor");
+        } while (cursor != null);
+
+        assertThat(userNames.subList(0, 1), contains("dgayle"));
+        assertThat(userNames.subList(1, 3), containsInAnyOrder("ksmith", "ssmith"));
+        assertThat(userNames.subList(3, 4), contains("bsummers"));
+        assertEquals(4, userNames.size());
+
+        assertEquals(HttpStatus.BAD_REQUEST, template.exchange(uri.replace("sort=profile.lastName",
+                                                                           "sort=userName") + "&cursor=" + previous,
+                                                               HttpMethod.GET, null, type)
+                                                     .getStatusCode());
+    }
+
+    /*
+     * Export streams every matching user once, as a JSON document per line
+     */
+    @Test
+    public void testUserExport_NewlineDelimitedJson() throws Exception {
+        ResponseEntity<String> response = template.getForEntity("/users/export?emails.address=endsWith(@company" +
+                                                                        ".com)&emails.address=endsWith(@dummy.com)",
+                                                                String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(NdjsonSearchExport.MEDIA_TYPE, response.getHeaders()
+                                                            .getContentType()
+                                                            .toString());
+        assertThat(response.getBody(), endsWith("}\n"));
+        final ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
+                                                                 false);
+        final List<User> users = new ArrayList<>();
+        for (String line : response.getBody()
+                                   .split("\n")) {
+            users.add(mapper.readValue(line, User.class));
+        }
+        assertThat(users, containsInAnyOrder(
+                hasProperty("userName", is("dgayle")),
+                hasProperty("userName", is("ksmith")),
+                hasProperty("userName", is("ssmith")),
+                hasProperty("userName", is("bsummers"))));
+    }
 }
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2018 @gt_tech
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.tests;
+
+import org.bitbucket.gt_tech.spring.data.querydsl.value.operators.integration.load.UsersSearchLoadHarness;
+import org.junit.Test;
+
+/**
+ * Search load without experimental servlet filter, see {@link UsersSearchLoadHarness}.
+ *
+ * @author gt_tech
+ */
+public class UsersSearchWithoutFilterLoadIT extends UsersSearchLoadHarness {
+
+    @Test
+    public void loadWithoutFilter() throws Exception {
+        run(false);
+    }
+}